@@ -0,0 +1,34 @@
+package com.izak.demoBankManagement.config;
+
+import com.izak.demoBankManagement.service.ScheduledTransactionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Scheduled tasks for scheduled transfers and standing orders
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionScheduler {
+
+    private final ScheduledTransactionService scheduledTransactionService;
+
+    /**
+     * Execute due scheduled transfers and standing orders
+     * Runs every minute; standing orders due at midnight are worked off in the nightly window
+     */
+    @Scheduled(fixedDelayString = "${bank.scheduled.poll-interval-ms:60000}")
+    public void executeDueTransactions() {
+        try {
+            ScheduledTransactionService.RunSummary summary = scheduledTransactionService.runDueTransactions();
+            if (summary.hasWork()) {
+                log.info("Completed scheduled task: Execute due transactions - {}", summary);
+            }
+        } catch (Exception e) {
+            log.error("Error in scheduled task - Execute due transactions", e);
+        }
+    }
+}
@@ -2,16 +2,22 @@ package com.izak.demoBankManagement.controller;
 
 import com.izak.demoBankManagement.dto.*;
 import com.izak.demoBankManagement.service.AccountService;
+import com.izak.demoBankManagement.service.AccountSweepService;
+import com.izak.demoBankManagement.service.StatementExportService;
 import com.izak.demoBankManagement.security.JwtUtil;
+import com.izak.demoBankManagement.validation.AccountNumber;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -25,6 +31,8 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
+    private final AccountSweepService accountSweepService;
+    private final StatementExportService statementExportService;
     private final JwtUtil jwtUtil;
 
     @PostMapping
@@ -241,7 +249,7 @@ public class AccountController {
 
     @GetMapping("/account-number/{accountNumber}")
     public ResponseEntity<ApiResponse<AccountResponseDTO>> getAccountByAccountNumber(
-            @PathVariable String accountNumber,
+            @PathVariable @AccountNumber String accountNumber,
             @RequestHeader("Authorization") String token) {
         log.info("Get account by account number request: {}", accountNumber);
 
@@ -279,7 +287,7 @@ public class AccountController {
     @PatchMapping("/{accountNumber}/freeze")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE', 'BRANCH_MANAGER')")
     public ResponseEntity<ApiResponse<AccountResponseDTO>> freezeAccount(
-            @PathVariable String accountNumber,
+            @PathVariable @AccountNumber String accountNumber,
             @RequestHeader("Authorization") String token) {
         log.info("Freeze account request: {}", accountNumber);
 
@@ -292,7 +300,7 @@ public class AccountController {
     @PatchMapping("/{accountNumber}/unfreeze")
     @PreAuthorize("hasAnyRole('ADMIN', 'BRANCH_MANAGER')")
     public ResponseEntity<ApiResponse<AccountResponseDTO>> unfreezeAccount(
-            @PathVariable String accountNumber,
+            @PathVariable @AccountNumber String accountNumber,
             @RequestHeader("Authorization") String token) {
         log.info("Unfreeze account request: {}", accountNumber);
 
@@ -302,6 +310,52 @@ public class AccountController {
         return ResponseEntity.ok(ApiResponse.success("Account unfrozen successfully", response));
     }
 
+    @PatchMapping("/{accountNumber}/hot-mode")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<AccountResponseDTO>> setHotMode(
+            @PathVariable @AccountNumber String accountNumber,
+            @RequestParam int stripes) {
+        log.info("Hot mode request for account {}: {} stripes", accountNumber, stripes);
+
+        AccountResponseDTO response = accountService.setHotMode(accountNumber, stripes);
+
+        return ResponseEntity.ok(ApiResponse.success("Account hot mode updated successfully", response));
+    }
+
+    @PostMapping("/sweeps/dormancy")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<AccountSweepResultDTO>> markDormantAccounts(
+            @RequestParam(defaultValue = "12") int inactiveMonths,
+            @RequestHeader("Authorization") String token) {
+        log.info("Dormancy sweep request: {} inactive months", inactiveMonths);
+
+        String jwt = token.substring(7);
+        AccountSweepResultDTO response = accountSweepService.markDormant(inactiveMonths, jwtUtil.extractUsername(jwt));
+
+        return ResponseEntity.ok(ApiResponse.success("Dormancy sweep completed", response));
+    }
+
+    @PostMapping("/sweeps/freeze")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<AccountSweepResultDTO>> bulkFreezeAccounts(
+            @Valid @RequestBody BulkFreezeRequestDTO request,
+            @RequestHeader("Authorization") String token) {
+        log.info("Bulk freeze request: branch {}, KYC status {}, account type {}",
+                request.getBranchId(), request.getKycStatus(), request.getAccountType());
+
+        String jwt = token.substring(7);
+        AccountSweepResultDTO response = accountSweepService.freeze(request, jwtUtil.extractUsername(jwt));
+
+        return ResponseEntity.ok(ApiResponse.success("Bulk freeze completed", response));
+    }
+
+    @GetMapping("/sweeps")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<AccountSweepResultDTO>>> getRecentSweeps() {
+        List<AccountSweepResultDTO> sweeps = accountSweepService.getRecentSweeps();
+        return ResponseEntity.ok(ApiResponse.success("Account sweeps retrieved successfully", sweeps));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'BRANCH_MANAGER')")
     public ResponseEntity<ApiResponse<Void>> deleteAccount(
@@ -327,14 +381,37 @@ public class AccountController {
         return ResponseEntity.ok(ApiResponse.success("Account statement generated successfully", statement));
     }
 
+    @PostMapping("/statement/export")
+    public ResponseEntity<StreamingResponseBody> exportAccountStatement(
+            @Valid @RequestBody AccountStatementRequestDTO request,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader("Authorization") String token) {
+        log.info("Account statement export request for: {} ({})", request.getAccountNumber(), format);
+
+        String jwt = token.substring(7);
+        StatementExportService.Format exportFormat = StatementExportService.Format.from(format);
+        StreamingResponseBody body = statementExportService.export(request, exportFormat, jwt);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-"
+                        + request.getAccountNumber() + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'BRANCH_MANAGER')")
-    public ResponseEntity<ApiResponse<List<AccountListItemDTO>>> getAllAccounts(
+    public ResponseEntity<ApiResponse<AccountListPageDTO>> getAllAccounts(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String accountType,
+            @RequestParam(required = false) Long branchId,
             @RequestHeader("Authorization") String token) {
-        log.info("Get all accounts request");
+        log.info("Get all accounts request - Page: {}, Size: {}", page, size);
 
         String jwt = token.substring(7);
-        List<AccountListItemDTO> accounts = accountService.getAllAccounts(jwt);
+        AccountListPageDTO accounts = accountService.getAllAccounts(page, size, status, accountType, branchId, jwt);
 
         return ResponseEntity.ok(ApiResponse.success("Accounts retrieved successfully", accounts));
     }
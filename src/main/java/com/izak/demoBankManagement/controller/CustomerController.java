@@ -1,7 +1,9 @@
 package com.izak.demoBankManagement.controller;
 
 import com.izak.demoBankManagement.dto.*;
+import com.izak.demoBankManagement.service.CustomerOverviewService;
 import com.izak.demoBankManagement.service.CustomerService;
+import com.izak.demoBankManagement.service.OnboardingImportService;
 import com.izak.demoBankManagement.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +14,8 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -23,6 +27,8 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final OnboardingImportService onboardingImportService;
+    private final CustomerOverviewService customerOverviewService;
     private final JwtUtil jwtUtil;
 
     // Public endpoint - handled by AuthController now
@@ -37,6 +43,23 @@ public class CustomerController {
                 .body(ApiResponse.success("Customer created successfully", response));
     }
 
+    /**
+     * Bulk onboarding: the request body is a CSV of customers and accounts (see OnboardingImportService)
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'BRANCH_MANAGER')")
+    public ResponseEntity<ApiResponse<OnboardingImportReportDTO>> importCustomers(
+            InputStream csv,
+            @RequestHeader("Authorization") String token) throws IOException {
+        log.info("Bulk onboarding import request received");
+
+        String jwt = token.substring(7);
+        OnboardingImportReportDTO report = onboardingImportService.importCsv(csv, jwt);
+
+        return ResponseEntity.ok(ApiResponse.success("Import finished: " + report.getFailedRows()
+                + " of " + report.getTotalRows() + " rows failed", report));
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE', 'BRANCH_MANAGER')")
     public ResponseEntity<ApiResponse<List<CustomerListItemDTO>>> getAllCustomers() {
@@ -88,6 +111,22 @@ public class CustomerController {
         return ResponseEntity.ok(ApiResponse.success("Customer retrieved successfully", customer));
     }
 
+    /**
+     * Customer 360: summary, accounts, cards, loans and DPS of one customer in a single response
+     */
+    @GetMapping("/{customerId}/overview")
+    @PreAuthorize("hasAnyRole('ADMIN', 'BRANCH_MANAGER', 'CUSTOMER')")
+    public ResponseEntity<ApiResponse<CustomerOverviewDTO>> getCustomerOverview(
+            @PathVariable String customerId,
+            @RequestHeader("Authorization") String token) {
+        log.info("Get customer overview request: {}", customerId);
+
+        String jwt = token.substring(7);
+        CustomerOverviewDTO overview = customerOverviewService.getOverview(customerId, jwt);
+
+        return ResponseEntity.ok(ApiResponse.success("Customer overview retrieved successfully", overview));
+    }
+
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE', 'BRANCH_MANAGER')")
     public ResponseEntity<ApiResponse<List<CustomerListItemDTO>>> getCustomersByStatus(
@@ -263,16 +263,18 @@ public class LoanController {
      */
     @GetMapping("/pending-approval")
     @PreAuthorize("hasAnyRole('ADMIN', 'BRANCH_MANAGER', 'LOAN_OFFICER')")
-    public ResponseEntity<ApiResponse<List<LoanListItemDTO>>> getPendingApprovalLoans(
+    public ResponseEntity<ApiResponse<LoanSearchResponseDTO>> getPendingApprovalLoans(
+            @RequestParam(defaultValue = "1") int pageNumber,
+            @RequestParam(defaultValue = "20") int pageSize,
             @RequestHeader("Authorization") String token) {
 
-        log.info("Get pending approval loans request");
+        log.info("Get pending approval loans request - Page: {}, Size: {}", pageNumber, pageSize);
 
         // Extract JWT token without "Bearer " prefix
         String jwt = token.substring(7);
 
         // Pass JWT token to service layer for branch authorization
-        List<LoanListItemDTO> loans = loanService.getPendingApprovalLoans(jwt);
+        LoanSearchResponseDTO loans = loanService.getPendingApprovalLoans(pageNumber, pageSize, jwt);
         return ResponseEntity.ok(ApiResponse.success(
                 "Pending approval loans retrieved successfully", loans));
     }
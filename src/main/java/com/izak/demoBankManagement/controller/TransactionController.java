@@ -1,9 +1,13 @@
 package com.izak.demoBankManagement.controller;
 
 import com.izak.demoBankManagement.dto.*;
+import com.izak.demoBankManagement.service.AsyncTransferService;
+import com.izak.demoBankManagement.service.IdempotencyService;
 import com.izak.demoBankManagement.service.TransactionService;
+import com.izak.demoBankManagement.validation.AccountNumber;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -11,6 +15,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -21,32 +26,109 @@ import jakarta.validation.Valid;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
+    private final AsyncTransferService asyncTransferService;
 
     @PostMapping("/transfer")
 //    @PreAuthorize("hasAnyRole('ADMIN', 'BRANCH_MANAGER', 'CUSTOMER')")
     public ResponseEntity<ApiResponse<TransactionResponseDTO>> transferFunds(
             @Valid @RequestBody TransferRequestDTO request,
-            @RequestHeader("Authorization") String token) {
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
         log.info("Transfer request received: {} -> {}",
                 request.getFromAccountNumber(), request.getToAccountNumber());
 
-        TransactionResponseDTO response = transactionService.transferFunds(request, token);
+        TransactionResponseDTO response = idempotencyService.execute(idempotencyKey, "transfer", request,
+                () -> transactionService.transferFunds(request, token));
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Fund transfer completed successfully", response));
     }
 
+    @PostMapping("/transfer/async")
+    public ResponseEntity<ApiResponse<TransactionResponseDTO>> submitTransfer(
+            @Valid @RequestBody TransferRequestDTO request,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+
+        log.info("Async transfer request received: {} -> {}",
+                request.getFromAccountNumber(), request.getToAccountNumber());
+
+        TransactionResponseDTO response = idempotencyService.execute(idempotencyKey, "transfer-async", request,
+                () -> asyncTransferService.submit(request, token));
+
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Fund transfer accepted for processing", response));
+    }
+
+    @PostMapping("/scheduled")
+    public ResponseEntity<ApiResponse<TransactionResponseDTO>> scheduleTransfer(
+            @Valid @RequestBody ScheduledTransferRequestDTO request,
+            @RequestHeader("Authorization") String token) {
+
+        log.info("Scheduled transfer request received: {} -> {} at {}",
+                request.getTransfer().getFromAccountNumber(), request.getTransfer().getToAccountNumber(),
+                request.getScheduledAt());
+
+        TransactionResponseDTO response = transactionService.createScheduledTransfer(request, token);
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Transfer scheduled successfully", response));
+    }
+
+    @DeleteMapping("/scheduled/{transactionId}")
+    public ResponseEntity<ApiResponse<TransactionResponseDTO>> cancelScheduledTransfer(
+            @PathVariable String transactionId,
+            @RequestHeader("Authorization") String token) {
+
+        log.info("Cancel scheduled transfer request: {}", transactionId);
+
+        TransactionResponseDTO response = transactionService.cancelScheduledTransfer(transactionId, token);
+
+        return ResponseEntity.ok(ApiResponse.success("Scheduled transfer cancelled successfully", response));
+    }
+
+    @GetMapping("/status/{transactionId}")
+    public ResponseEntity<ApiResponse<TransactionStatusDTO>> getTransactionStatus(
+            @PathVariable String transactionId,
+            @RequestHeader("Authorization") String token) {
+
+        log.info("Status inquiry for transaction: {}", transactionId);
+
+        TransactionStatusDTO status = transactionService.getTransactionStatus(transactionId, token);
+
+        return ResponseEntity.ok(ApiResponse.success("Transaction status retrieved successfully", status));
+    }
+
+    @GetMapping("/history/{accountNumber}")
+    public ResponseEntity<ApiResponse<TransactionHistoryPageDTO>> getTransactionHistory(
+            @PathVariable @AccountNumber String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestHeader("Authorization") String token) {
+
+        log.info("History request for account: {}", accountNumber);
+
+        TransactionHistoryPageDTO page = transactionService.getTransactionHistory(accountNumber, cursor, size, token);
+
+        return ResponseEntity.ok(ApiResponse.success("Transaction history retrieved successfully", page));
+    }
+
     @PostMapping("/deposit")
 //    @PreAuthorize("hasAnyRole('ADMIN', 'BRANCH_MANAGER', 'CUSTOMER')")
     public ResponseEntity<ApiResponse<TransactionResponseDTO>> depositMoney(
             @Valid @RequestBody DepositRequestDTO request,
-            @RequestHeader("Authorization") String token) {
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
         log.info("Deposit request received: Account {}", request.getAccountNumber());
 
-        TransactionResponseDTO response = transactionService.depositMoney(request, token);
+        TransactionResponseDTO response = idempotencyService.execute(idempotencyKey, "deposit", request,
+                () -> transactionService.depositMoney(request, token));
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
@@ -57,21 +139,38 @@ public class TransactionController {
 //    @PreAuthorize("hasAnyRole('ADMIN', 'BRANCH_MANAGER', 'CUSTOMER')")
     public ResponseEntity<ApiResponse<TransactionResponseDTO>> withdrawMoney(
             @Valid @RequestBody WithdrawRequestDTO request,
-            @RequestHeader("Authorization") String token) {
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
         log.info("Withdrawal request received: Account {}", request.getAccountNumber());
 
-        TransactionResponseDTO response = transactionService.withdrawMoney(request, token);
+        TransactionResponseDTO response = idempotencyService.execute(idempotencyKey, "withdraw", request,
+                () -> transactionService.withdrawMoney(request, token));
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Withdrawal completed successfully", response));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchTransferResponseDTO>> batchTransfer(
+            @Valid @RequestBody BatchTransferRequestDTO request,
+            @RequestHeader("Authorization") String token) {
+
+        log.info("Batch transfer request received: {} legs from {}",
+                request.getLegs().size(), request.getFromAccountNumber());
+
+        BatchTransferResponseDTO response = transactionService.batchTransfer(request, token);
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Batch transfer processed", response));
+    }
+
     @GetMapping("/balance/{accountNumber}")
 //    @PreAuthorize("hasAnyRole('ADMIN', 'BRANCH_MANAGER', 'CUSTOMER')")
     public ResponseEntity<ApiResponse<AccountBalanceDTO>> getAccountBalance(
-            @PathVariable String accountNumber,
+            @PathVariable @AccountNumber String accountNumber,
             @RequestHeader("Authorization") String token) {
 
         log.info("Balance inquiry for account: {}", accountNumber);
@@ -81,6 +180,19 @@ public class TransactionController {
         return ResponseEntity.ok(ApiResponse.success("Balance retrieved successfully", balance));
     }
 
+    @GetMapping("/balance/{accountNumber}/as-of")
+    public ResponseEntity<ApiResponse<BalanceAsOfDTO>> getBalanceAsOf(
+            @PathVariable @AccountNumber String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestHeader("Authorization") String token) {
+
+        log.info("Balance inquiry for account {} as of {}", accountNumber, at);
+
+        BalanceAsOfDTO balance = transactionService.getBalanceAsOf(accountNumber, at, token);
+
+        return ResponseEntity.ok(ApiResponse.success("Balance retrieved successfully", balance));
+    }
+
     @GetMapping("/health")
     public ResponseEntity<ApiResponse<String>> healthCheck() {
         return ResponseEntity.ok(ApiResponse.success("Transaction service is running", "OK"));
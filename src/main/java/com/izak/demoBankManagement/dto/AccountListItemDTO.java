@@ -1,5 +1,6 @@
 package com.izak.demoBankManagement.dto;
 
+import com.izak.demoBankManagement.entity.Account;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -29,6 +30,18 @@ public class AccountListItemDTO {
     private String status;
     private String kycStatus;
     private LocalDateTime createdDate;
+
+    /**
+     * JPQL constructor projection used by the paged account listing
+     */
+    public AccountListItemDTO(Long id, String accountNumber, String customerId, String firstName, String lastName,
+                              String accountType, Long branchId, String branchCode, String branchName,
+                              BigDecimal balance, String currency, Account.Status status,
+                              Account.KycStatus kycStatus, LocalDateTime createdDate) {
+        this(id, accountNumber, customerId, firstName + " " + lastName, accountType, branchId, branchCode,
+                branchName, balance, currency, status.name().toLowerCase(),
+                kycStatus.name().toLowerCase(), createdDate);
+    }
 }
 
 
@@ -0,0 +1,18 @@
+package com.izak.demoBankManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountListPageDTO {
+
+    private List<AccountListItemDTO> accounts;
+    private Integer pageNumber;
+    private Integer pageSize;
+    private Boolean hasNext;
+}
@@ -1,4 +1,6 @@
 package com.izak.demoBankManagement.dto;
+
+import com.izak.demoBankManagement.validation.AccountNumber;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,6 +15,7 @@ import java.time.LocalDateTime;
 public class AccountStatementRequestDTO {
 
     @NotBlank(message = "Account number is required")
+    @AccountNumber
     private String accountNumber;
 
     @NotNull(message = "Start date is required")
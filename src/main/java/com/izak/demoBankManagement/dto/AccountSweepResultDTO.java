@@ -0,0 +1,24 @@
+package com.izak.demoBankManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSweepResultDTO {
+
+    private Long sweepId;
+    private String sweepType;
+    private String targetStatus;
+    private String criteria;
+    private String reason;
+    private Long accountsUpdated;
+    private Integer chunks;
+    private String status;
+    private String performedBy;
+    private String startedAt;
+    private String completedAt;
+    private String errorMessage;
+}
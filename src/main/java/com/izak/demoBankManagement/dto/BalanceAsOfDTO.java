@@ -0,0 +1,17 @@
+package com.izak.demoBankManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceAsOfDTO {
+    private String accountNumber;
+    private String asOf;
+    private BigDecimal balance;
+    private String currency;
+}
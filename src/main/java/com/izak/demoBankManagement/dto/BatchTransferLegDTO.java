@@ -0,0 +1,27 @@
+package com.izak.demoBankManagement.dto;
+
+import com.izak.demoBankManagement.validation.AccountNumber;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferLegDTO {
+
+    @NotBlank(message = "Destination account number is required")
+    @AccountNumber
+    private String toAccountNumber;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @Digits(integer = 15, fraction = 2, message = "Invalid amount format")
+    private BigDecimal amount;
+
+    private String description;
+    private String remarks;
+}
@@ -0,0 +1,21 @@
+package com.izak.demoBankManagement.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferLegResultDTO {
+
+    private int legIndex;
+    private String toAccountNumber;
+    private BigDecimal amount;
+    private BigDecimal totalAmount;
+    private String status; // COMPLETED, FAILED
+    private String transactionId;
+    private String referenceNumber;
+    private String errorMessage;
+}
@@ -0,0 +1,32 @@
+package com.izak.demoBankManagement.dto;
+
+import com.izak.demoBankManagement.validation.AccountNumber;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferRequestDTO {
+
+    @NotBlank(message = "Source account number is required")
+    @AccountNumber
+    private String fromAccountNumber;
+
+    @NotBlank(message = "Transfer mode is required")
+    private String transferMode; // NEFT, RTGS, IMPS, UPI
+
+    private String description;
+    private String priority; // normal, high
+    private String transferType; // own, other
+
+    @NotEmpty(message = "At least one credit leg is required")
+    @Size(max = 10000, message = "A batch can contain at most 10000 credit legs")
+    @Valid
+    private List<BatchTransferLegDTO> legs;
+}
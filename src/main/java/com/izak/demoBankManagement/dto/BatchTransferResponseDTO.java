@@ -0,0 +1,24 @@
+package com.izak.demoBankManagement.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferResponseDTO {
+
+    private String batchReference;
+    private String fromAccountNumber;
+    private int totalLegs;
+    private int completedLegs;
+    private int failedLegs;
+    private BigDecimal totalDebited;
+    private BigDecimal balanceBefore;
+    private BigDecimal balanceAfter;
+    private String processedAt;
+    private List<BatchTransferLegResultDTO> results;
+}
@@ -0,0 +1,24 @@
+package com.izak.demoBankManagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkFreezeRequestDTO {
+
+    // At least one of branchId, kycStatus and accountType is required
+    private Long branchId;
+
+    private String kycStatus; // PENDING, VERIFIED, REJECTED
+
+    private String accountType;
+
+    @NotBlank(message = "Reason is required")
+    @Size(max = 500, message = "Reason cannot exceed 500 characters")
+    private String reason;
+}
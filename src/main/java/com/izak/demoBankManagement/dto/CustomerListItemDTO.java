@@ -1,6 +1,7 @@
 package com.izak.demoBankManagement.dto;
 
 
+import com.izak.demoBankManagement.entity.Customer;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -23,4 +24,14 @@ public class CustomerListItemDTO {
     private String kycStatus;
     private String image;
     private LocalDateTime createdDate;
+
+    /**
+     * JPQL constructor projection used by the customer overview
+     */
+    public CustomerListItemDTO(Long id, String customerId, String firstName, String lastName, String email,
+                               String phone, String city, String state, Customer.Status status,
+                               Customer.KycStatus kycStatus, String image, LocalDateTime createdDate) {
+        this(id, customerId, firstName, lastName, email, phone, city, state, status.name().toLowerCase(),
+                kycStatus.name().toLowerCase(), image, createdDate);
+    }
 }
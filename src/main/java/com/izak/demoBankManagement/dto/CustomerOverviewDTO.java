@@ -0,0 +1,19 @@
+package com.izak.demoBankManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOverviewDTO {
+
+    private CustomerListItemDTO customer;
+    private List<AccountListItemDTO> accounts;
+    private List<CardListItemDTO> cards;
+    private List<LoanListItemDTO> loans;
+    private List<DPSResponseDTO> dpsAccounts;
+}
@@ -1,4 +1,6 @@
 package com.izak.demoBankManagement.dto;
+
+import com.izak.demoBankManagement.validation.AccountNumber;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,6 +16,7 @@ public class DepositRequestDTO {
 
 
     @NotBlank(message = "Account number is required")
+    @AccountNumber
     private String accountNumber;
 
     @NotNull(message = "Amount is required")
@@ -1,5 +1,6 @@
 package com.izak.demoBankManagement.dto;
 
+import com.izak.demoBankManagement.entity.Loan;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,4 +25,15 @@ public class LoanListItemDTO {
     private LocalDate applicationDate;
     private String customerName;
     private String customerId;
+
+    /**
+     * JPQL constructor projection used by the paged loan lists
+     */
+    public LoanListItemDTO(String loanId, Loan.LoanType loanType, Loan.LoanStatus loanStatus,
+                           Loan.ApprovalStatus approvalStatus, BigDecimal principal, BigDecimal outstandingBalance,
+                           BigDecimal monthlyEMI, LocalDate applicationDate, String firstName, String lastName,
+                           String customerId) {
+        this(loanId, loanType.name(), loanStatus.name(), approvalStatus.name(), principal, outstandingBalance,
+                monthlyEMI, applicationDate, firstName + " " + lastName, customerId);
+    }
 }
\ No newline at end of file
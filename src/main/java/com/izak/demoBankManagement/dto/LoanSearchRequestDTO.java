@@ -21,6 +21,18 @@ public class LoanSearchRequestDTO {
 
     private String loanType; // HOME_LOAN, CAR_LOAN, etc.
 
+    // Principal range, inclusive
+    @PositiveOrZero(message = "Minimum amount cannot be negative")
+    private BigDecimal minAmount;
+
+    @PositiveOrZero(message = "Maximum amount cannot be negative")
+    private BigDecimal maxAmount;
+
+    // Application date range, inclusive
+    private LocalDate applicationDateFrom;
+
+    private LocalDate applicationDateTo;
+
     @Min(value = 0, message = "Page number cannot be negative")
     private Integer pageNumber = 0;
 
@@ -0,0 +1,14 @@
+package com.izak.demoBankManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnboardingImportErrorDTO {
+
+    private Long rowNumber;
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.izak.demoBankManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnboardingImportReportDTO {
+
+    private Long totalRows;
+    private Long customersCreated;
+    private Long accountsCreated;
+    private Long failedRows;
+    private List<OnboardingImportErrorDTO> errors;
+    private Boolean errorsTruncated;
+    private Long elapsedMillis;
+}
@@ -0,0 +1,29 @@
+package com.izak.demoBankManagement.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledTransferRequestDTO {
+
+    @NotNull(message = "Transfer details are required")
+    @Valid
+    private TransferRequestDTO transfer;
+
+    @NotNull(message = "Scheduled date is required")
+    @Future(message = "Scheduled date must be in the future")
+    private LocalDateTime scheduledAt;
+
+    // Empty for a one-off transfer; DAILY, WEEKLY, MONTHLY or YEARLY for a standing order
+    @Pattern(regexp = "(?i)DAILY|WEEKLY|MONTHLY|YEARLY", message = "Recurring frequency must be DAILY, WEEKLY, MONTHLY or YEARLY")
+    private String recurringFrequency;
+}
@@ -0,0 +1,21 @@
+package com.izak.demoBankManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryPageDTO {
+
+    private String accountNumber;
+    private List<TransactionHistoryDTO> transactions;
+    private int size;
+    private boolean hasMore;
+
+    // Opaque cursor for the next (older) page; null on the last page
+    private String nextCursor;
+}
@@ -23,6 +23,9 @@ public class TransactionResponseDTO {
 
     private BigDecimal amount;
     private String currency;
+    private BigDecimal creditAmount;
+    private String creditCurrency;
+    private BigDecimal fxRate;
     private BigDecimal transferFee;
     private BigDecimal serviceTax;
     private BigDecimal totalAmount;
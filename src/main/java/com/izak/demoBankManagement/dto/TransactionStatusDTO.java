@@ -0,0 +1,26 @@
+package com.izak.demoBankManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionStatusDTO {
+
+    private String transactionId;
+    private String referenceNumber;
+    private String status;
+    private String fromAccountNumber;
+    private String toAccountNumber;
+    private BigDecimal amount;
+    private BigDecimal totalAmount;
+    private BigDecimal balanceAfter;
+    private String errorCode;
+    private String errorMessage;
+    private String timestamp;
+    private String completedAt;
+}
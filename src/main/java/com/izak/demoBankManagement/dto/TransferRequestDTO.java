@@ -1,4 +1,6 @@
 package com.izak.demoBankManagement.dto;
+
+import com.izak.demoBankManagement.validation.AccountNumber;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,9 +16,11 @@ public class TransferRequestDTO {
 
 
     @NotBlank(message = "Source account number is required")
+    @AccountNumber
     private String fromAccountNumber;
 
     @NotBlank(message = "Destination account number is required")
+    @AccountNumber
     private String toAccountNumber;
 
     @NotNull(message = "Amount is required")
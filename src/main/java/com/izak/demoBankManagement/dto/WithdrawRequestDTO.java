@@ -1,4 +1,6 @@
 package com.izak.demoBankManagement.dto;
+
+import com.izak.demoBankManagement.validation.AccountNumber;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,6 +14,7 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class WithdrawRequestDTO {
     @NotBlank(message = "Account number is required")
+    @AccountNumber
     private String accountNumber;
 
     @NotNull(message = "Amount is required")
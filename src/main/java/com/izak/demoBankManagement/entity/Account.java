@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+        @Index(name = "idx_account_branch", columnList = "branch_id, id"),
+        @Index(name = "idx_account_customer_identifier", columnList = "customer_identifier")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -75,6 +78,9 @@ public class Account {
     @UpdateTimestamp
     private LocalDateTime lastUpdated;
 
+    // Hot account mode: number of striped sub-balances receiving credits (null or 0 = disabled)
+    private Integer balanceStripes;
+
     // Relationships
     @OneToMany(mappedBy = "fromAccount", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Transaction> outgoingTransactions;
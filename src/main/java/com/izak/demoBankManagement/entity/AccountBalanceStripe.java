@@ -0,0 +1,41 @@
+package com.izak.demoBankManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One of N sub-balances of a hot account. Credits land on a single stripe so they do not
+ * serialize on the account row; the account's real balance is Account.balance plus all stripes.
+ */
+@Entity
+@Table(name = "account_balance_stripes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stripe_account_index", columnNames = {"account_id", "stripe_index"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(name = "stripe_index", nullable = false)
+    private Integer stripeIndex;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    @UpdateTimestamp
+    private LocalDateTime lastUpdated;
+}
@@ -0,0 +1,70 @@
+package com.izak.demoBankManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit record of one bulk account status sweep: who ran it, with which criteria, and how many
+ * accounts it changed. Written as RUNNING when the sweep starts and closed when it ends.
+ */
+@Entity
+@Table(name = "account_status_sweeps")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountStatusSweep {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SweepType sweepType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Account.Status targetStatus;
+
+    @Column(nullable = false, length = 500)
+    private String criteria;
+
+    @Column(length = 500)
+    private String reason;
+
+    @Column(nullable = false)
+    private Long accountsUpdated = 0L;
+
+    @Column(nullable = false)
+    private Integer chunks = 0;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.RUNNING;
+
+    @Column(nullable = false, length = 100)
+    private String performedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    public enum SweepType {
+        DORMANCY,
+        FREEZE
+    }
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,41 @@
+package com.izak.demoBankManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * End-of-day balance checkpoint of one account, derived from its ledger entries.
+ * A row exists for every day the account had ledger activity; days without activity
+ * carry the closing balance of the last row before them.
+ */
+@Entity
+@Table(name = "daily_balances", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_balance_account_date", columnNames = {"account_id", "balance_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "balance_date", nullable = false)
+    private LocalDate balanceDate;
+
+    @Column(name = "closing_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal closingBalance;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.izak.demoBankManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A checkpoint movement waiting to be folded into {@link DailyBalance}. Postings append these rows
+ * instead of updating the account's checkpoint rows, which would lengthen every posting and
+ * serialize the otherwise parallel credits of hot (striped) accounts.
+ */
+@Entity
+@Table(name = "daily_balance_deltas", indexes = {
+        @Index(name = "idx_daily_balance_delta_account_date", columnList = "account_id, balance_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyBalanceDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "balance_date", nullable = false)
+    private LocalDate balanceDate;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
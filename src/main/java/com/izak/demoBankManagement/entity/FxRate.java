@@ -0,0 +1,36 @@
+package com.izak.demoBankManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Exchange rate of one currency against the base currency (bank.fx.base-currency):
+ * units of {@code currency} per one unit of base. Cross rates are derived in memory.
+ */
+@Entity
+@Table(name = "fx_rates", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_fx_rate_currency", columnNames = {"currency"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "units_per_base", nullable = false, precision = 19, scale = 8)
+    private BigDecimal unitsPerBase;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.izak.demoBankManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_created_at", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Stored as "<username>:<client key>"
+    @Column(unique = true, nullable = false, length = 160)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 30)
+    private String operation;
+
+    // SHA-256 of the request body, so a reused key with a different payload is rejected
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    // Identifies the claiming request; a posting only completes the key while it still holds the claim
+    @Column(length = 36)
+    private String claimToken;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.IN_PROGRESS;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(length = 50)
+    private String transactionId;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
@@ -0,0 +1,48 @@
+package com.izak.demoBankManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Interest accrued on one account during one month, summed day by day at full precision.
+ * {@code lastAccrualDate} makes the nightly accrual idempotent: a day is added only once.
+ * At month end the total is credited to the account (rounded down to cents), the row is marked
+ * capitalised and the remainder is carried into the next month's row.
+ */
+@Entity
+@Table(name = "interest_accruals", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_interest_accrual_account_period", columnNames = {"account_id", "period_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterestAccrual {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "accrued_amount", nullable = false, precision = 19, scale = 6)
+    private BigDecimal accruedAmount;
+
+    @Column(name = "last_accrual_date", nullable = false)
+    private LocalDate lastAccrualDate;
+
+    @Column(name = "capitalized_at")
+    private LocalDateTime capitalizedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.izak.demoBankManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one partition (an account id range) of one phase of the nightly interest run.
+ * Accounts with ids in (rangeStart, lastAccountId] are done; a restarted run resumes after
+ * lastAccountId. The row is locked while a chunk is processed, so nodes never share a chunk.
+ */
+@Entity
+@Table(name = "interest_accrual_checkpoints", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_interest_checkpoint_partition",
+                columnNames = {"accrual_date", "phase", "partition_no"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterestAccrualCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "accrual_date", nullable = false)
+    private LocalDate accrualDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Phase phase;
+
+    @Column(name = "partition_no", nullable = false)
+    private Integer partitionNo;
+
+    @Column(name = "range_start", nullable = false)
+    private Long rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private Long rangeEnd;
+
+    @Column(name = "last_account_id", nullable = false)
+    private Long lastAccountId;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Phase {
+        ACCRUE,
+        CAPITALIZE
+    }
+}
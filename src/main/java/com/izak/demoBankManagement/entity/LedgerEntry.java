@@ -0,0 +1,67 @@
+package com.izak.demoBankManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One leg of a double-entry posting. Rows are insert-only: every posting writes legs whose
+ * debits and credits sum to the same amount, and an account's balance is the sum of its credits
+ * minus its debits. Customer accounts carry their account id; internal (GL) accounts such as
+ * cash or fee income only carry their ledger account code.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_account_id", columnList = "account_id, id"),
+        @Index(name = "idx_ledger_transaction_id", columnList = "transaction_id"),
+        @Index(name = "idx_ledger_account_created", columnList = "account_id, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+
+    public static final String GL_CASH = "GL_CASH";
+    public static final String GL_FEE_INCOME = "GL_FEE_INCOME";
+    public static final String GL_SERVICE_TAX = "GL_SERVICE_TAX";
+    public static final String GL_OPENING_BALANCE = "GL_OPENING_BALANCE";
+    public static final String GL_INTEREST_EXPENSE = "GL_INTEREST_EXPENSE";
+    // Currency position of the bank: buys the source amount and sells the converted amount of FX transfers
+    public static final String GL_FX_POSITION = "GL_FX_POSITION";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false, length = 50, updatable = false)
+    private String transactionId;
+
+    @Column(name = "account_id", updatable = false)
+    private Long accountId;
+
+    @Column(name = "ledger_account", nullable = false, length = 30, updatable = false)
+    private String ledgerAccount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 10, updatable = false)
+    private EntryType entryType;
+
+    @Column(nullable = false, precision = 15, scale = 2, updatable = false)
+    private BigDecimal amount;
+
+    @Column(length = 3, updatable = false)
+    private String currency;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum EntryType {
+        DEBIT, CREDIT
+    }
+}
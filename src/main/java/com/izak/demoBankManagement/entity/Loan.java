@@ -13,7 +13,17 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "loans")
+@Table(name = "loans", indexes = {
+        // Loan search: role scope (branch via account, customer), status and the newest-first page order
+        @Index(name = "idx_loan_account", columnList = "account_id"),
+        @Index(name = "idx_loan_customer", columnList = "customer_id"),
+        @Index(name = "idx_loan_status_application", columnList = "loan_status, application_date, id"),
+        @Index(name = "idx_loan_application", columnList = "application_date, id"),
+        // Pending approval queue, oldest application first
+        @Index(name = "idx_loan_approval_application", columnList = "approval_status, application_date, id"),
+        // Nightly materialisation of lazy schedules: only loans with an installment falling due
+        @Index(name = "idx_loan_next_schedule_due", columnList = "next_schedule_due_date, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -100,6 +110,14 @@ public class Loan {
     @Column(name = "disbursement_account_id")
     private Long disbursementAccountId;
 
+    // Only installments that fell due or were paid are stored; the rest are computed on demand
+    @Column(name = "lazy_schedule")
+    private Boolean lazySchedule = false;
+
+    // Due date of the first installment not stored yet; null once every installment is stored
+    @Column(name = "next_schedule_due_date")
+    private LocalDate nextScheduleDueDate;
+
     // Collateral (for secured loans)
     @Column(length = 100)
     private String collateralType;
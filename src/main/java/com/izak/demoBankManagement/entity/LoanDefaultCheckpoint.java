@@ -0,0 +1,49 @@
+package com.izak.demoBankManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one default-marking run: a run date and a scope ({@code ALL} or {@code BRANCH-<id>}).
+ * Loans with ids up to lastLoanId are done; a restarted run of the same day resumes after it.
+ * The row is locked while a chunk is processed, so concurrent triggers never share a chunk.
+ */
+@Entity
+@Table(name = "loan_default_checkpoints", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_loan_default_checkpoint_run", columnNames = {"run_date", "scope"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanDefaultCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(nullable = false, length = 30)
+    private String scope;
+
+    @Column(name = "last_loan_id", nullable = false)
+    private Long lastLoanId;
+
+    @Column(name = "loans_defaulted", nullable = false)
+    private Long loansDefaulted;
+
+    @Column(name = "schedules_overdue", nullable = false)
+    private Long schedulesOverdue;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
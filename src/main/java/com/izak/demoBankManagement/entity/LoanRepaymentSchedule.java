@@ -12,7 +12,11 @@ import java.time.LocalDateTime;
 
 
 @Entity
-@Table(name = "loan_repayment_schedules")
+@Table(name = "loan_repayment_schedules", indexes = {
+        @Index(name = "idx_schedule_status_due", columnList = "status, due_date, loan_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_schedule_loan_installment", columnNames = {"loan_id", "installment_number"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
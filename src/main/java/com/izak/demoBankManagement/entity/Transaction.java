@@ -11,7 +11,16 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Keyset pagination of account history, one seek per side of the posting
+        @Index(name = "idx_txn_from_account_ts", columnList = "from_account_id, timestamp, id"),
+        @Index(name = "idx_txn_to_account_ts", columnList = "to_account_id, timestamp, id"),
+        // Time-ordered scan of recent postings (fraud state rebuild)
+        @Index(name = "idx_txn_timestamp_id", columnList = "timestamp, id"),
+        // Due queues of the scheduled / recurring transaction engine
+        @Index(name = "idx_txn_scheduled_due", columnList = "status, is_scheduled, scheduled_at"),
+        @Index(name = "idx_txn_recurring_due", columnList = "status, is_recurring, next_recurring_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -55,6 +64,17 @@ public class Transaction {
     @Column(nullable = false, length = 3)
     private String currency = "USD";
 
+    // Amount credited to the destination, in its currency; differs from amount on cross-currency transfers
+    @Column(precision = 15, scale = 2)
+    private BigDecimal creditAmount;
+
+    @Column(length = 3)
+    private String creditCurrency;
+
+    // Units of creditCurrency per unit of currency; null when no conversion took place
+    @Column(precision = 19, scale = 10)
+    private BigDecimal fxRate;
+
     @Column(precision = 10, scale = 2)
     private BigDecimal transferFee = BigDecimal.ZERO;
 
@@ -0,0 +1,11 @@
+package com.izak.demoBankManagement.exception;
+
+public class AccountLockException extends RuntimeException {
+    public AccountLockException(String message) {
+        super(message);
+    }
+
+    public AccountLockException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.izak.demoBankManagement.exception;
+
+public class FraudCheckFailedException extends RuntimeException {
+    public FraudCheckFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.izak.demoBankManagement.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,40 @@
+package com.izak.demoBankManagement.repository;
+
+import com.izak.demoBankManagement.entity.AccountBalanceStripe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountBalanceStripeRepository extends JpaRepository<AccountBalanceStripe, Long> {
+
+    // Credit the preferred stripe, or else the first unlocked one; only that stripe row is locked until commit.
+    // SKIP LOCKED means a credit never waits for a stripe lock, so stripes cannot close a lock cycle.
+    @Modifying
+    @Query(value = "UPDATE account_balance_stripes SET balance = balance + :amount WHERE id = (" +
+            "SELECT id FROM account_balance_stripes WHERE account_id = :accountId " +
+            "ORDER BY CASE WHEN stripe_index = :stripeIndex THEN 0 ELSE 1 END, stripe_index " +
+            "LIMIT 1 FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int addToStripe(@Param("accountId") Long accountId,
+                    @Param("stripeIndex") Integer stripeIndex,
+                    @Param("amount") BigDecimal amount);
+
+    // Lock all stripes of an account in stripe order before folding them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountBalanceStripe s WHERE s.account.id = :accountId ORDER BY s.stripeIndex")
+    List<AccountBalanceStripe> findByAccountIdWithLock(@Param("accountId") Long accountId);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountBalanceStripe s WHERE s.account.id = :accountId")
+    BigDecimal sumByAccountId(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("DELETE FROM AccountBalanceStripe s WHERE s.account.id = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+}
@@ -1,14 +1,21 @@
 package com.izak.demoBankManagement.repository;
 
+import com.izak.demoBankManagement.dto.AccountListItemDTO;
 import com.izak.demoBankManagement.entity.Account;
 import com.izak.demoBankManagement.entity.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,4 +39,60 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     // Branch-scoped query
     List<Account> findByBranchId(Long branchId);
+
+    // One statement per page: scope and filters in the WHERE clause, customer and branch joined in
+    @Query("SELECT new com.izak.demoBankManagement.dto.AccountListItemDTO(a.id, a.accountNumber, a.customerId, " +
+            "c.firstName, c.lastName, a.accountType, b.id, b.branchCode, b.branchName, a.balance, a.currency, " +
+            "a.status, a.kycStatus, a.createdDate) " +
+            "FROM Account a JOIN a.customer c LEFT JOIN a.branch b " +
+            "WHERE (:branchId IS NULL OR b.id = :branchId) " +
+            "AND (:customerId IS NULL OR a.customerId = :customerId) " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:accountType IS NULL OR UPPER(a.accountType) = :accountType) " +
+            "ORDER BY a.id DESC")
+    Slice<AccountListItemDTO> findListItems(@Param("branchId") Long branchId,
+                                            @Param("customerId") String customerId,
+                                            @Param("status") Account.Status status,
+                                            @Param("accountType") String accountType,
+                                            Pageable pageable);
+
+    // All accounts of one customer, projected like the paged listing
+    @Query("SELECT new com.izak.demoBankManagement.dto.AccountListItemDTO(a.id, a.accountNumber, a.customerId, " +
+            "c.firstName, c.lastName, a.accountType, b.id, b.branchCode, b.branchName, a.balance, a.currency, " +
+            "a.status, a.kycStatus, a.createdDate) " +
+            "FROM Account a JOIN a.customer c LEFT JOIN a.branch b " +
+            "WHERE a.customerId = :customerId ORDER BY a.id")
+    List<AccountListItemDTO> findListItemsByCustomerId(@Param("customerId") String customerId);
+
+    // Bulk posting validation: account number, id, status, holder name and currency without loading entities
+    @Query("SELECT a.accountNumber, a.id, a.status, c.firstName, c.lastName, a.currency FROM Account a JOIN a.customer c " +
+            "WHERE a.accountNumber IN :accountNumbers")
+    List<Object[]> findPostingTargetsByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    // Balance cache row: [id, accountNumber, customerId, accountType, branchId, branchCode, branchName,
+    // balance, currency, status, balanceStripes]
+    @Query("SELECT a.id, a.accountNumber, a.customerId, a.accountType, b.id, b.branchCode, b.branchName, " +
+            "a.balance, a.currency, a.status, a.balanceStripes " +
+            "FROM Account a LEFT JOIN a.branch b WHERE a.accountNumber = :accountNumber")
+    List<Object[]> findBalanceView(@Param("accountNumber") String accountNumber);
+
+    // Hot accounts with striped sub-balances: [accountNumber, id, balanceStripes]
+    @Query("SELECT a.accountNumber, a.id, a.balanceStripes FROM Account a WHERE a.balanceStripes > 0")
+    List<Object[]> findHotAccounts();
+
+    // Single-statement balance changes for async postings: no SELECT ... FOR UPDATE round trip
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, a.lastUpdated = :now " +
+            "WHERE a.id = :id AND a.status = :status AND a.balance >= :amount")
+    int debitIfSufficient(@Param("id") Long id, @Param("amount") BigDecimal amount,
+                          @Param("status") Account.Status status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, a.lastUpdated = :now " +
+            "WHERE a.id = :id AND a.status = :status")
+    int creditIfStatus(@Param("id") Long id, @Param("amount") BigDecimal amount,
+                       @Param("status") Account.Status status, @Param("now") LocalDateTime now);
+
+    @Query("SELECT a.balance FROM Account a WHERE a.id = :id")
+    BigDecimal findBalanceById(@Param("id") Long id);
 }
@@ -0,0 +1,13 @@
+package com.izak.demoBankManagement.repository;
+
+import com.izak.demoBankManagement.entity.AccountStatusSweep;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountStatusSweepRepository extends JpaRepository<AccountStatusSweep, Long> {
+
+    List<AccountStatusSweep> findTop50ByOrderByIdDesc();
+}
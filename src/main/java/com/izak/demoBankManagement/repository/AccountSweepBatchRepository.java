@@ -0,0 +1,83 @@
+package com.izak.demoBankManagement.repository;
+
+import com.izak.demoBankManagement.entity.Account;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set-based account status sweeps over one id range at a time. Each statement changes the
+ * matching rows in place and returns their account numbers; runs inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountSweepBatchRepository {
+
+    // No posting on either side since the cutoff; one index seek per side, see idx_txn_*_account_ts
+    private static final String MARK_DORMANT_SQL =
+            "UPDATE accounts a SET status = 'INACTIVE', last_updated = ? " +
+            "WHERE a.id > ? AND a.id <= ? AND a.status = 'ACTIVE' AND a.created_date < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM transactions t WHERE t.from_account_id = a.id AND t.timestamp >= ?) " +
+            "AND NOT EXISTS (SELECT 1 FROM transactions t WHERE t.to_account_id = a.id AND t.timestamp >= ?) " +
+            "RETURNING a.account_number";
+
+    private static final String FREEZE_SQL =
+            "UPDATE accounts SET status = 'FROZEN', last_updated = ? " +
+            "WHERE id > ? AND id <= ? AND status IN ('ACTIVE', 'INACTIVE')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return [min id, max id] of all accounts, or null when there are none
+     */
+    public long[] accountIdRange() {
+        return jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM accounts", (rs, rowNum) ->
+                rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    /**
+     * Mark ACTIVE accounts with ids in (fromId, toId] INACTIVE when they were opened before
+     * {@code cutoff} and have had no transaction since.
+     *
+     * @return account numbers changed
+     */
+    public List<String> markDormant(LocalDateTime cutoff, long fromId, long toId, LocalDateTime now) {
+        Timestamp since = Timestamp.valueOf(cutoff);
+        return jdbcTemplate.queryForList(MARK_DORMANT_SQL, String.class,
+                Timestamp.valueOf(now), fromId, toId, since, since, since);
+    }
+
+    /**
+     * Freeze ACTIVE and INACTIVE accounts with ids in (fromId, toId] that match every given criterion;
+     * null criteria are ignored.
+     *
+     * @return account numbers changed
+     */
+    public List<String> freeze(Long branchId, Account.KycStatus kycStatus, String accountType,
+                               long fromId, long toId, LocalDateTime now) {
+        StringBuilder sql = new StringBuilder(FREEZE_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(now));
+        args.add(fromId);
+        args.add(toId);
+        if (branchId != null) {
+            sql.append(" AND branch_id = ?");
+            args.add(branchId);
+        }
+        if (kycStatus != null) {
+            sql.append(" AND kyc_status = ?");
+            args.add(kycStatus.name());
+        }
+        if (accountType != null) {
+            sql.append(" AND account_type = ?");
+            args.add(accountType);
+        }
+        sql.append(" RETURNING account_number");
+        return jdbcTemplate.queryForList(sql.toString(), String.class, args.toArray());
+    }
+}
@@ -28,6 +28,11 @@ public interface CardRepository extends JpaRepository<Card, Long> {
     @Query("SELECT c FROM Card c WHERE c.customer.customerId = :customerId")
     List<Card> findByCustomerCustomerId(@Param("customerId") String customerId);
 
+    // Customer (with its user) and account branch fetched in the same statement, for listing and branch checks
+    @Query("SELECT c FROM Card c JOIN FETCH c.customer cu JOIN FETCH cu.user JOIN FETCH c.account a " +
+            "LEFT JOIN FETCH a.branch WHERE cu.customerId = :customerId ORDER BY c.id")
+    List<Card> findByCustomerIdWithDetails(@Param("customerId") String customerId);
+
     @Query("SELECT c FROM Card c WHERE c.account.accountNumber = :accountNumber")
     List<Card> findByAccountNumber(@Param("accountNumber") String accountNumber);
 
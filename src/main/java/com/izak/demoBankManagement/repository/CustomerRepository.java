@@ -1,7 +1,10 @@
 package com.izak.demoBankManagement.repository;
 
+import com.izak.demoBankManagement.dto.CustomerListItemDTO;
 import com.izak.demoBankManagement.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -16,4 +19,10 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findByKycStatus(Customer.KycStatus kycStatus);
     boolean existsByCustomerId(String customerId);
     boolean existsByEmail(String email);
+
+    // Customer summary without loading the entity (and its eagerly fetched user)
+    @Query("SELECT new com.izak.demoBankManagement.dto.CustomerListItemDTO(c.id, c.customerId, c.firstName, " +
+            "c.lastName, c.email, c.phone, c.city, c.state, c.status, c.kycStatus, c.image, c.createdDate) " +
+            "FROM Customer c WHERE c.customerId = :customerId")
+    Optional<CustomerListItemDTO> findListItemByCustomerId(@Param("customerId") String customerId);
 }
@@ -20,6 +20,11 @@ public interface DPSRepository extends JpaRepository<DPS, Long> {
     List<DPS> findByBranchId(Long branchId);
     boolean existsByDpsNumber(String dpsNumber);
 
+    // Customer (with its user), linked account and branch fetched in the same statement
+    @Query("SELECT d FROM DPS d JOIN FETCH d.customer c JOIN FETCH c.user LEFT JOIN FETCH d.linkedAccount " +
+            "LEFT JOIN FETCH d.branch WHERE d.customerId = :customerId ORDER BY d.id")
+    List<DPS> findByCustomerIdWithDetails(@Param("customerId") String customerId);
+
     // Part A: New branch-scoped query methods
 
     /**
@@ -0,0 +1,15 @@
+package com.izak.demoBankManagement.repository;
+
+import com.izak.demoBankManagement.entity.DailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, Long> {
+
+    // Latest checkpoint strictly before the given day; served by the (account_id, balance_date) unique index
+    Optional<DailyBalance> findFirstByAccountIdAndBalanceDateLessThanOrderByBalanceDateDesc(Long accountId, LocalDate day);
+}
@@ -0,0 +1,42 @@
+package com.izak.demoBankManagement.repository;
+
+import com.izak.demoBankManagement.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :idempotencyKey AND r.status = 'IN_PROGRESS' " +
+            "AND r.claimToken = :claimToken")
+    int deleteInProgress(@Param("idempotencyKey") String idempotencyKey, @Param("claimToken") String claimToken);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'COMPLETED', r.responseBody = :responseBody, " +
+            "r.transactionId = :transactionId, r.completedAt = :completedAt " +
+            "WHERE r.idempotencyKey = :idempotencyKey AND r.status = 'IN_PROGRESS' AND r.claimToken = :claimToken")
+    int completeClaim(@Param("idempotencyKey") String idempotencyKey, @Param("claimToken") String claimToken,
+                      @Param("responseBody") String responseBody, @Param("transactionId") String transactionId,
+                      @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :idempotencyKey AND r.status = 'IN_PROGRESS' " +
+            "AND r.createdAt < :cutoff")
+    int deleteStaleInProgress(@Param("idempotencyKey") String idempotencyKey, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.status = 'IN_PROGRESS' AND r.createdAt < :cutoff")
+    int deleteInProgressBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.status = 'COMPLETED' AND r.createdAt < :cutoff")
+    int deleteCompletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,248 @@
+package com.izak.demoBankManagement.repository;
+
+import com.izak.demoBankManagement.entity.InterestAccrualCheckpoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based SQL for the nightly interest run: daily accrual, month-end capitalisation and the
+ * per-partition checkpoints that make the run restartable. Runs inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InterestAccrualBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    // Accrue one day on the closing balance checkpoint of that day; a day already accrued is skipped
+    private static final String ACCRUE_SQL =
+            "INSERT INTO interest_accruals (account_id, period_start, accrued_amount, last_accrual_date, updated_at) " +
+            "SELECT a.id, ?, ROUND(b.closing_balance * a.interest_rate / ?, 6), ?, ? " +
+            "FROM accounts a " +
+            "JOIN LATERAL (SELECT d.closing_balance FROM daily_balances d WHERE d.account_id = a.id " +
+            "AND d.balance_date <= ? ORDER BY d.balance_date DESC LIMIT 1) b ON TRUE " +
+            "WHERE a.id > ? AND a.id <= ? AND a.status = 'ACTIVE' AND a.interest_rate > 0 AND b.closing_balance > 0 " +
+            "ON CONFLICT (account_id, period_start) DO UPDATE " +
+            "SET accrued_amount = interest_accruals.accrued_amount + EXCLUDED.accrued_amount, " +
+            "last_accrual_date = EXCLUDED.last_accrual_date, updated_at = EXCLUDED.updated_at " +
+            "WHERE interest_accruals.last_accrual_date < EXCLUDED.last_accrual_date";
+
+    // Uncapitalised accruals up to a period, account rows locked in account-number order like postings do
+    private static final String LOCK_DUE_INTEREST_SQL =
+            "SELECT a.id, a.account_number, a.currency, i.accrued_amount, a.balance + COALESCE((SELECT SUM(s.balance) " +
+            "FROM account_balance_stripes s WHERE s.account_id = a.id), 0) " +
+            "FROM interest_accruals i JOIN accounts a ON a.id = i.account_id " +
+            "WHERE i.period_start <= ? AND i.capitalized_at IS NULL AND i.account_id > ? AND i.account_id <= ? " +
+            "AND a.status = 'ACTIVE' " +
+            "ORDER BY a.account_number FOR UPDATE OF a";
+
+    private static final String MARK_CAPITALIZED_SQL =
+            "UPDATE interest_accruals SET capitalized_at = ?, updated_at = ? " +
+            "WHERE account_id = ? AND period_start <= ? AND capitalized_at IS NULL";
+
+    private static final String CARRY_FORWARD_SQL =
+            "INSERT INTO interest_accruals (account_id, period_start, accrued_amount, last_accrual_date, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (account_id, period_start) DO UPDATE " +
+            "SET accrued_amount = interest_accruals.accrued_amount + EXCLUDED.accrued_amount, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private static final String CREATE_CHECKPOINT_SQL =
+            "INSERT INTO interest_accrual_checkpoints (accrual_date, phase, partition_no, range_start, range_end, " +
+            "last_account_id, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (accrual_date, phase, partition_no) DO NOTHING";
+
+    private static final String LOCK_CHECKPOINT_SQL =
+            "SELECT last_account_id, range_end, completed_at FROM interest_accrual_checkpoints " +
+            "WHERE accrual_date = ? AND phase = ? AND partition_no = ? FOR UPDATE";
+
+    private static final String ADVANCE_CHECKPOINT_SQL =
+            "UPDATE interest_accrual_checkpoints SET last_account_id = ?, updated_at = ?, " +
+            "completed_at = CASE WHEN ? >= range_end THEN ? ELSE NULL END " +
+            "WHERE accrual_date = ? AND phase = ? AND partition_no = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return [min id, max id] of all accounts, or null when there are none
+     */
+    public long[] accountIdRange() {
+        return jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM accounts", (rs, rowNum) ->
+                rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    /**
+     * @return the latest day with accrual checkpoints, or null before the first run
+     */
+    public LocalDate findLastStartedDay() {
+        Date day = jdbcTemplate.queryForObject(
+                "SELECT MAX(accrual_date) FROM interest_accrual_checkpoints WHERE phase = 'ACCRUE'", Date.class);
+        return day != null ? day.toLocalDate() : null;
+    }
+
+    /**
+     * Split (rangeStart, rangeEnd] into {@code partitions} contiguous id ranges and record them for
+     * the day and phase, unless a previous attempt already did.
+     */
+    public void createCheckpoints(LocalDate day, InterestAccrualCheckpoint.Phase phase, long rangeStart,
+                                  long rangeEnd, int partitions, LocalDateTime now) {
+        long width = Math.max(1, (rangeEnd - rangeStart + partitions - 1) / partitions);
+        List<long[]> ranges = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            long start = Math.min(rangeEnd, rangeStart + p * width);
+            long end = p == partitions - 1 ? rangeEnd : Math.min(rangeEnd, start + width);
+            ranges.add(new long[]{p, start, end});
+        }
+
+        jdbcTemplate.batchUpdate(CREATE_CHECKPOINT_SQL, ranges, BATCH_SIZE, (ps, range) -> {
+            ps.setDate(1, Date.valueOf(day));
+            ps.setString(2, phase.name());
+            ps.setInt(3, (int) range[0]);
+            ps.setLong(4, range[1]);
+            ps.setLong(5, range[2]);
+            ps.setLong(6, range[1]);
+            ps.setTimestamp(7, Timestamp.valueOf(now));
+        });
+    }
+
+    /**
+     * @return partition numbers of the day and phase that are not finished yet
+     */
+    public List<Integer> findOpenPartitions(LocalDate day, InterestAccrualCheckpoint.Phase phase) {
+        return jdbcTemplate.queryForList("SELECT partition_no FROM interest_accrual_checkpoints " +
+                "WHERE accrual_date = ? AND phase = ? AND completed_at IS NULL ORDER BY partition_no",
+                Integer.class, Date.valueOf(day), phase.name());
+    }
+
+    /**
+     * Lock a partition's checkpoint row for the current transaction.
+     *
+     * @return [last account id, range end], or null when the partition is already complete
+     */
+    public long[] lockCheckpoint(LocalDate day, InterestAccrualCheckpoint.Phase phase, int partition) {
+        return jdbcTemplate.queryForObject(LOCK_CHECKPOINT_SQL, (rs, rowNum) ->
+                rs.getTimestamp(3) != null ? null : new long[]{rs.getLong(1), rs.getLong(2)},
+                Date.valueOf(day), phase.name(), partition);
+    }
+
+    public void advanceCheckpoint(LocalDate day, InterestAccrualCheckpoint.Phase phase, int partition,
+                                  long lastAccountId, LocalDateTime now) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        jdbcTemplate.update(ADVANCE_CHECKPOINT_SQL, lastAccountId, updatedAt, lastAccountId, updatedAt,
+                Date.valueOf(day), phase.name(), partition);
+    }
+
+    /**
+     * Add one day of interest for ACTIVE accounts with ids in (fromId, toId] to their accrual rows.
+     *
+     * @return number of accounts accrued
+     */
+    public int accrue(LocalDate day, LocalDate periodStart, int daysInYear, long fromId, long toId, LocalDateTime now) {
+        return jdbcTemplate.update(ACCRUE_SQL, Date.valueOf(periodStart), 100 * daysInYear, Date.valueOf(day),
+                Timestamp.valueOf(now), Date.valueOf(day), fromId, toId);
+    }
+
+    /**
+     * Lock ACTIVE accounts with ids in (fromId, toId] that have interest accrued up to the period
+     * and not yet capitalised.
+     *
+     * @return accrued interest per account, in lock order
+     */
+    public List<DueInterest> lockDueInterest(LocalDate periodStart, long fromId, long toId) {
+        Map<Long, DueInterest> due = new LinkedHashMap<>();
+        jdbcTemplate.query(LOCK_DUE_INTEREST_SQL, rs -> {
+            long accountId = rs.getLong(1);
+            DueInterest interest = due.get(accountId);
+            if (interest == null) {
+                interest = new DueInterest(accountId, rs.getString(2), rs.getString(3), rs.getBigDecimal(5));
+                due.put(accountId, interest);
+            }
+            interest.accrued = interest.accrued.add(rs.getBigDecimal(4));
+        }, Date.valueOf(periodStart), fromId, toId);
+        return new ArrayList<>(due.values());
+    }
+
+    /**
+     * Close the accrual rows of capitalised accounts and carry each unpaid fraction of a cent into
+     * the next period, whose accrual starts after {@code lastAccrualDate}.
+     */
+    public void markCapitalized(List<DueInterest> capitalised, LocalDate periodStart, LocalDate nextPeriodStart,
+                                LocalDate lastAccrualDate, LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(MARK_CAPITALIZED_SQL, capitalised, BATCH_SIZE, (ps, d) -> {
+            ps.setTimestamp(1, at);
+            ps.setTimestamp(2, at);
+            ps.setLong(3, d.getAccountId());
+            ps.setDate(4, Date.valueOf(periodStart));
+        });
+
+        List<DueInterest> carried = new ArrayList<>();
+        for (DueInterest d : capitalised) {
+            if (d.getRemainder().signum() > 0) {
+                carried.add(d);
+            }
+        }
+        jdbcTemplate.batchUpdate(CARRY_FORWARD_SQL, carried, BATCH_SIZE, (ps, d) -> {
+            ps.setLong(1, d.getAccountId());
+            ps.setDate(2, Date.valueOf(nextPeriodStart));
+            ps.setBigDecimal(3, d.getRemainder());
+            ps.setDate(4, Date.valueOf(lastAccrualDate));
+            ps.setTimestamp(5, at);
+        });
+    }
+
+    /**
+     * Interest due to one account: the accrued total, the whole cents credited and the remainder,
+     * with the account's balance before the credit.
+     */
+    public static final class DueInterest {
+        private final Long accountId;
+        private final String accountNumber;
+        private final String currency;
+        private final BigDecimal balance;
+        private BigDecimal accrued = BigDecimal.ZERO;
+
+        DueInterest(Long accountId, String accountNumber, String currency, BigDecimal balance) {
+            this.accountId = accountId;
+            this.accountNumber = accountNumber;
+            this.currency = currency;
+            this.balance = balance;
+        }
+
+        public Long getAccountId() {
+            return accountId;
+        }
+
+        public String getAccountNumber() {
+            return accountNumber;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+
+        public BigDecimal getBalance() {
+            return balance;
+        }
+
+        public BigDecimal getAmount() {
+            return accrued.setScale(2, RoundingMode.DOWN);
+        }
+
+        public BigDecimal getRemainder() {
+            return accrued.subtract(getAmount());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.izak.demoBankManagement.repository;
+
+import com.izak.demoBankManagement.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    // Credits minus debits of one customer account
+    @Query("SELECT COALESCE(SUM(CASE WHEN e.entryType = :credit THEN e.amount ELSE -e.amount END), 0) " +
+            "FROM LedgerEntry e WHERE e.accountId = :accountId")
+    BigDecimal balanceOf(@Param("accountId") Long accountId,
+                         @Param("credit") LedgerEntry.EntryType credit);
+
+    // Net movement of an account between two instants, both inclusive
+    @Query("SELECT COALESCE(SUM(CASE WHEN e.entryType = :credit THEN e.amount ELSE -e.amount END), 0) " +
+            "FROM LedgerEntry e WHERE e.accountId = :accountId AND e.createdAt >= :from AND e.createdAt <= :to")
+    BigDecimal netBetween(@Param("accountId") Long accountId,
+                          @Param("from") LocalDateTime from,
+                          @Param("to") LocalDateTime to,
+                          @Param("credit") LedgerEntry.EntryType credit);
+
+    @Query("SELECT MIN(e.createdAt) FROM LedgerEntry e WHERE e.accountId = :accountId")
+    LocalDateTime firstEntryAt(@Param("accountId") Long accountId);
+
+    List<LedgerEntry> findByTransactionIdOrderById(String transactionId);
+}
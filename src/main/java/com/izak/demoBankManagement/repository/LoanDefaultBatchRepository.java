@@ -0,0 +1,123 @@
+package com.izak.demoBankManagement.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set-based SQL for the default-marking job: the candidate query, the per-chunk bulk updates of
+ * loans and their schedules, and the run checkpoint. Runs inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LoanDefaultBatchRepository {
+
+    private static final String BRANCH_FILTER =
+            "AND l.account_id IN (SELECT a.id FROM accounts a WHERE a.branch_id = ?) ";
+
+    // Next chunk of ACTIVE loans with at least one PENDING installment due before the cutoff
+    private static final String CANDIDATES_SQL =
+            "SELECT DISTINCT l.id FROM loans l " +
+            "JOIN loan_repayment_schedules s ON s.loan_id = l.id " +
+            "WHERE l.loan_status = 'ACTIVE' AND s.status = 'PENDING' AND s.due_date < ? AND l.id > ? ";
+
+    // Flag the overdue installments, then default their loans with the number flagged per loan
+    private static final String MARK_DEFAULTED_SQL =
+            "WITH overdue AS (" +
+            "UPDATE loan_repayment_schedules s SET status = 'OVERDUE' FROM loans l " +
+            "WHERE s.loan_id = l.id AND l.id > ? AND l.id <= ? AND l.loan_status = 'ACTIVE' " +
+            "AND s.status = 'PENDING' AND s.due_date < ? %s" +
+            "RETURNING s.loan_id), " +
+            "counts AS (SELECT loan_id, COUNT(*) AS installments FROM overdue GROUP BY loan_id), " +
+            "defaulted AS (" +
+            "UPDATE loans l SET loan_status = 'DEFAULTED', last_modified = ?, " +
+            "remarks = 'Loan defaulted - ' || c.installments || ' installments overdue by more than ' || ? || ' days' " +
+            "FROM counts c WHERE l.id = c.loan_id RETURNING c.installments) " +
+            "SELECT COUNT(*), COALESCE(SUM(installments), 0) FROM defaulted";
+
+    private static final String CREATE_CHECKPOINT_SQL =
+            "INSERT INTO loan_default_checkpoints (run_date, scope, last_loan_id, loans_defaulted, schedules_overdue, " +
+            "updated_at) VALUES (?, ?, 0, 0, 0, ?) ON CONFLICT (run_date, scope) DO NOTHING";
+
+    private static final String LOCK_CHECKPOINT_SQL =
+            "SELECT last_loan_id, completed_at FROM loan_default_checkpoints " +
+            "WHERE run_date = ? AND scope = ? FOR UPDATE";
+
+    private static final String ADVANCE_CHECKPOINT_SQL =
+            "UPDATE loan_default_checkpoints SET last_loan_id = ?, loans_defaulted = loans_defaulted + ?, " +
+            "schedules_overdue = schedules_overdue + ?, updated_at = ? WHERE run_date = ? AND scope = ?";
+
+    private static final String COMPLETE_CHECKPOINT_SQL =
+            "UPDATE loan_default_checkpoints SET completed_at = ?, updated_at = ? WHERE run_date = ? AND scope = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Record the run for the day and scope, unless a previous attempt already did.
+     */
+    public void createCheckpoint(LocalDate runDate, String scope, LocalDateTime now) {
+        jdbcTemplate.update(CREATE_CHECKPOINT_SQL, Date.valueOf(runDate), scope, Timestamp.valueOf(now));
+    }
+
+    /**
+     * Lock the run's checkpoint row for the current transaction.
+     *
+     * @return the last processed loan id, or null when the run is already complete
+     */
+    public Long lockCheckpoint(LocalDate runDate, String scope) {
+        return jdbcTemplate.queryForObject(LOCK_CHECKPOINT_SQL, (rs, rowNum) ->
+                rs.getTimestamp(2) != null ? null : rs.getLong(1), Date.valueOf(runDate), scope);
+    }
+
+    public void advanceCheckpoint(LocalDate runDate, String scope, long lastLoanId, long loans, long schedules,
+                                  LocalDateTime now) {
+        jdbcTemplate.update(ADVANCE_CHECKPOINT_SQL, lastLoanId, loans, schedules, Timestamp.valueOf(now),
+                Date.valueOf(runDate), scope);
+    }
+
+    public void completeCheckpoint(LocalDate runDate, String scope, LocalDateTime now) {
+        Timestamp completedAt = Timestamp.valueOf(now);
+        jdbcTemplate.update(COMPLETE_CHECKPOINT_SQL, completedAt, completedAt, Date.valueOf(runDate), scope);
+    }
+
+    /**
+     * @return ids (ascending, at most {@code limit}) of ACTIVE loans after {@code afterLoanId} with a
+     * PENDING installment due before {@code cutoff}, optionally limited to one branch
+     */
+    public List<Long> findDefaultCandidates(LocalDate cutoff, Long branchId, long afterLoanId, int limit) {
+        List<Object> args = new ArrayList<>(List.of(Date.valueOf(cutoff), afterLoanId));
+        String sql = CANDIDATES_SQL;
+        if (branchId != null) {
+            sql += BRANCH_FILTER;
+            args.add(branchId);
+        }
+        args.add(limit);
+        return jdbcTemplate.queryForList(sql + "ORDER BY l.id LIMIT ?", Long.class, args.toArray());
+    }
+
+    /**
+     * Default the candidate loans with ids in (fromId, toId] and set their PENDING installments due
+     * before {@code cutoff} to OVERDUE.
+     *
+     * @return [loans defaulted, installments marked overdue]
+     */
+    public long[] markDefaulted(LocalDate cutoff, int overdueDays, Long branchId, long fromId, long toId,
+                                LocalDateTime now) {
+        List<Object> args = new ArrayList<>(List.of(fromId, toId, Date.valueOf(cutoff)));
+        if (branchId != null) {
+            args.add(branchId);
+        }
+        args.add(Timestamp.valueOf(now));
+        args.add(String.valueOf(overdueDays));
+        String sql = String.format(MARK_DEFAULTED_SQL, branchId != null ? BRANCH_FILTER : "");
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                args.toArray());
+    }
+}
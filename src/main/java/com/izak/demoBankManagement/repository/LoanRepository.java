@@ -1,9 +1,11 @@
 package com.izak.demoBankManagement.repository;
 
+import com.izak.demoBankManagement.dto.LoanListItemDTO;
 import com.izak.demoBankManagement.entity.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,7 +18,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface LoanRepository extends JpaRepository<Loan, Long> {
+public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificationExecutor<Loan> {
 
     Optional<Loan> findByLoanId(String loanId);
 
@@ -30,6 +32,11 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
     @Query("SELECT l FROM Loan l WHERE l.customer.customerId = :customerId")
     List<Loan> findByCustomerCustomerId(@Param("customerId") String customerId);
 
+    // Customer (with its user) and account branch fetched in the same statement, for listing and branch checks
+    @Query("SELECT l FROM Loan l JOIN FETCH l.customer c JOIN FETCH c.user LEFT JOIN FETCH l.account a " +
+            "LEFT JOIN FETCH a.branch WHERE c.customerId = :customerId ORDER BY l.id")
+    List<Loan> findByCustomerIdWithDetails(@Param("customerId") String customerId);
+
     @Query("SELECT l FROM Loan l WHERE l.customer.customerId = :customerId AND l.loanStatus = :status")
     List<Loan> findByCustomerIdAndStatus(@Param("customerId") String customerId,
                                          @Param("status") Loan.LoanStatus status);
@@ -58,6 +65,12 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
 
     boolean existsByLoanId(String loanId);
 
+    // Lazy loans with an unstored installment due by the given day; a null date predates the column
+    @Query("SELECT l FROM Loan l WHERE l.lazySchedule = true AND l.loanStatus = :status AND l.id > :afterId " +
+            "AND (l.nextScheduleDueDate <= :day OR l.nextScheduleDueDate IS NULL) ORDER BY l.id")
+    List<Loan> findLazyScheduleLoansDueBy(@Param("status") Loan.LoanStatus status, @Param("day") LocalDate day,
+                                          @Param("afterId") Long afterId, Pageable pageable);
+
     // Pagination support
     Page<Loan> findByLoanStatus(Loan.LoanStatus status, Pageable pageable);
 
@@ -79,4 +92,40 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
 
     @Query("SELECT l FROM Loan l WHERE l.account.branch.id = :branchId")
     Page<Loan> findByBranchId(@Param("branchId") Long branchId, Pageable pageable);
+
+    // Paged loan lists projected straight into the list DTO, branch scope in the WHERE clause.
+    // Newest applications first; approval queues oldest first. Ordered by indexed columns plus id.
+    @Query(value = "SELECT new com.izak.demoBankManagement.dto.LoanListItemDTO(l.loanId, l.loanType, l.loanStatus, " +
+            "l.approvalStatus, l.principal, l.outstandingBalance, l.monthlyEMI, l.applicationDate, " +
+            "c.firstName, c.lastName, c.customerId) " +
+            "FROM Loan l JOIN l.customer c ORDER BY l.applicationDate DESC, l.id DESC",
+            countQuery = "SELECT COUNT(l) FROM Loan l")
+    Page<LoanListItemDTO> findListItems(Pageable pageable);
+
+    @Query(value = "SELECT new com.izak.demoBankManagement.dto.LoanListItemDTO(l.loanId, l.loanType, l.loanStatus, " +
+            "l.approvalStatus, l.principal, l.outstandingBalance, l.monthlyEMI, l.applicationDate, " +
+            "c.firstName, c.lastName, c.customerId) " +
+            "FROM Loan l JOIN l.customer c JOIN l.account a WHERE a.branch.id = :branchId " +
+            "ORDER BY l.applicationDate DESC, l.id DESC",
+            countQuery = "SELECT COUNT(l) FROM Loan l JOIN l.account a WHERE a.branch.id = :branchId")
+    Page<LoanListItemDTO> findListItemsByBranchId(@Param("branchId") Long branchId, Pageable pageable);
+
+    @Query(value = "SELECT new com.izak.demoBankManagement.dto.LoanListItemDTO(l.loanId, l.loanType, l.loanStatus, " +
+            "l.approvalStatus, l.principal, l.outstandingBalance, l.monthlyEMI, l.applicationDate, " +
+            "c.firstName, c.lastName, c.customerId) " +
+            "FROM Loan l JOIN l.customer c WHERE l.approvalStatus = :status " +
+            "ORDER BY l.applicationDate ASC, l.id ASC",
+            countQuery = "SELECT COUNT(l) FROM Loan l WHERE l.approvalStatus = :status")
+    Page<LoanListItemDTO> findListItemsByApprovalStatus(@Param("status") Loan.ApprovalStatus status, Pageable pageable);
+
+    @Query(value = "SELECT new com.izak.demoBankManagement.dto.LoanListItemDTO(l.loanId, l.loanType, l.loanStatus, " +
+            "l.approvalStatus, l.principal, l.outstandingBalance, l.monthlyEMI, l.applicationDate, " +
+            "c.firstName, c.lastName, c.customerId) " +
+            "FROM Loan l JOIN l.customer c JOIN l.account a WHERE l.approvalStatus = :status AND a.branch.id = :branchId " +
+            "ORDER BY l.applicationDate ASC, l.id ASC",
+            countQuery = "SELECT COUNT(l) FROM Loan l JOIN l.account a " +
+                    "WHERE l.approvalStatus = :status AND a.branch.id = :branchId")
+    Page<LoanListItemDTO> findListItemsByApprovalStatusAndBranchId(@Param("status") Loan.ApprovalStatus status,
+                                                                   @Param("branchId") Long branchId,
+                                                                   Pageable pageable);
 }
@@ -0,0 +1,71 @@
+package com.izak.demoBankManagement.repository;
+
+import com.izak.demoBankManagement.entity.LoanRepaymentSchedule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch writes of repayment schedule rows. Runs inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LoanScheduleBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    // Installments already stored are skipped, so materialising the same range twice is harmless
+    private static final String INSERT_SQL =
+            "INSERT INTO loan_repayment_schedules (loan_id, installment_number, due_date, principal_amount, " +
+            "interest_amount, total_amount, status, penalty_applied, balance_after_payment, created_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (loan_id, installment_number) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int deleteByLoanId(Long loanId) {
+        return jdbcTemplate.update("DELETE FROM loan_repayment_schedules WHERE loan_id = ?", loanId);
+    }
+
+    public void insert(List<LoanRepaymentSchedule> schedules) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, schedules, BATCH_SIZE, (ps, s) -> {
+            ps.setLong(1, s.getLoan().getId());
+            ps.setInt(2, s.getInstallmentNumber());
+            ps.setDate(3, Date.valueOf(s.getDueDate()));
+            ps.setBigDecimal(4, s.getPrincipalAmount());
+            ps.setBigDecimal(5, s.getInterestAmount());
+            ps.setBigDecimal(6, s.getTotalAmount());
+            ps.setString(7, s.getStatus().name());
+            ps.setBigDecimal(8, s.getPenaltyApplied());
+            ps.setBigDecimal(9, s.getBalanceAfterPayment());
+            ps.setTimestamp(10, now);
+        });
+    }
+
+    /**
+     * @return highest stored installment number of each given loan that has stored installments
+     */
+    public Map<Long, Integer> findLastInstallments(Collection<Long> loanIds) {
+        Map<Long, Integer> last = new HashMap<>();
+        if (loanIds.isEmpty()) {
+            return last;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(loanIds.size(), "?"));
+        jdbcTemplate.query("SELECT loan_id, MAX(installment_number) FROM loan_repayment_schedules " +
+                        "WHERE loan_id IN (" + placeholders + ") GROUP BY loan_id",
+                rs -> {
+                    last.put(rs.getLong(1), rs.getInt(2));
+                }, loanIds.toArray());
+        return last;
+    }
+}
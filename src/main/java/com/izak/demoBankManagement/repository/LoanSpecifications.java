@@ -0,0 +1,68 @@
+package com.izak.demoBankManagement.repository;
+
+import com.izak.demoBankManagement.entity.Loan;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Composable loan search filters. A filter whose criterion is absent is null and is left out
+ * of the {@link Specification#allOf} the search builds, so only the given criteria reach the SQL.
+ */
+public final class LoanSpecifications {
+
+    private LoanSpecifications() {
+    }
+
+    // Loans are scoped to a branch through their account, as in BranchAuthorizationService.canAccessLoan
+    public static Specification<Loan> inBranch(Long branchId) {
+        return branchId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("account").get("branch").get("id"), branchId);
+    }
+
+    public static Specification<Loan> ofCustomer(String customerId) {
+        return customerId == null || customerId.isBlank() ? null
+                : (root, query, cb) -> cb.equal(root.get("customer").get("customerId"), customerId);
+    }
+
+    public static Specification<Loan> hasStatus(Loan.LoanStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("loanStatus"), status);
+    }
+
+    public static Specification<Loan> hasType(Loan.LoanType loanType) {
+        return loanType == null ? null : (root, query, cb) -> cb.equal(root.get("loanType"), loanType);
+    }
+
+    public static Specification<Loan> principalBetween(BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> min == null ? cb.lessThanOrEqualTo(root.get("principal"), max)
+                : max == null ? cb.greaterThanOrEqualTo(root.get("principal"), min)
+                : cb.between(root.get("principal"), min, max);
+    }
+
+    public static Specification<Loan> appliedBetween(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> from == null ? cb.lessThanOrEqualTo(root.get("applicationDate"), to)
+                : to == null ? cb.greaterThanOrEqualTo(root.get("applicationDate"), from)
+                : cb.between(root.get("applicationDate"), from, to);
+    }
+
+    /**
+     * Fetch the customer, and its eagerly mapped user, with the page of loans for list mapping;
+     * the count query stays a plain count.
+     */
+    public static Specification<Loan> fetchCustomer() {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                root.fetch("customer", JoinType.INNER).fetch("user", JoinType.INNER);
+            }
+            return null;
+        };
+    }
+}
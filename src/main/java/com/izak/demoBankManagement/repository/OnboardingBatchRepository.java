@@ -0,0 +1,140 @@
+package com.izak.demoBankManagement.repository;
+
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.entity.Customer;
+import com.izak.demoBankManagement.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC-batched writes for bulk customer and account onboarding.
+ * Users, customers and accounts use IDENTITY keys, so ids are reserved from the identity sequences
+ * up front and rows are inserted with explicit ids; the caller can then link rows without reading
+ * keys back. Runs inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OnboardingBatchRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (id, username, password, email, role, is_active, created_date, last_modified) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CUSTOMER_SQL =
+            "INSERT INTO customers (id, user_id, customer_id, first_name, last_name, email, phone, date_of_birth, " +
+            "address, city, state, zip_code, status, kyc_status, image, created_date, last_updated) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACCOUNT_SQL =
+            "INSERT INTO accounts (id, account_number, customer_id, customer_identifier, account_type, branch_id, " +
+            "balance, currency, interest_rate, nominee_first_name, nominee_last_name, nominee_relationship, " +
+            "nominee_phone, status, kyc_status, created_date, last_updated) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserve {@code count} ids from the identity sequence of {@code table} in one round trip.
+     */
+    public List<Long> reserveIds(String table, int count) {
+        if (count == 0) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, table, count);
+    }
+
+    /**
+     * @return every username, for duplicate checks
+     */
+    public Set<String> findAllUsernames() {
+        Set<String> usernames = new HashSet<>();
+        jdbcTemplate.query("SELECT username FROM users", rs -> {
+            usernames.add(rs.getString(1));
+        });
+        return usernames;
+    }
+
+    /**
+     * @return every user and customer email, lower-cased, for duplicate checks
+     */
+    public Set<String> findAllEmails() {
+        Set<String> emails = new HashSet<>();
+        jdbcTemplate.query("SELECT email FROM users UNION SELECT email FROM customers", rs -> {
+            emails.add(rs.getString(1).toLowerCase());
+        });
+        return emails;
+    }
+
+    public void insertUsers(List<User> users) {
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, users, BATCH_SIZE, (ps, u) -> {
+            ps.setLong(1, u.getId());
+            ps.setString(2, u.getUsername());
+            ps.setString(3, u.getPassword());
+            ps.setString(4, u.getEmail());
+            ps.setString(5, u.getRole().name());
+            ps.setBoolean(6, Boolean.TRUE.equals(u.getIsActive()));
+            ps.setTimestamp(7, Timestamp.valueOf(u.getCreatedDate()));
+            ps.setTimestamp(8, Timestamp.valueOf(u.getCreatedDate()));
+        });
+    }
+
+    public void insertCustomers(List<Customer> customers) {
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER_SQL, customers, BATCH_SIZE, (ps, c) -> {
+            ps.setLong(1, c.getId());
+            ps.setLong(2, c.getUser().getId());
+            ps.setString(3, c.getCustomerId());
+            ps.setString(4, c.getFirstName());
+            ps.setString(5, c.getLastName());
+            ps.setString(6, c.getEmail());
+            ps.setString(7, c.getPhone());
+            ps.setDate(8, Date.valueOf(c.getDateOfBirth()));
+            ps.setString(9, c.getAddress());
+            ps.setString(10, c.getCity());
+            ps.setString(11, c.getState());
+            ps.setString(12, c.getZipCode());
+            ps.setString(13, c.getStatus().name());
+            ps.setString(14, c.getKycStatus().name());
+            ps.setString(15, c.getImage());
+            ps.setTimestamp(16, Timestamp.valueOf(c.getCreatedDate()));
+            ps.setTimestamp(17, Timestamp.valueOf(c.getCreatedDate()));
+        });
+    }
+
+    /**
+     * Customer and branch only need their ids set.
+     */
+    public void insertAccounts(List<Account> accounts) {
+        jdbcTemplate.batchUpdate(INSERT_ACCOUNT_SQL, accounts, BATCH_SIZE, (ps, a) -> {
+            ps.setLong(1, a.getId());
+            ps.setString(2, a.getAccountNumber());
+            ps.setLong(3, a.getCustomer().getId());
+            ps.setString(4, a.getCustomerId());
+            ps.setString(5, a.getAccountType());
+            ps.setLong(6, a.getBranch().getId());
+            ps.setBigDecimal(7, a.getBalance());
+            ps.setString(8, a.getCurrency());
+            ps.setBigDecimal(9, a.getInterestRate());
+            ps.setString(10, a.getNomineeFirstName());
+            ps.setString(11, a.getNomineeLastName());
+            ps.setString(12, a.getNomineeRelationship());
+            ps.setString(13, a.getNomineePhone());
+            ps.setString(14, a.getStatus().name());
+            ps.setString(15, a.getKycStatus().name());
+            ps.setTimestamp(16, Timestamp.valueOf(a.getCreatedDate()));
+            ps.setTimestamp(17, Timestamp.valueOf(a.getCreatedDate()));
+        });
+    }
+}
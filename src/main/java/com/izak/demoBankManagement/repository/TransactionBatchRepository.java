@@ -0,0 +1,328 @@
+package com.izak.demoBankManagement.repository;
+
+import com.izak.demoBankManagement.entity.LedgerEntry;
+import com.izak.demoBankManagement.entity.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JDBC-batched writes for bulk postings, the ledger and its daily balance checkpoints.
+ * Transaction and LedgerEntry use IDENTITY keys, which disables Hibernate insert batching, so
+ * these paths write rows here instead and run inside the caller's JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transactions (transaction_id, reference_number, from_account_id, from_account_number, " +
+            "to_account_id, to_account_number, transaction_type, transfer_type, amount, currency, transfer_fee, " +
+            "service_tax, total_amount, transfer_mode, status, description, remarks, beneficiary_name, " +
+            "beneficiary_bank, balance_before, balance_after, timestamp, completed_at, receipt_number, " +
+            "is_scheduled, is_recurring, fraud_check_passed, requires_approval, verified, last_modified, " +
+            "credit_amount, credit_currency, fx_rate, risk_score) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CREDIT_ACCOUNT_SQL =
+            "UPDATE accounts SET balance = balance + ?, last_updated = ? WHERE id = ? AND status = 'ACTIVE'";
+
+    private static final String INSERT_LEDGER_ENTRY_SQL =
+            "INSERT INTO ledger_entries (transaction_id, account_id, ledger_account, entry_type, amount, currency, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Opening legs for accounts that predate the ledger: GL debit first, while the accounts still have no entries
+    private static final String BACKFILL_OPENING_DEBITS_SQL =
+            "INSERT INTO ledger_entries (transaction_id, account_id, ledger_account, entry_type, amount, currency, created_at) " +
+            "SELECT 'OPEN' || a.id, NULL, 'GL_OPENING_BALANCE', 'DEBIT', a.balance + COALESCE(s.total, 0), a.currency, ? " +
+            "FROM accounts a LEFT JOIN (SELECT account_id, SUM(balance) AS total FROM account_balance_stripes GROUP BY account_id) s " +
+            "ON s.account_id = a.id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM ledger_entries e WHERE e.account_id = a.id) " +
+            "AND a.balance + COALESCE(s.total, 0) <> 0";
+
+    private static final String BACKFILL_OPENING_CREDITS_SQL =
+            "INSERT INTO ledger_entries (transaction_id, account_id, ledger_account, entry_type, amount, currency, created_at) " +
+            "SELECT 'OPEN' || a.id, a.id, a.account_number, 'CREDIT', a.balance + COALESCE(s.total, 0), a.currency, ? " +
+            "FROM accounts a LEFT JOIN (SELECT account_id, SUM(balance) AS total FROM account_balance_stripes GROUP BY account_id) s " +
+            "ON s.account_id = a.id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM ledger_entries e WHERE e.account_id = a.id) " +
+            "AND a.balance + COALESCE(s.total, 0) <> 0";
+
+    // Accounts whose balance snapshot (row plus stripes) differs from their ledger balance
+    private static final String LEDGER_DRIFT_SQL =
+            "SELECT a.account_number, a.balance + COALESCE(s.total, 0) AS snapshot, COALESCE(l.total, 0) AS ledger " +
+            "FROM accounts a " +
+            "LEFT JOIN (SELECT account_id, SUM(CASE WHEN entry_type = 'CREDIT' THEN amount ELSE -amount END) AS total " +
+            "FROM ledger_entries WHERE account_id IS NOT NULL GROUP BY account_id) l ON l.account_id = a.id " +
+            "LEFT JOIN (SELECT account_id, SUM(balance) AS total FROM account_balance_stripes GROUP BY account_id) s " +
+            "ON s.account_id = a.id " +
+            "WHERE a.balance + COALESCE(s.total, 0) <> COALESCE(l.total, 0)";
+
+    // Add a day's net movement to the account's checkpoint, starting from the previous day's close
+    private static final String UPSERT_DAILY_BALANCE_SQL =
+            "INSERT INTO daily_balances (account_id, balance_date, closing_balance, updated_at) " +
+            "VALUES (?, ?, COALESCE((SELECT d.closing_balance FROM daily_balances d WHERE d.account_id = ? " +
+            "AND d.balance_date < ? ORDER BY d.balance_date DESC LIMIT 1), 0) + ?, ?) " +
+            "ON CONFLICT (account_id, balance_date) DO UPDATE " +
+            "SET closing_balance = daily_balances.closing_balance + ?, updated_at = EXCLUDED.updated_at";
+
+    // Postings that commit after midnight but belong to the previous day also move later checkpoints
+    private static final String FORWARD_DAILY_BALANCE_SQL =
+            "UPDATE daily_balances SET closing_balance = closing_balance + ?, updated_at = ? " +
+            "WHERE account_id = ? AND balance_date > ?";
+
+    // Hot account checkpoint movements are appended and folded later, so parallel credits never share a row
+    private static final String INSERT_DAILY_BALANCE_DELTA_SQL =
+            "INSERT INTO daily_balance_deltas (account_id, balance_date, amount, created_at) VALUES (?, ?, ?, ?)";
+
+    // Claim a batch of pending movements; SKIP LOCKED lets several nodes fold disjoint batches
+    // Checkpoint folds run one at a time across nodes: two folds moving the same account could
+    // each miss the other's uncommitted checkpoint rows
+    private static final long DAILY_BALANCE_FOLD_LOCK = 0x6462666f6c64L;
+
+    private static final String LOCK_DAILY_BALANCE_FOLD_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+    private static final String CLAIM_DAILY_BALANCE_DELTAS_SQL =
+            "DELETE FROM daily_balance_deltas WHERE id IN (SELECT id FROM daily_balance_deltas ORDER BY id " +
+            "LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING account_id, balance_date, amount";
+
+    private static final String CLAIM_DAILY_BALANCE_DELTAS_THROUGH_SQL =
+            "DELETE FROM daily_balance_deltas WHERE id IN (SELECT id FROM daily_balance_deltas WHERE balance_date <= ? " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING account_id, balance_date, amount";
+
+    private static final String SUM_PENDING_DAILY_BALANCE_DELTAS_SQL =
+            "SELECT COALESCE(SUM(amount), 0) FROM daily_balance_deltas WHERE account_id = ? AND balance_date <= ?";
+
+    // Checkpoints for accounts that have ledger entries but none yet: running sum of daily net movement
+    private static final String SEED_DAILY_BALANCES_SQL =
+            "INSERT INTO daily_balances (account_id, balance_date, closing_balance, updated_at) " +
+            "SELECT account_id, day, SUM(net) OVER (PARTITION BY account_id ORDER BY day), ? " +
+            "FROM (SELECT e.account_id, CAST(e.created_at AS DATE) AS day, " +
+            "SUM(CASE WHEN e.entry_type = 'CREDIT' THEN e.amount ELSE -e.amount END) AS net " +
+            "FROM ledger_entries e WHERE e.account_id IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM daily_balances d WHERE d.account_id = e.account_id) " +
+            "AND NOT EXISTS (SELECT 1 FROM daily_balance_deltas q WHERE q.account_id = e.account_id) " +
+            "GROUP BY e.account_id, CAST(e.created_at AS DATE)) per_day";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert fully populated transactions in JDBC batches.
+     * Generated ids are not read back; callers identify rows by transactionId.
+     */
+    public void insertAll(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactions, BATCH_SIZE, (ps, t) -> {
+            ps.setString(1, t.getTransactionId());
+            ps.setString(2, t.getReferenceNumber());
+            setAccountId(ps, 3, t.getFromAccount() != null ? t.getFromAccount().getId() : null);
+            ps.setString(4, t.getFromAccountNumber());
+            setAccountId(ps, 5, t.getToAccount() != null ? t.getToAccount().getId() : null);
+            ps.setString(6, t.getToAccountNumber());
+            ps.setString(7, t.getTransactionType() != null ? t.getTransactionType().name() : null);
+            ps.setString(8, t.getTransferType() != null ? t.getTransferType().name() : null);
+            ps.setBigDecimal(9, t.getAmount());
+            ps.setString(10, t.getCurrency());
+            ps.setBigDecimal(11, t.getTransferFee());
+            ps.setBigDecimal(12, t.getServiceTax());
+            ps.setBigDecimal(13, t.getTotalAmount());
+            ps.setString(14, t.getTransferMode().name());
+            ps.setString(15, t.getStatus().name());
+            ps.setString(16, t.getDescription());
+            ps.setString(17, t.getRemarks());
+            ps.setString(18, t.getBeneficiaryName());
+            ps.setString(19, t.getBeneficiaryBank());
+            ps.setBigDecimal(20, t.getBalanceBefore());
+            ps.setBigDecimal(21, t.getBalanceAfter());
+            ps.setTimestamp(22, toTimestamp(t.getTimestamp()));
+            ps.setTimestamp(23, toTimestamp(t.getCompletedAt()));
+            ps.setString(24, t.getReceiptNumber());
+            ps.setBoolean(25, Boolean.TRUE.equals(t.getIsScheduled()));
+            ps.setBoolean(26, Boolean.TRUE.equals(t.getIsRecurring()));
+            ps.setBoolean(27, Boolean.TRUE.equals(t.getFraudCheckPassed()));
+            ps.setBoolean(28, Boolean.TRUE.equals(t.getRequiresApproval()));
+            ps.setBoolean(29, Boolean.TRUE.equals(t.getVerified()));
+            ps.setTimestamp(30, toTimestamp(t.getTimestamp()));
+            ps.setBigDecimal(31, t.getCreditAmount());
+            ps.setString(32, t.getCreditCurrency());
+            ps.setBigDecimal(33, t.getFxRate());
+            ps.setObject(34, t.getRiskScore(), Types.INTEGER);
+        });
+    }
+
+    /**
+     * Add the given amounts to ACTIVE account balances, keyed by account id.
+     * Pass an ordered map (e.g. TreeMap) so concurrent batches update rows in the same order.
+     *
+     * @return number of accounts that were not ACTIVE (or not found) and received no credit
+     */
+    public int creditAccounts(Map<Long, BigDecimal> creditsByAccountId, LocalDateTime now) {
+        Timestamp lastUpdated = Timestamp.valueOf(now);
+        List<Map.Entry<Long, BigDecimal>> credits = new ArrayList<>(creditsByAccountId.entrySet());
+
+        int missed = 0;
+        for (int[] counts : jdbcTemplate.batchUpdate(CREDIT_ACCOUNT_SQL, credits, BATCH_SIZE, (ps, credit) -> {
+            ps.setBigDecimal(1, credit.getValue());
+            ps.setTimestamp(2, lastUpdated);
+            ps.setLong(3, credit.getKey());
+        })) {
+            for (int count : counts) {
+                if (count == 0) {
+                    missed++;
+                }
+            }
+        }
+        return missed;
+    }
+
+    /**
+     * Append ledger legs in JDBC batches. Ledger rows are never updated or deleted.
+     */
+    public void insertLedgerEntries(List<LedgerEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_LEDGER_ENTRY_SQL, entries, BATCH_SIZE, (ps, e) -> {
+            ps.setString(1, e.getTransactionId());
+            setAccountId(ps, 2, e.getAccountId());
+            ps.setString(3, e.getLedgerAccount());
+            ps.setString(4, e.getEntryType().name());
+            ps.setBigDecimal(5, e.getAmount());
+            ps.setString(6, e.getCurrency());
+            ps.setTimestamp(7, toTimestamp(e.getCreatedAt()));
+        });
+    }
+
+    /**
+     * Post opening balances for every account that has no ledger entries yet.
+     *
+     * @return number of accounts backfilled
+     */
+    public int backfillOpeningBalances(LocalDateTime now) {
+        Timestamp createdAt = Timestamp.valueOf(now);
+        jdbcTemplate.update(BACKFILL_OPENING_DEBITS_SQL, createdAt);
+        return jdbcTemplate.update(BACKFILL_OPENING_CREDITS_SQL, createdAt);
+    }
+
+    /**
+     * Apply one day's net ledger movement per account to the daily balance checkpoints.
+     * Pass an ordered map (e.g. TreeMap) so concurrent postings lock checkpoint rows in the same order.
+     */
+    public void applyDailyBalanceDeltas(LocalDate day, Map<Long, BigDecimal> deltasByAccountId, LocalDateTime now) {
+        Date balanceDate = Date.valueOf(day);
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        List<Map.Entry<Long, BigDecimal>> deltas = new ArrayList<>(deltasByAccountId.entrySet());
+
+        jdbcTemplate.batchUpdate(UPSERT_DAILY_BALANCE_SQL, deltas, BATCH_SIZE, (ps, delta) -> {
+            ps.setLong(1, delta.getKey());
+            ps.setDate(2, balanceDate);
+            ps.setLong(3, delta.getKey());
+            ps.setDate(4, balanceDate);
+            ps.setBigDecimal(5, delta.getValue());
+            ps.setTimestamp(6, updatedAt);
+            ps.setBigDecimal(7, delta.getValue());
+        });
+        jdbcTemplate.batchUpdate(FORWARD_DAILY_BALANCE_SQL, deltas, BATCH_SIZE, (ps, delta) -> {
+            ps.setBigDecimal(1, delta.getValue());
+            ps.setTimestamp(2, updatedAt);
+            ps.setLong(3, delta.getKey());
+            ps.setDate(4, balanceDate);
+        });
+    }
+
+    /**
+     * Queue checkpoint movements of one day for a later {@link #claimDailyBalanceDeltas} fold.
+     */
+    public void insertDailyBalanceDeltas(LocalDate day, Map<Long, BigDecimal> deltasByAccountId, LocalDateTime now) {
+        Date balanceDate = Date.valueOf(day);
+        Timestamp createdAt = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_DAILY_BALANCE_DELTA_SQL, new ArrayList<>(deltasByAccountId.entrySet()), BATCH_SIZE,
+                (ps, delta) -> {
+                    ps.setLong(1, delta.getKey());
+                    ps.setDate(2, balanceDate);
+                    ps.setBigDecimal(3, delta.getValue());
+                    ps.setTimestamp(4, createdAt);
+                });
+    }
+
+    /**
+     * Wait until no other transaction is folding checkpoint movements; held until this one ends.
+     */
+    public void lockDailyBalanceFold() {
+        jdbcTemplate.query(LOCK_DAILY_BALANCE_FOLD_SQL, rs -> {
+        }, DAILY_BALANCE_FOLD_LOCK);
+    }
+
+    /**
+     * Remove up to {@code limit} queued checkpoint movements and return them summed per day and account.
+     * The caller must hold {@link #lockDailyBalanceFold} and apply them in the same transaction.
+     */
+    public Map<LocalDate, Map<Long, BigDecimal>> claimDailyBalanceDeltas(int limit) {
+        Map<LocalDate, Map<Long, BigDecimal>> deltas = new TreeMap<>();
+        jdbcTemplate.query(CLAIM_DAILY_BALANCE_DELTAS_SQL, rs -> {
+            deltas.computeIfAbsent(rs.getDate(2).toLocalDate(), day -> new TreeMap<>())
+                    .merge(rs.getLong(1), rs.getBigDecimal(3), BigDecimal::add);
+        }, limit);
+        return deltas;
+    }
+
+    /**
+     * Like {@link #claimDailyBalanceDeltas(int)}, limited to movements dated on or before {@code through}.
+     */
+    public Map<LocalDate, Map<Long, BigDecimal>> claimDailyBalanceDeltas(LocalDate through, int limit) {
+        Map<LocalDate, Map<Long, BigDecimal>> deltas = new TreeMap<>();
+        jdbcTemplate.query(CLAIM_DAILY_BALANCE_DELTAS_THROUGH_SQL, rs -> {
+            deltas.computeIfAbsent(rs.getDate(2).toLocalDate(), day -> new TreeMap<>())
+                    .merge(rs.getLong(1), rs.getBigDecimal(3), BigDecimal::add);
+        }, Date.valueOf(through), limit);
+        return deltas;
+    }
+
+    /**
+     * Queued checkpoint movements of an account dated on or before {@code day}.
+     */
+    public BigDecimal sumPendingDailyBalanceDeltas(Long accountId, LocalDate day) {
+        return jdbcTemplate.queryForObject(SUM_PENDING_DAILY_BALANCE_DELTAS_SQL, BigDecimal.class,
+                accountId, Date.valueOf(day));
+    }
+
+    /**
+     * Build daily checkpoints from the ledger for accounts that have none yet.
+     *
+     * @return number of checkpoint rows written
+     */
+    public int seedDailyBalances(LocalDateTime now) {
+        return jdbcTemplate.update(SEED_DAILY_BALANCES_SQL, Timestamp.valueOf(now));
+    }
+
+    /**
+     * @return rows of [accountNumber, snapshot balance, ledger balance] for accounts that do not reconcile
+     */
+    public List<Object[]> findLedgerDrift() {
+        return jdbcTemplate.query(LEDGER_DRIFT_SQL, (rs, rowNum) -> new Object[]{
+                rs.getString(1), rs.getBigDecimal(2), rs.getBigDecimal(3)});
+    }
+
+    private static void setAccountId(PreparedStatement ps, int index, Long accountId) throws SQLException {
+        if (accountId != null) {
+            ps.setLong(index, accountId);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+}
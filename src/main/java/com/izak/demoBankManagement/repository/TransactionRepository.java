@@ -1,14 +1,22 @@
 package com.izak.demoBankManagement.repository;
 
 import com.izak.demoBankManagement.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -33,6 +41,113 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     boolean existsByTransactionId(String transactionId);
 
+    // Claim a queued posting; only the caller that moves it out of PENDING may apply it
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = :to WHERE t.transactionId = :transactionId AND t.status = :from")
+    int updateStatusIf(@Param("transactionId") String transactionId,
+                       @Param("from") Transaction.Status from, @Param("to") Transaction.Status to);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.status = :cancelled, t.cancelledAt = :now WHERE t.transactionId = :transactionId " +
+            "AND t.status = :pending AND (t.isScheduled = true OR t.isRecurring = true)")
+    int cancelScheduled(@Param("transactionId") String transactionId, @Param("pending") Transaction.Status pending,
+                        @Param("cancelled") Transaction.Status cancelled, @Param("now") LocalDateTime now);
+
+    // Keyset pages of account history, newest first, seeking past the (timestamp, id) cursor.
+    // Rows: id, timestamp, transactionId, referenceNumber, otherAccountNumber, branchCode, branchName,
+    // otherBranchCode, otherBranchName, amount, transferMode, status, description, balanceAfter
+    @Query("SELECT t.id, t.timestamp, t.transactionId, t.referenceNumber, t.toAccountNumber, " +
+            "fb.branchCode, fb.branchName, ob.branchCode, ob.branchName, " +
+            "t.amount, t.transferMode, t.status, t.description, t.balanceAfter " +
+            "FROM Transaction t LEFT JOIN t.fromAccount fa LEFT JOIN fa.branch fb " +
+            "LEFT JOIN t.toAccount oa LEFT JOIN oa.branch ob " +
+            "WHERE t.fromAccount.id = :accountId " +
+            "AND (t.timestamp < :timestamp OR (t.timestamp = :timestamp AND t.id < :id)) " +
+            "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Object[]> findDebitHistoryPage(@Param("accountId") Long accountId, @Param("timestamp") LocalDateTime timestamp,
+                                        @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT t.id, t.timestamp, t.transactionId, t.referenceNumber, t.fromAccountNumber, " +
+            "tb.branchCode, tb.branchName, ob.branchCode, ob.branchName, " +
+            "COALESCE(t.creditAmount, t.amount), t.transferMode, t.status, t.description, t.balanceAfter " +
+            "FROM Transaction t LEFT JOIN t.toAccount ta LEFT JOIN ta.branch tb " +
+            "LEFT JOIN t.fromAccount oa LEFT JOIN oa.branch ob " +
+            "WHERE t.toAccount.id = :accountId " +
+            "AND (t.timestamp < :timestamp OR (t.timestamp = :timestamp AND t.id < :id)) " +
+            "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Object[]> findCreditHistoryPage(@Param("accountId") Long accountId, @Param("timestamp") LocalDateTime timestamp,
+                                         @Param("id") Long id, Pageable pageable);
+
+    // Forward-only statement streams, oldest first, one per side of the posting.
+    // Rows: id, timestamp, transactionId, referenceNumber, otherAccountNumber, amount, totalAmount,
+    // transferMode, status, description
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT t.id, t.timestamp, t.transactionId, t.referenceNumber, t.toAccountNumber, t.amount, " +
+            "COALESCE(t.totalAmount, t.amount), t.transferMode, t.status, t.description " +
+            "FROM Transaction t WHERE t.fromAccount.id = :accountId " +
+            "AND t.timestamp BETWEEN :startDate AND :endDate ORDER BY t.timestamp ASC, t.id ASC")
+    Stream<Object[]> streamDebitsForStatement(@Param("accountId") Long accountId,
+                                              @Param("startDate") LocalDateTime startDate,
+                                              @Param("endDate") LocalDateTime endDate);
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT t.id, t.timestamp, t.transactionId, t.referenceNumber, t.fromAccountNumber, " +
+            "COALESCE(t.creditAmount, t.amount), COALESCE(t.creditAmount, t.amount), t.transferMode, t.status, " +
+            "t.description FROM Transaction t WHERE t.toAccount.id = :accountId " +
+            "AND t.timestamp BETWEEN :startDate AND :endDate ORDER BY t.timestamp ASC, t.id ASC")
+    Stream<Object[]> streamCreditsForStatement(@Param("accountId") Long accountId,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+
+    // Net effect of postings at or after a point in time, used to roll the balance back to it
+    @Query("SELECT COALESCE(SUM(COALESCE(t.totalAmount, t.amount)), 0) FROM Transaction t " +
+            "WHERE t.fromAccount.id = :accountId AND t.status = :status AND t.timestamp >= :since")
+    BigDecimal sumDebitsSince(@Param("accountId") Long accountId, @Param("status") Transaction.Status status,
+                              @Param("since") LocalDateTime since);
+
+    @Query("SELECT COALESCE(SUM(COALESCE(t.creditAmount, t.amount)), 0) FROM Transaction t " +
+            "WHERE t.toAccount.id = :accountId AND t.status = :status AND t.timestamp >= :since")
+    BigDecimal sumCreditsSince(@Param("accountId") Long accountId, @Param("status") Transaction.Status status,
+                               @Param("since") LocalDateTime since);
+
+    // Recent outgoing postings after the (timestamp, id) cursor, to rebuild in-memory fraud statistics.
+    // Seeks idx_txn_timestamp_id, so only the rebuild window is read.
+    @Query("SELECT t.id, t.fromAccountNumber, t.toAccountNumber, t.amount, t.timestamp FROM Transaction t " +
+            "WHERE (t.timestamp > :afterTimestamp OR (t.timestamp = :afterTimestamp AND t.id > :afterId)) " +
+            "AND t.status = :status AND t.fromAccount IS NOT NULL " +
+            "ORDER BY t.timestamp, t.id")
+    List<Object[]> findOutgoingSince(@Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                     @Param("afterId") Long afterId,
+                                     @Param("status") Transaction.Status status, Pageable pageable);
+
+    // Due queues of the scheduled transaction engine; SKIP LOCKED lets several nodes claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND t.isScheduled = true " +
+            "AND t.isRecurring = false AND t.scheduledAt <= :now ORDER BY t.scheduledAt")
+    List<Transaction> claimDueScheduled(@Param("status") Transaction.Status status,
+                                        @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND t.isRecurring = true " +
+            "AND t.nextRecurringDate <= :now ORDER BY t.nextRecurringDate")
+    List<Transaction> claimDueRecurring(@Param("status") Transaction.Status status,
+                                        @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT t.transactionId, t.fromAccountNumber FROM Transaction t WHERE t.status = :status " +
+            "AND t.transactionType = :type AND t.isScheduled = false AND t.timestamp < :before ORDER BY t.id")
+    List<Object[]> findQueuedTransfers(@Param("status") Transaction.Status status,
+                                       @Param("type") Transaction.TransactionType type,
+                                       @Param("before") LocalDateTime before,
+                                       Pageable pageable);
+
 
     // Find transactions by branch (where either from or to account belongs to the branch)
     @Query("SELECT t FROM Transaction t WHERE " +
@@ -0,0 +1,151 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.exception.AccountLockException;
+import com.izak.demoBankManagement.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Acquires account row locks for postings.
+ *
+ * All locks are taken in ascending account-number order so that two postings touching the
+ * same pair of accounts (e.g. A->B and B->A transfers) can never wait on each other in a cycle.
+ * Lock waits are bounded by a per-transaction lock timeout, and a posting that loses a lock
+ * race (timeout or deadlock victim) is rolled back and re-executed in a fresh transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountLockService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${bank.transactions.lock.timeout-ms:3000}")
+    private long lockTimeoutMs;
+
+    @Value("${bank.transactions.lock.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${bank.transactions.lock.backoff-ms:25}")
+    private long backoffMs;
+
+    /**
+     * Run a posting in its own transaction, retrying when a row lock cannot be obtained
+     * or another concurrency failure (deadlock, stale hot-account mode) aborts it.
+     *
+     * @param operation metric tag for the posting type (e.g. "transfer")
+     * @param posting   work to run; must take its locks through {@link #lockInOrder(String...)}
+     * @return the result of the posting
+     * @throws AccountLockException when every attempt failed to obtain its locks
+     */
+    public <T> T executeWithRetry(String operation, Supplier<T> posting) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Joined an outer transaction (e.g. loan disbursement): a failed attempt marks it
+            // rollback-only, so retrying here is pointless; the caller's transaction decides
+            return posting.get();
+        }
+
+        ConcurrencyFailureException lastFailure = null;
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> posting.get());
+            } catch (ConcurrencyFailureException e) {
+                lastFailure = e;
+                Counter.builder("bank.account.lock.retries")
+                        .tag("operation", operation)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("Lock conflict on {} (attempt {}/{}): {}", operation, attempt, maxAttempts, e.getMessage());
+
+                if (attempt < maxAttempts) {
+                    backOff(attempt);
+                }
+            }
+        }
+
+        Counter.builder("bank.account.lock.exhausted")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+        throw new AccountLockException("Account is busy, please retry the " + operation + " shortly", lastFailure);
+    }
+
+    /**
+     * Lock the given accounts in ascending account-number order.
+     * Must be called inside a transaction; duplicates are locked once.
+     *
+     * @return locked accounts keyed by account number; unknown numbers are absent
+     */
+    public Map<String, Account> lockInOrder(String... accountNumbers) {
+        applyLockTimeout();
+
+        TreeSet<String> ordered = new TreeSet<>();
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber != null) {
+                ordered.add(accountNumber);
+            }
+        }
+
+        Map<String, Account> locked = new LinkedHashMap<>();
+        Timer lockWait = Timer.builder("bank.account.lock.wait")
+                .description("Time spent waiting for account row locks")
+                .register(meterRegistry);
+
+        for (String accountNumber : ordered) {
+            long start = System.nanoTime();
+            try {
+                accountRepository.findByAccountNumberWithLock(accountNumber)
+                        .ifPresent(account -> locked.put(accountNumber, account));
+            } finally {
+                lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        return locked;
+    }
+
+    /**
+     * Bound how long the current transaction may wait on any row lock.
+     * PostgreSQL ignores the JPA lock timeout hint, so the setting is applied transaction-locally.
+     */
+    private void applyLockTimeout() {
+        entityManager.createNativeQuery("SELECT set_config('lock_timeout', :timeout, true)")
+                .setParameter("timeout", lockTimeoutMs + "ms")
+                .getSingleResult();
+    }
+
+    private void backOff(int attempt) {
+        long delay = backoffMs * (1L << (attempt - 1));
+        delay += ThreadLocalRandom.current().nextLong(backoffMs + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountLockException("Interrupted while waiting to retry account lock", e);
+        }
+    }
+}
@@ -11,13 +11,15 @@ import com.izak.demoBankManagement.repository.CustomerRepository;
 import com.izak.demoBankManagement.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +34,12 @@ public class AccountService {
 
 
     private final BranchAuthorizationService branchAuthorizationService;
+    private final StripedBalanceService stripedBalanceService;
+    private final LedgerService ledgerService;
+    private final BusinessIdAllocator businessIdAllocator;
+    private final BalanceCacheService balanceCacheService;
+
+    private static final int MAX_ACCOUNT_PAGE_SIZE = 200;
 
     // ============================================
     // CREATE ACCOUNT
@@ -96,7 +104,7 @@ public class AccountService {
 
         // 3. Create Account
         Account account = new Account();
-        account.setAccountNumber(generateAccountNumber());
+        account.setAccountNumber(businessIdAllocator.nextAccountNumber());
         account.setCustomer(customer);
         account.setCustomerId(customer.getCustomerId());
         account.setAccountType(request.getAccountType());
@@ -113,6 +121,7 @@ public class AccountService {
                 Account.KycStatus.VERIFIED : Account.KycStatus.PENDING);
 
         account = accountRepository.save(account);
+        ledgerService.recordOpeningBalance(account);
 
         log.info("Account created successfully: {}", account.getAccountNumber());
 
@@ -396,7 +405,7 @@ public class AccountService {
 //        statement.setStatementStartDate(request.getStartDate());
 //        statement.setStatementEndDate(request.getEndDate());
 //        statement.setOpeningBalance(openingBalance);
-//        statement.setClosingBalance(account.getBalance());
+//        statement.setClosingBalance(closingBalance);
 //        statement.setTotalCredits(totalCredits);
 //        statement.setTotalDebits(totalDebits);
 //        statement.setTransactionCount(transactions.size());
@@ -473,17 +482,6 @@ public class AccountService {
     // HELPER METHODS
     // ============================================
 
-    private String generateAccountNumber() {
-        String accountNumber;
-        do {
-            long randomNum = (long) (Math.random() * 10000000000L);
-            accountNumber = "ACC0" + randomNum;
-        } while (accountRepository.existsByAccountNumber(accountNumber));
-
-        return accountNumber;
-    }
-
-
 
     // =============================================
     //             Map To
@@ -586,7 +584,8 @@ public class AccountService {
             dto.setOtherBranchName(txn.getFromAccount().getBranch().getBranchName());
         }
 
-        dto.setAmount(txn.getAmount());
+        // Credits are shown in the receiving account's currency
+        dto.setAmount(!isDebit && txn.getCreditAmount() != null ? txn.getCreditAmount() : txn.getAmount());
         dto.setTransferMode(txn.getTransferMode().name());
         dto.setStatus(txn.getStatus().name().toLowerCase());
         dto.setDescription(txn.getDescription());
@@ -811,6 +810,7 @@ public class AccountService {
         }
 
         account = accountRepository.save(account);
+        balanceCacheService.evictOnCommit(Collections.singletonList(account.getAccountNumber()));
 
         log.info("Account updated successfully: {}", account.getAccountNumber());
 
@@ -842,6 +842,7 @@ public class AccountService {
         // Soft delete - set status to closed
         account.setStatus(Account.Status.CLOSED);
         accountRepository.save(account);
+        balanceCacheService.evictOnCommit(Collections.singletonList(account.getAccountNumber()));
 
         log.info("Account closed: {}", account.getAccountNumber());
     }
@@ -865,6 +866,7 @@ public class AccountService {
 
         account.setStatus(Account.Status.FROZEN);
         account = accountRepository.save(account);
+        balanceCacheService.evictOnCommit(Collections.singletonList(account.getAccountNumber()));
 
         log.info("Account frozen successfully");
 
@@ -894,12 +896,27 @@ public class AccountService {
 
         account.setStatus(Account.Status.ACTIVE);
         account = accountRepository.save(account);
+        balanceCacheService.evictOnCommit(Collections.singletonList(account.getAccountNumber()));
 
         log.info("Account unfrozen successfully");
 
         return mapToResponseDTO(account);
     }
 
+    // ============================================
+// HOT ACCOUNT MODE (striped balances)
+// ============================================
+    public AccountResponseDTO setHotMode(String accountNumber, int stripes) {
+        log.info("Setting hot mode for account {} to {} stripes", accountNumber, stripes);
+
+        stripedBalanceService.setStripeCount(accountNumber, stripes);
+
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+
+        return mapToResponseDTO(account);
+    }
+
     // ============================================
 // GET ACCOUNT STATEMENT (with Authorization)
 // ============================================
@@ -941,18 +958,9 @@ public class AccountService {
                 request.getEndDate()
         );
 
-        // Calculate opening balance (balance before first transaction)
-        BigDecimal openingBalance = account.getBalance();
-        if (!transactions.isEmpty()) {
-            // Work backwards from current balance
-            for (Transaction txn : transactions) {
-                if (txn.getFromAccount() != null && txn.getFromAccount().getId().equals(account.getId())) {
-                    openingBalance = openingBalance.add(txn.getTotalAmount());
-                } else if (txn.getToAccount() != null && txn.getToAccount().getId().equals(account.getId())) {
-                    openingBalance = openingBalance.subtract(txn.getAmount());
-                }
-            }
-        }
+        // Opening and closing balances from the daily checkpoints
+        BigDecimal openingBalance = ledgerService.balanceBefore(account, request.getStartDate());
+        BigDecimal closingBalance = ledgerService.balanceAsOf(account, request.getEndDate());
 
         // Calculate totals
         BigDecimal totalCredits = BigDecimal.ZERO;
@@ -960,7 +968,7 @@ public class AccountService {
 
         for (Transaction txn : transactions) {
             if (txn.getToAccount() != null && txn.getToAccount().getId().equals(account.getId())) {
-                totalCredits = totalCredits.add(txn.getAmount());
+                totalCredits = totalCredits.add(txn.getCreditAmount() != null ? txn.getCreditAmount() : txn.getAmount());
             }
             if (txn.getFromAccount() != null && txn.getFromAccount().getId().equals(account.getId())) {
                 totalDebits = totalDebits.add(txn.getTotalAmount());
@@ -1089,6 +1097,7 @@ public class AccountService {
     // ============================================
 // GET ACCOUNTS BY CUSTOMER ID (with Authorization)
 // ============================================
+    @Transactional(readOnly = true)
     public List<AccountListItemDTO> getAccountsByCustomerId(String customerId, String jwtToken) {
         String role = branchAuthorizationService.extractRole(jwtToken);
 
@@ -1104,64 +1113,64 @@ public class AccountService {
         // BRANCH_MANAGER can only access accounts in their branch
         if ("BRANCH_MANAGER".equals(role)) {
             Long tokenBranchId = branchAuthorizationService.extractBranchId(jwtToken);
-            return accountRepository.findByCustomerId(customerId).stream()
-                    .filter(account -> {
-                        Long accountBranchId = account.getBranch() != null ? account.getBranch().getId() : null;
-                        return tokenBranchId != null && tokenBranchId.equals(accountBranchId);
-                    })
-                    .map(this::mapToListItemDTO)
+            return accountRepository.findListItemsByCustomerId(customerId).stream()
+                    .filter(account -> tokenBranchId != null && tokenBranchId.equals(account.getBranchId()))
                     .collect(Collectors.toList());
         }
 
         // ADMIN has full access
-        return accountRepository.findByCustomerId(customerId).stream()
-                .map(this::mapToListItemDTO)
-                .collect(Collectors.toList());
+        return accountRepository.findListItemsByCustomerId(customerId);
     }
 
     // ============================================
 // GET ALL ACCOUNTS (with Authorization Filter)
 // ============================================
-    public List<AccountListItemDTO> getAllAccounts(String jwtToken) {
+    /**
+     * One page of accounts visible to the caller, newest first.
+     * Branch staff are scoped to their branch and customers to their own accounts inside the query,
+     * and rows are projected straight into the list DTO, so each page costs a single statement.
+     */
+    @Transactional(readOnly = true)
+    public AccountListPageDTO getAllAccounts(int pageNumber, int pageSize, String status, String accountType,
+                                             Long branchId, String jwtToken) {
         String role = branchAuthorizationService.extractRole(jwtToken);
+        int page = Math.max(pageNumber, 1);
+        int size = Math.max(1, Math.min(pageSize, MAX_ACCOUNT_PAGE_SIZE));
 
+        Long scopeBranchId = null;
+        String scopeCustomerId = null;
         if ("ADMIN".equals(role)) {
-            // ADMIN: return all accounts
-            return accountRepository.findAll().stream()
-                    .map(this::mapToListItemDTO)
-                    .collect(Collectors.toList());
+            scopeBranchId = branchId;
         } else if ("LOAN_OFFICER".equals(role) || "BRANCH_MANAGER".equals(role)) {
-            // LOAN_OFFICER and BRANCH_MANAGER: filter by branchId
-            Long branchId = branchAuthorizationService.extractBranchId(jwtToken);
-            if (branchId == null) {
+            scopeBranchId = branchAuthorizationService.extractBranchId(jwtToken);
+            if (scopeBranchId == null) {
                 log.warn("{} has no assigned branch", role);
-                return List.of();
+                return new AccountListPageDTO(List.of(), page, size, false);
             }
-
-            return accountRepository.findAll().stream()
-                    .filter(account -> {
-                        Long accountBranchId = account.getBranch() != null ?
-                                account.getBranch().getId() : null;
-                        return branchId.equals(accountBranchId);
-                    })
-                    .map(this::mapToListItemDTO)
-                    .collect(Collectors.toList());
         } else if ("CUSTOMER".equals(role)) {
-            // CUSTOMER: filter by customerId
-            String customerId = branchAuthorizationService.extractCustomerId(jwtToken);
-            if (customerId == null) {
+            scopeCustomerId = branchAuthorizationService.extractCustomerId(jwtToken);
+            if (scopeCustomerId == null) {
                 log.warn("Customer ID not found in token");
-                return List.of();
+                return new AccountListPageDTO(List.of(), page, size, false);
             }
+        } else {
+            log.warn("Role {} attempted to access all accounts - denied", role);
+            return new AccountListPageDTO(List.of(), page, size, false);
+        }
 
-            return accountRepository.findByCustomerId(customerId).stream()
-                    .map(this::mapToListItemDTO)
-                    .collect(Collectors.toList());
+        Account.Status accountStatus = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                accountStatus = Account.Status.valueOf(status.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidTransactionException("Unknown account status: " + status);
+            }
         }
+        String type = accountType != null && !accountType.isBlank() ? accountType.trim().toUpperCase() : null;
 
-        // Other roles have no access
-        log.warn("Role {} attempted to access all accounts - denied", role);
-        return List.of();
+        Slice<AccountListItemDTO> slice = accountRepository.findListItems(scopeBranchId, scopeCustomerId,
+                accountStatus, type, PageRequest.of(page - 1, size));
+        return new AccountListPageDTO(slice.getContent(), page, size, slice.hasNext());
     }
 
 
@@ -1251,6 +1260,7 @@ public class AccountService {
         // 6. Update account branch
         account.setBranch(targetBranch);
         account = accountRepository.save(account);
+        balanceCacheService.evictOnCommit(Collections.singletonList(account.getAccountNumber()));
 
         // 7. Log the transfer
         log.info("Account transfer completed successfully: Account {} transferred from branch {} ({}) to branch {} ({})",
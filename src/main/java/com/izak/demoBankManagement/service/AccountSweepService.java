@@ -0,0 +1,168 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.AccountSweepResultDTO;
+import com.izak.demoBankManagement.dto.BulkFreezeRequestDTO;
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.entity.AccountStatusSweep;
+import com.izak.demoBankManagement.exception.InvalidTransactionException;
+import com.izak.demoBankManagement.repository.AccountStatusSweepRepository;
+import com.izak.demoBankManagement.repository.AccountSweepBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk account status changes: dormancy (ACTIVE accounts without transactions for N months become
+ * INACTIVE) and freezes by branch, KYC status or account type.
+ *
+ * A sweep walks the account id range in chunks of bank.account-sweep.chunk-size ids; each chunk is
+ * one set-based UPDATE in its own transaction, retried on lock conflicts with concurrent postings.
+ * Chunks that committed stay applied if a later one fails. Every sweep leaves an
+ * {@link AccountStatusSweep} audit row with its criteria and the number of accounts changed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountSweepService {
+
+    private final AccountSweepBatchRepository sweepBatchRepository;
+    private final AccountStatusSweepRepository sweepRepository;
+    private final AccountLockService accountLockService;
+    private final BalanceCacheService balanceCacheService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.account-sweep.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${bank.dormancy.inactive-months:12}")
+    private int dormancyMonths;
+
+    /**
+     * Mark dormant accounts inactive
+     * Runs daily at 3 AM by default (bank.dormancy.cron)
+     */
+    @Scheduled(cron = "${bank.dormancy.cron:0 0 3 * * *}")
+    public void markDormantNightly() {
+        try {
+            markDormant(dormancyMonths, "SYSTEM");
+        } catch (Exception e) {
+            log.error("Nightly dormancy sweep failed", e);
+        }
+    }
+
+    public AccountSweepResultDTO markDormant(int inactiveMonths, String performedBy) {
+        if (inactiveMonths < 1) {
+            throw new InvalidTransactionException("Inactive months must be at least 1");
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMonths(inactiveMonths);
+        String criteria = "no transactions for " + inactiveMonths + " months (since " + cutoff + ")";
+
+        return run(AccountStatusSweep.SweepType.DORMANCY, Account.Status.INACTIVE, criteria, null, performedBy,
+                (fromId, toId, now) -> sweepBatchRepository.markDormant(cutoff, fromId, toId, now));
+    }
+
+    public AccountSweepResultDTO freeze(BulkFreezeRequestDTO request, String performedBy) {
+        String accountType = request.getAccountType() != null && !request.getAccountType().isBlank()
+                ? request.getAccountType().trim() : null;
+        Account.KycStatus kycStatus = null;
+        if (request.getKycStatus() != null && !request.getKycStatus().isBlank()) {
+            try {
+                kycStatus = Account.KycStatus.valueOf(request.getKycStatus().trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidTransactionException("Invalid KYC status: " + request.getKycStatus());
+            }
+        }
+        if (request.getBranchId() == null && kycStatus == null && accountType == null) {
+            throw new InvalidTransactionException("At least one of branchId, kycStatus or accountType is required");
+        }
+
+        String criteria = "branchId=" + request.getBranchId() + ", kycStatus=" + kycStatus + ", accountType=" + accountType;
+        Account.KycStatus kyc = kycStatus;
+        return run(AccountStatusSweep.SweepType.FREEZE, Account.Status.FROZEN, criteria, request.getReason(), performedBy,
+                (fromId, toId, now) -> sweepBatchRepository.freeze(request.getBranchId(), kyc, accountType, fromId, toId, now));
+    }
+
+    public List<AccountSweepResultDTO> getRecentSweeps() {
+        return sweepRepository.findTop50ByOrderByIdDesc().stream()
+                .map(this::mapToResultDTO)
+                .collect(Collectors.toList());
+    }
+
+    private AccountSweepResultDTO run(AccountStatusSweep.SweepType type, Account.Status targetStatus, String criteria,
+                                      String reason, String performedBy, ChunkUpdate update) {
+        log.info("Starting {} sweep by {}: {}", type, performedBy, criteria);
+
+        AccountStatusSweep sweep = new AccountStatusSweep();
+        sweep.setSweepType(type);
+        sweep.setTargetStatus(targetStatus);
+        sweep.setCriteria(criteria);
+        sweep.setReason(reason);
+        sweep.setPerformedBy(performedBy);
+        sweep.setStartedAt(LocalDateTime.now());
+        sweep = sweepRepository.save(sweep);
+
+        long updated = 0;
+        int chunks = 0;
+        try {
+            long[] ids = sweepBatchRepository.accountIdRange();
+            if (ids != null) {
+                for (long from = ids[0] - 1; from < ids[1]; from += chunkSize) {
+                    long fromId = from;
+                    long toId = Math.min(ids[1], from + chunkSize);
+                    List<String> changed = accountLockService.executeWithRetry("sweep", () -> {
+                        List<String> accountNumbers = update.apply(fromId, toId, LocalDateTime.now());
+                        balanceCacheService.evictOnCommit(accountNumbers);
+                        return accountNumbers;
+                    });
+                    updated += changed.size();
+                    chunks++;
+                }
+            }
+            sweep.setStatus(AccountStatusSweep.Status.COMPLETED);
+        } catch (RuntimeException e) {
+            sweep.setStatus(AccountStatusSweep.Status.FAILED);
+            sweep.setErrorMessage(e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500) : e.getMessage());
+            throw e;
+        } finally {
+            sweep.setAccountsUpdated(updated);
+            sweep.setChunks(chunks);
+            sweep.setCompletedAt(LocalDateTime.now());
+            sweepRepository.save(sweep);
+            meterRegistry.counter("bank.account.sweep.accounts", "type", type.name()).increment(updated);
+        }
+
+        log.info("{} sweep {} finished: {} accounts set to {} in {} chunks",
+                type, sweep.getId(), updated, targetStatus, chunks);
+        return mapToResultDTO(sweep);
+    }
+
+    private AccountSweepResultDTO mapToResultDTO(AccountStatusSweep sweep) {
+        AccountSweepResultDTO dto = new AccountSweepResultDTO();
+        dto.setSweepId(sweep.getId());
+        dto.setSweepType(sweep.getSweepType().name());
+        dto.setTargetStatus(sweep.getTargetStatus().name());
+        dto.setCriteria(sweep.getCriteria());
+        dto.setReason(sweep.getReason());
+        dto.setAccountsUpdated(sweep.getAccountsUpdated());
+        dto.setChunks(sweep.getChunks());
+        dto.setStatus(sweep.getStatus().name());
+        dto.setPerformedBy(sweep.getPerformedBy());
+        dto.setStartedAt(sweep.getStartedAt().toString());
+        dto.setCompletedAt(sweep.getCompletedAt() != null ? sweep.getCompletedAt().toString() : null);
+        dto.setErrorMessage(sweep.getErrorMessage());
+        return dto;
+    }
+
+    @FunctionalInterface
+    private interface ChunkUpdate {
+        List<String> apply(long fromId, long toId, LocalDateTime now);
+    }
+}
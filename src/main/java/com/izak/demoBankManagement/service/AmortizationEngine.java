@@ -0,0 +1,186 @@
+package com.izak.demoBankManagement.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Reducing-balance amortization arithmetic shared by EMI calculation, eligibility and repayment
+ * schedules.
+ *
+ * {@code (1 + r)^n} is computed by exponentiation by squaring in a bounded {@link MathContext}
+ * (34 significant digits) and then rounded to 10 decimals, which gives the same results as the
+ * exact n-fold product the services used before at a fraction of the digits. Schedules are worked
+ * out in one pass in whole cents on {@code long}s when the amounts cannot overflow, falling back to
+ * {@link BigDecimal} otherwise; both paths round exactly like the original per-installment loop.
+ */
+public final class AmortizationEngine {
+
+    private static final MathContext CONTEXT = MathContext.DECIMAL128;
+    private static final int RATE_SCALE = 10;
+    private static final long RATE_UNIT = 10_000_000_000L;
+
+    private AmortizationEngine() {
+    }
+
+    /**
+     * Monthly rate as a fraction, from a percent-per-annum rate
+     */
+    public static BigDecimal monthlyRate(BigDecimal annualRate) {
+        return annualRate.divide(BigDecimal.valueOf(1200), RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * {@code base^exponent} rounded half-up to 10 decimals
+     */
+    public static BigDecimal pow(BigDecimal base, int exponent) {
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent must not be negative");
+        }
+        BigDecimal result = BigDecimal.ONE;
+        BigDecimal square = base;
+        for (int e = exponent; e > 0; e >>= 1) {
+            if ((e & 1) == 1) {
+                result = result.multiply(square, CONTEXT);
+            }
+            if (e > 1) {
+                square = square.multiply(square, CONTEXT);
+            }
+        }
+        return result.setScale(RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * EMI = P × r × (1+r)^n / ((1+r)^n - 1), rounded half-up to cents
+     */
+    public static BigDecimal emi(BigDecimal principal, BigDecimal monthlyRate, int months) {
+        BigDecimal power = pow(BigDecimal.ONE.add(monthlyRate), months);
+        return principal.multiply(monthlyRate).multiply(power)
+                .divide(power.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Principal an EMI repays over {@code months}: EMI × ((1+r)^n - 1) / (r × (1+r)^n), rounded half-up to cents
+     */
+    public static BigDecimal principalForEmi(BigDecimal emi, BigDecimal monthlyRate, int months) {
+        BigDecimal power = pow(BigDecimal.ONE.add(monthlyRate), months);
+        return emi.multiply(power.subtract(BigDecimal.ONE))
+                .divide(monthlyRate.multiply(power), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * The whole schedule in one pass. Every installment but the last pays the EMI; the last one
+     * pays the remaining principal plus its interest.
+     *
+     * @param monthlyRate monthly rate as a fraction with at most 10 decimals
+     */
+    public static Installments schedule(BigDecimal principal, BigDecimal monthlyRate, BigDecimal emi, int months) {
+        Installments installments = new Installments(months);
+        if (!scheduleInCents(principal, monthlyRate, emi, installments)) {
+            scheduleInDecimals(principal, monthlyRate, emi, installments);
+        }
+        return installments;
+    }
+
+    private static boolean scheduleInCents(BigDecimal principal, BigDecimal monthlyRate, BigDecimal emi,
+                                           Installments out) {
+        long remaining;
+        long emiCents;
+        long rateUnits;
+        try {
+            remaining = principal.movePointRight(2).longValueExact();
+            emiCents = emi.movePointRight(2).longValueExact();
+            rateUnits = monthlyRate.movePointRight(RATE_SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        // The balance never grows below, so the first interest product bounds all later ones
+        long product = remaining * rateUnits;
+        if (remaining < 0 || rateUnits < 0 || emiCents < 0
+                || Math.multiplyHigh(remaining, rateUnits) != 0 || product < 0 || product > Long.MAX_VALUE - RATE_UNIT) {
+            return false;
+        }
+
+        int last = out.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            // remaining (cents) × rate (1e-10 units), rounded half-up back to cents
+            long interest = (remaining * rateUnits + RATE_UNIT / 2) / RATE_UNIT;
+            long principalPart = i == last ? remaining : emiCents - interest;
+            // Negative amortization or an overpaid balance rounds differently; leave those to BigDecimal
+            if (principalPart < 0 || principalPart > remaining) {
+                return false;
+            }
+            remaining -= principalPart;
+            out.set(i, principalPart, interest, i == last ? principalPart + interest : emiCents, remaining);
+        }
+        return true;
+    }
+
+    private static void scheduleInDecimals(BigDecimal principal, BigDecimal monthlyRate, BigDecimal emi,
+                                           Installments out) {
+        BigDecimal remaining = principal;
+        int last = out.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            BigDecimal interest = remaining.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal principalPart = i == last ? remaining : emi.subtract(interest).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal total = i == last ? principalPart.add(interest) : emi;
+            remaining = remaining.subtract(principalPart);
+            out.set(i, principalPart, interest, total, remaining);
+        }
+    }
+
+    /**
+     * Amounts of a schedule by installment index (0-based), in columns rather than one object per installment.
+     */
+    public static final class Installments {
+        private final long[] principalCents;
+        private final long[] interestCents;
+        private final long[] totalCents;
+        private final long[] balanceCents;
+        private BigDecimal[][] decimals;
+
+        private Installments(int size) {
+            principalCents = new long[size];
+            interestCents = new long[size];
+            totalCents = new long[size];
+            balanceCents = new long[size];
+        }
+
+        public int size() {
+            return principalCents.length;
+        }
+
+        public BigDecimal principal(int i) {
+            return decimals != null ? decimals[0][i] : BigDecimal.valueOf(principalCents[i], 2);
+        }
+
+        public BigDecimal interest(int i) {
+            return decimals != null ? decimals[1][i] : BigDecimal.valueOf(interestCents[i], 2);
+        }
+
+        public BigDecimal total(int i) {
+            return decimals != null ? decimals[2][i] : BigDecimal.valueOf(totalCents[i], 2);
+        }
+
+        public BigDecimal balanceAfter(int i) {
+            return decimals != null ? decimals[3][i] : BigDecimal.valueOf(balanceCents[i], 2);
+        }
+
+        private void set(int i, long principal, long interest, long total, long balance) {
+            principalCents[i] = principal;
+            interestCents[i] = interest;
+            totalCents[i] = total;
+            balanceCents[i] = balance;
+        }
+
+        private void set(int i, BigDecimal principal, BigDecimal interest, BigDecimal total, BigDecimal balance) {
+            if (decimals == null) {
+                decimals = new BigDecimal[4][size()];
+            }
+            decimals[0][i] = principal;
+            decimals[1][i] = interest;
+            decimals[2][i] = total;
+            decimals[3][i] = balance;
+        }
+    }
+}
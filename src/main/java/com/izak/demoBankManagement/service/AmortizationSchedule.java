@@ -0,0 +1,80 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.entity.Loan;
+import com.izak.demoBankManagement.entity.LoanRepaymentSchedule;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The installments of a loan computed from its terms (principal, rate, EMI and tenure) by
+ * {@link AmortizationEngine}, in installment order. The amounts are worked out once, on the first
+ * iteration; each call to {@link #iterator()} starts again from the first installment and returns
+ * new, unsaved PENDING rows.
+ */
+public final class AmortizationSchedule implements Iterable<LoanRepaymentSchedule> {
+
+    private final Loan loan;
+    private final LocalDate startDate;
+    private AmortizationEngine.Installments installments;
+
+    private AmortizationSchedule(Loan loan) {
+        this.loan = loan;
+        // First EMI is due one month after disbursement
+        this.startDate = loan.getActualDisbursementDate() != null
+                ? loan.getActualDisbursementDate()
+                : LocalDate.now();
+    }
+
+    public static AmortizationSchedule of(Loan loan) {
+        return new AmortizationSchedule(loan);
+    }
+
+    private AmortizationEngine.Installments installments() {
+        if (installments == null) {
+            // Schedules have always used the annual rate / 100 / 12, each step rounded to 10 decimals
+            BigDecimal monthlyInterestRate = loan.getAnnualInterestRate()
+                    .divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP)
+                    .divide(BigDecimal.valueOf(12), 10, RoundingMode.HALF_UP);
+            installments = AmortizationEngine.schedule(loan.getPrincipal(), monthlyInterestRate,
+                    loan.getMonthlyEMI(), loan.getTenureMonths());
+        }
+        return installments;
+    }
+
+    @Override
+    public Iterator<LoanRepaymentSchedule> iterator() {
+        AmortizationEngine.Installments amounts = installments();
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < amounts.size();
+            }
+
+            @Override
+            public LoanRepaymentSchedule next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int installment = index + 1;
+
+                LoanRepaymentSchedule schedule = new LoanRepaymentSchedule();
+                schedule.setLoan(loan);
+                schedule.setInstallmentNumber(installment);
+                schedule.setDueDate(startDate.plusMonths(installment));
+                schedule.setPrincipalAmount(amounts.principal(index));
+                schedule.setInterestAmount(amounts.interest(index));
+                schedule.setTotalAmount(amounts.total(index));
+                schedule.setStatus(LoanRepaymentSchedule.ScheduleStatus.PENDING);
+                schedule.setBalanceAfterPayment(amounts.balanceAfter(index));
+                index++;
+                return schedule;
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.TransactionResponseDTO;
+import com.izak.demoBankManagement.dto.TransferRequestDTO;
+import com.izak.demoBankManagement.entity.Transaction;
+import com.izak.demoBankManagement.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accept-and-queue transfer mode.
+ *
+ * A submitted transfer is validated and stored as PENDING inside the HTTP request, which then returns.
+ * Postings are applied by single-threaded partition workers keyed by source account, so all debits of
+ * one account are applied one after another by the same thread. Bursts wait in bounded in-memory
+ * queues instead of holding Tomcat threads and pooled connections; when a queue is full, or the node
+ * restarts, the posting simply stays PENDING in the database and the sweep dispatches it later.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AsyncTransferService {
+
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.transactions.async.partitions:8}")
+    private int partitionCount;
+
+    @Value("${bank.transactions.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${bank.transactions.async.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    private ThreadPoolExecutor[] partitions;
+
+    /** Transaction ids currently sitting in a partition queue or being applied on this node. */
+    private final Set<String> dispatched = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void startPartitions() {
+        partitions = new ThreadPoolExecutor[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            final String threadName = "transfer-partition-" + i;
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        meterRegistry.gauge("bank.transfer.async.dispatched", dispatched, Set::size);
+        log.info("Started {} transfer partitions with queue capacity {}", partitionCount, queueCapacity);
+    }
+
+    @PreDestroy
+    void stopPartitions() {
+        // Anything still queued is PENDING in the database and is swept up after restart
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+    }
+
+    public TransactionResponseDTO submit(TransferRequestDTO request, String authHeader) {
+        TransactionResponseDTO accepted = transactionService.createPendingTransfer(request, authHeader);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Submitted inside a caller's transaction (idempotent requests): queue it once it is visible
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(accepted.getTransactionId(), accepted.getFromAccountNumber());
+                }
+            });
+        } else {
+            dispatch(accepted.getTransactionId(), accepted.getFromAccountNumber());
+        }
+        return accepted;
+    }
+
+    /**
+     * Dispatch PENDING transfers that were never queued (full queue, restart, another node died)
+     * Runs every bank.transactions.async.sweep-interval-ms (default 10 seconds)
+     */
+    @Scheduled(fixedDelayString = "${bank.transactions.async.sweep-interval-ms:10000}")
+    public void sweepPendingTransfers() {
+        // Skip rows committed a moment ago; their submitting request is about to dispatch them
+        LocalDateTime before = LocalDateTime.now().minusSeconds(2);
+        List<Object[]> pending = transactionRepository.findQueuedTransfers(Transaction.Status.PENDING,
+                Transaction.TransactionType.TRANSFER, before, PageRequest.of(0, sweepBatchSize));
+
+        for (Object[] row : pending) {
+            dispatch((String) row[0], (String) row[1]);
+        }
+        if (!pending.isEmpty()) {
+            log.info("Swept {} pending transfers into partition queues", pending.size());
+        }
+    }
+
+    private void dispatch(String transactionId, String fromAccountNumber) {
+        if (!dispatched.add(transactionId)) {
+            return;
+        }
+
+        int partition = Math.floorMod(fromAccountNumber.hashCode(), partitions.length);
+        try {
+            partitions[partition].execute(() -> apply(transactionId));
+        } catch (RejectedExecutionException e) {
+            dispatched.remove(transactionId);
+            meterRegistry.counter("bank.transfer.async.deferred").increment();
+            log.warn("Transfer partition {} is full, {} stays pending for the next sweep", partition, transactionId);
+        }
+    }
+
+    private void apply(String transactionId) {
+        try {
+            TransactionResponseDTO outcome = transactionService.applyQueuedTransfer(transactionId);
+            if (outcome != null) {
+                meterRegistry.counter("bank.transfer.async.processed", "status", outcome.getStatus()).increment();
+                log.info("Queued transfer {} processed with status {}", transactionId, outcome.getStatus());
+            }
+        } catch (RuntimeException e) {
+            // Rolled back, so the posting is still PENDING and the sweep retries it
+            log.warn("Queued transfer {} could not be applied and will be retried: {}", transactionId, e.getMessage());
+        } finally {
+            dispatched.remove(transactionId);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.AccountBalanceDTO;
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.exception.AccountNotFoundException;
+import com.izak.demoBankManagement.repository.AccountBalanceStripeRepository;
+import com.izak.demoBankManagement.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded in-process cache of account balance views, keyed by account number.
+ *
+ * Postings update the cached view after their transaction commits. Every change takes a version from
+ * one counter while it still holds the account row lock, so the versions of one account follow its
+ * commit order; a change only replaces an entry with a lower version, so a late after-commit callback
+ * can never put back an older balance. Writes only update entries that already exist.
+ *
+ * A miss loads a projection from the database and caches it only if no change to an account in the
+ * same stripe started or was in flight while it loaded; otherwise the value is returned uncached.
+ * Entries expire after bank.balance-cache.ttl-ms, which bounds staleness from other nodes. Hot
+ * accounts (balance stripes) are never cached.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceCacheService {
+
+    private static final int STRIPES = 256;
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceStripeRepository stripeRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.balance-cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${bank.balance-cache.ttl-ms:5000}")
+    private long ttlMillis;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLongArray startedWrites = new AtomicLongArray(STRIPES);
+    private final AtomicIntegerArray inFlightWrites = new AtomicIntegerArray(STRIPES);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private Map<String, Entry> entries;
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Counter staleWriteCounter;
+
+    @PostConstruct
+    void init() {
+        final int limit = maxEntries;
+        // Access-ordered LinkedHashMap evicting the least recently read account
+        entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > limit;
+            }
+        });
+
+        hitCounter = meterRegistry.counter("bank.balance.cache.requests", "result", "hit");
+        missCounter = meterRegistry.counter("bank.balance.cache.requests", "result", "miss");
+        staleWriteCounter = meterRegistry.counter("bank.balance.cache.stale.writes");
+        meterRegistry.gauge("bank.balance.cache.size", entries, Map::size);
+        meterRegistry.gauge("bank.balance.cache.hit.ratio", this, BalanceCacheService::hitRatio);
+    }
+
+    /**
+     * Balance view of an account, from the cache or the database.
+     *
+     * @throws AccountNotFoundException when the account does not exist
+     */
+    public BalanceView get(String accountNumber) {
+        Entry entry = entries.get(accountNumber);
+        long now = System.nanoTime();
+        if (entry != null && now - entry.loadedAt < TimeUnit.MILLISECONDS.toNanos(ttlMillis)) {
+            hits.incrementAndGet();
+            hitCounter.increment();
+            return entry.view;
+        }
+        misses.incrementAndGet();
+        missCounter.increment();
+
+        int stripe = stripe(accountNumber);
+        long version = versions.get();
+        long writesBefore = startedWrites.get(stripe);
+        boolean quietBefore = inFlightWrites.get(stripe) == 0;
+
+        BalanceView view = load(accountNumber);
+
+        if (!view.striped && quietBefore && inFlightWrites.get(stripe) == 0 && startedWrites.get(stripe) == writesBefore) {
+            synchronized (entries) {
+                Entry current = entries.get(accountNumber);
+                if (current == null || current.version <= version) {
+                    entries.put(accountNumber, new Entry(view, version, now));
+                }
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Write the account's new balance and status through to the cache once the current transaction
+     * commits. The caller must hold the account row lock, so the version follows commit order.
+     */
+    public void updateOnCommit(Account lockedAccount) {
+        String accountNumber = lockedAccount.getAccountNumber();
+        boolean striped = lockedAccount.getBalanceStripes() != null && lockedAccount.getBalanceStripes() > 0;
+        BigDecimal balance = lockedAccount.getBalance();
+        Account.Status status = lockedAccount.getStatus();
+        onCommit(Collections.singletonList(accountNumber), version -> {
+            if (striped) {
+                remove(accountNumber, version);
+            } else {
+                update(accountNumber, version, balance, status);
+            }
+        });
+    }
+
+    /**
+     * Drop the cached views of these accounts once the current transaction commits; for changes made
+     * by set-based updates, where the new balance is not at hand.
+     */
+    public void evictOnCommit(Collection<String> accountNumbers) {
+        onCommit(accountNumbers, version -> {
+            for (String accountNumber : accountNumbers) {
+                remove(accountNumber, version);
+            }
+        });
+    }
+
+    double hitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    private void onCommit(Collection<String> accountNumbers, VersionedWrite write) {
+        long version = versions.incrementAndGet();
+        int[] stripes = accountNumbers.stream().mapToInt(BalanceCacheService::stripe).toArray();
+        for (int stripe : stripes) {
+            startedWrites.incrementAndGet(stripe);
+            inFlightWrites.incrementAndGet(stripe);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                write.apply(version);
+            } finally {
+                finish(stripes);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write.apply(version);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                finish(stripes);
+            }
+        });
+    }
+
+    private void finish(int[] stripes) {
+        for (int stripe : stripes) {
+            inFlightWrites.decrementAndGet(stripe);
+        }
+    }
+
+    private void update(String accountNumber, long version, BigDecimal balance, Account.Status status) {
+        synchronized (entries) {
+            Entry current = entries.get(accountNumber);
+            if (current == null) {
+                return;
+            }
+            if (current.version >= version) {
+                staleWriteCounter.increment();
+                return;
+            }
+            entries.put(accountNumber, new Entry(current.view.with(balance, status), version, System.nanoTime()));
+        }
+    }
+
+    private void remove(String accountNumber, long version) {
+        synchronized (entries) {
+            Entry current = entries.get(accountNumber);
+            if (current == null) {
+                return;
+            }
+            if (current.version >= version) {
+                staleWriteCounter.increment();
+                return;
+            }
+            entries.remove(accountNumber);
+        }
+    }
+
+    private BalanceView load(String accountNumber) {
+        List<Object[]> rows = accountRepository.findBalanceView(accountNumber);
+        if (rows.isEmpty()) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
+        Object[] row = rows.get(0);
+        Integer balanceStripes = (Integer) row[10];
+        boolean striped = balanceStripes != null && balanceStripes > 0;
+        BigDecimal balance = (BigDecimal) row[7];
+        if (striped) {
+            balance = balance.add(stripeRepository.sumByAccountId((Long) row[0]));
+        }
+        return new BalanceView((String) row[1], (String) row[2], (String) row[3], (Long) row[4],
+                (String) row[5], (String) row[6], balance, (String) row[8], (Account.Status) row[9], striped);
+    }
+
+    private static int stripe(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), STRIPES);
+    }
+
+    private interface VersionedWrite {
+        void apply(long version);
+    }
+
+    private static final class Entry {
+        private final BalanceView view;
+        private final long version;
+        private final long loadedAt;
+
+        Entry(BalanceView view, long version, long loadedAt) {
+            this.view = view;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * Immutable balance view; carries what access checks need (customer and branch ids).
+     */
+    public static final class BalanceView {
+        private final String accountNumber;
+        private final String customerId;
+        private final String accountType;
+        private final Long branchId;
+        private final String branchCode;
+        private final String branchName;
+        private final BigDecimal balance;
+        private final String currency;
+        private final Account.Status status;
+        private final boolean striped;
+
+        BalanceView(String accountNumber, String customerId, String accountType, Long branchId,
+                    String branchCode, String branchName, BigDecimal balance, String currency,
+                    Account.Status status, boolean striped) {
+            this.accountNumber = accountNumber;
+            this.customerId = customerId;
+            this.accountType = accountType;
+            this.branchId = branchId;
+            this.branchCode = branchCode;
+            this.branchName = branchName;
+            this.balance = balance;
+            this.currency = currency;
+            this.status = status;
+            this.striped = striped;
+        }
+
+        BalanceView with(BigDecimal newBalance, Account.Status newStatus) {
+            return new BalanceView(accountNumber, customerId, accountType, branchId, branchCode, branchName,
+                    newBalance, currency, newStatus, striped);
+        }
+
+        public String getAccountNumber() {
+            return accountNumber;
+        }
+
+        public String getCustomerId() {
+            return customerId;
+        }
+
+        public Long getBranchId() {
+            return branchId;
+        }
+
+        public AccountBalanceDTO toDto() {
+            return new AccountBalanceDTO(accountNumber, customerId, accountType, branchCode, branchName,
+                    balance, currency, status.name().toLowerCase());
+        }
+    }
+}
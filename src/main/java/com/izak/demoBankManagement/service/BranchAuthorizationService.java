@@ -31,6 +31,21 @@ public class BranchAuthorizationService {
             return false;
         }
 
+        return canAccessAccount(jwtToken, account.getAccountNumber(), account.getCustomerId(),
+                account.getBranch() != null ? account.getBranch().getId() : null);
+    }
+
+    /**
+     * Check if user can access an account, given only the fields the decision depends on
+     * (for callers that hold a cached or projected view rather than the entity)
+     *
+     * @param jwtToken JWT token containing user credentials
+     * @param accountNumber Account number, for logging
+     * @param customerId Business id of the owning customer
+     * @param accountBranchId ID of the account's branch
+     * @return true if user has access, false otherwise
+     */
+    public boolean canAccessAccount(String jwtToken, String accountNumber, String customerId, Long accountBranchId) {
         try {
             String role = jwtUtil.extractRole(jwtToken);
 
@@ -42,8 +57,8 @@ public class BranchAuthorizationService {
             // CUSTOMER can only access their own accounts
             if ("CUSTOMER".equals(role)) {
                 String tokenCustomerId = jwtUtil.extractCustomerId(jwtToken);
-                boolean hasAccess = account.getCustomerId().equals(tokenCustomerId);
-                log.debug("Customer {} access to account {}: {}", tokenCustomerId, account.getAccountNumber(), hasAccess);
+                boolean hasAccess = customerId.equals(tokenCustomerId);
+                log.debug("Customer {} access to account {}: {}", tokenCustomerId, accountNumber, hasAccess);
                 return hasAccess;
             }
 
@@ -55,17 +70,16 @@ public class BranchAuthorizationService {
                     return false;
                 }
 
-                Long accountBranchId = account.getBranch() != null ? account.getBranch().getId() : null;
                 boolean hasAccess = tokenBranchId.equals(accountBranchId);
                 log.debug("Branch Manager (branch {}) access to account {} (branch {}): {}",
-                        tokenBranchId, account.getAccountNumber(), accountBranchId, hasAccess);
+                        tokenBranchId, accountNumber, accountBranchId, hasAccess);
                 return hasAccess;
             }
 
             // LOAN_OFFICER and CARD_OFFICER don't have direct account access
             // unless they need to view account for loan/card operations
             if ("LOAN_OFFICER".equals(role) || "CARD_OFFICER".equals(role)) {
-                log.debug("{} attempted to access account {} - no direct access", role, account.getAccountNumber());
+                log.debug("{} attempted to access account {} - no direct access", role, accountNumber);
                 return false;
             }
 
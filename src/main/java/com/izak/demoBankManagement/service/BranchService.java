@@ -12,7 +12,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +20,7 @@ import java.util.stream.Collectors;
 public class BranchService {
 
     private final BranchRepository branchRepository;
+    private final BusinessIdAllocator businessIdAllocator;
 
     @Transactional
     public BranchResponseDTO createBranch(BranchCreateRequestDTO request) {
@@ -31,7 +31,7 @@ public class BranchService {
         }
 
         Branch branch = new Branch();
-        branch.setBranchCode(generateBranchCode());
+        branch.setBranchCode(businessIdAllocator.nextBranchCode());
         branch.setBranchName(request.getBranchName());
         branch.setAddress(request.getAddress());
         branch.setCity(request.getCity());
@@ -132,15 +132,6 @@ public class BranchService {
         log.info("Branch soft deleted: {}", branch.getBranchCode());
     }
 
-    private String generateBranchCode() {
-        String branchCode;
-        do {
-            int randomNum = new Random().nextInt(9000) + 1000;
-            branchCode = "BR" + randomNum;
-        } while (branchRepository.existsByBranchCode(branchCode));
-        return branchCode;
-    }
-
 //    private BranchResponseDTO mapToResponseDTO(Branch branch) {
 //        BranchResponseDTO dto = new BranchResponseDTO();
 //        dto.setId(branch.getId());
@@ -0,0 +1,203 @@
+package com.izak.demoBankManagement.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Allocator for customer-facing business identifiers: account, DPS, customer and branch numbers.
+ *
+ * Serials come from one PostgreSQL sequence per kind whose increment is the block size, so a single
+ * {@code nextval} reserves a whole block for this node and the numbers inside it are handed out from
+ * memory. Sequences never return the same value twice, so no existence check is needed. Unused
+ * numbers of a block are lost on restart, which only leaves gaps.
+ *
+ * The increment belongs to the schema, not to a node: {@code db/business-id-sequences.sql} creates
+ * the sequences and is where the block size is changed, with every node stopped. A node whose
+ * configured block size differs from a sequence's increment refuses to start, since its blocks
+ * would overlap those handed to other nodes.
+ *
+ * Every number carries check digits: ISO 7064 MOD 97-10 (as in IBAN) for account and DPS numbers,
+ * Luhn for the shorter customer and branch codes. Serials start above the range of the old random
+ * numbers, so new numbers never collide with existing ones.
+ */
+@Service
+@Slf4j
+public class BusinessIdAllocator {
+
+    enum Kind {
+        ACCOUNT("account_number_seq", 1_000_000_000L, 9_999_999_999L),
+        DPS("dps_number_seq", 1_000_000_000L, 9_999_999_999L),
+        CUSTOMER("customer_id_seq", 100_000L, 999_999_999L),
+        BRANCH("branch_code_seq", 10_000L, 9_999_999L);
+
+        private final String sequence;
+        private final long firstSerial;
+        private final long lastSerial;
+
+        Kind(String sequence, long firstSerial, long lastSerial) {
+            this.sequence = sequence;
+            this.firstSerial = firstSerial;
+            this.lastSerial = lastSerial;
+        }
+    }
+
+    static final String ACCOUNT_PREFIX = "ACC";
+    static final String DPS_PREFIX = "DPS";
+    static final String CUSTOMER_PREFIX = "CUST";
+    static final String BRANCH_PREFIX = "BR";
+
+    private final int blockSize;
+    private final ToLongFunction<Kind> reserveBlock;
+    private final Map<Kind, Block> blocks = new EnumMap<>(Kind.class);
+
+    @Autowired
+    public BusinessIdAllocator(JdbcTemplate jdbcTemplate, @Value("${bank.id.block-size:100}") int blockSize) {
+        this(blockSize, kind -> jdbcTemplate.queryForObject("SELECT nextval('" + kind.sequence + "')", Long.class));
+
+        for (Kind kind : Kind.values()) {
+            // Fresh databases only; an existing sequence keeps the increment its migration gave it
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + kind.sequence
+                    + " START WITH " + kind.firstSerial + " INCREMENT BY " + blockSize);
+            requireIncrement(kind, jdbcTemplate.queryForObject(
+                    "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+                    Long.class, kind.sequence));
+        }
+        log.info("Business id allocator initialised with block size {}", blockSize);
+    }
+
+    BusinessIdAllocator(int blockSize, ToLongFunction<Kind> reserveBlock) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.reserveBlock = reserveBlock;
+        for (Kind kind : Kind.values()) {
+            blocks.put(kind, new Block());
+        }
+    }
+
+    /**
+     * @throws IllegalStateException when the sequence's increment is not the configured block size
+     */
+    void requireIncrement(Kind kind, long increment) {
+        if (increment != blockSize) {
+            throw new IllegalStateException("Sequence " + kind.sequence + " increments by " + increment
+                    + " but bank.id.block-size is " + blockSize
+                    + "; change the increment with db/business-id-sequences.sql while all nodes are stopped");
+        }
+    }
+
+    /**
+     * ACC + 10-digit serial + 2 MOD 97-10 check digits, e.g. ACC100000000093
+     */
+    public String nextAccountNumber() {
+        long serial = nextSerial(Kind.ACCOUNT);
+        return ACCOUNT_PREFIX + serial + String.format("%02d", mod97CheckDigits(serial));
+    }
+
+    /**
+     * DPS + 10-digit serial + 2 MOD 97-10 check digits
+     */
+    public String nextDpsNumber() {
+        long serial = nextSerial(Kind.DPS);
+        return DPS_PREFIX + serial + String.format("%02d", mod97CheckDigits(serial));
+    }
+
+    /**
+     * CUST + serial + Luhn check digit, e.g. CUST1000009
+     */
+    public String nextCustomerId() {
+        long serial = nextSerial(Kind.CUSTOMER);
+        return CUSTOMER_PREFIX + serial + luhnCheckDigit(Long.toString(serial));
+    }
+
+    /**
+     * BR + serial + Luhn check digit, e.g. BR100008
+     */
+    public String nextBranchCode() {
+        long serial = nextSerial(Kind.BRANCH);
+        return BRANCH_PREFIX + serial + luhnCheckDigit(Long.toString(serial));
+    }
+
+    /**
+     * Whether an account number is well formed. Numbers issued by this allocator (ACC followed by a
+     * non-zero digit) must have 12 digits with valid check digits; older randomly generated numbers
+     * (ACC0...) and other legacy formats carry no check digits and are accepted as they are.
+     */
+    public static boolean isValidAccountNumber(String accountNumber) {
+        if (accountNumber == null) {
+            return false;
+        }
+        if (!accountNumber.startsWith(ACCOUNT_PREFIX) || accountNumber.length() == ACCOUNT_PREFIX.length()
+                || accountNumber.charAt(ACCOUNT_PREFIX.length()) == '0') {
+            return !accountNumber.isBlank();
+        }
+
+        String digits = accountNumber.substring(ACCOUNT_PREFIX.length());
+        if (digits.length() != 12 || !isDigits(digits)) {
+            return false;
+        }
+        return Long.parseLong(digits) % 97 == 1;
+    }
+
+    private long nextSerial(Kind kind) {
+        Block block = blocks.get(kind);
+        synchronized (block) {
+            if (block.next >= block.end) {
+                long start = reserveBlock.applyAsLong(kind);
+                block.next = start;
+                block.end = start + blockSize;
+            }
+            long serial = block.next++;
+            if (serial > kind.lastSerial) {
+                throw new IllegalStateException("Identifier range exhausted for " + kind.sequence);
+            }
+            return serial;
+        }
+    }
+
+    /**
+     * ISO 7064 MOD 97-10: the two digits that make {@code serial * 100 + check} leave remainder 1
+     */
+    static int mod97CheckDigits(long serial) {
+        return (int) (98 - (serial * 100) % 97);
+    }
+
+    static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        boolean doubleIt = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (doubleIt) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+}
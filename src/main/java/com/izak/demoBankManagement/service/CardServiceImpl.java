@@ -253,6 +253,7 @@ public class CardServiceImpl implements CardService {
     // GET CARDS BY CUSTOMER ID (with Authorization)
     // ============================================
     @Override
+    @Transactional(readOnly = true)
     public List<CardListItemDTO> getCardsByCustomerId(String customerId, String jwtToken) {
         String role = branchAuthorizationService.extractRole(jwtToken);
 
@@ -265,7 +266,7 @@ public class CardServiceImpl implements CardService {
             }
         }
 
-        List<Card> cards = cardRepository.findByCustomerCustomerId(customerId);
+        List<Card> cards = cardRepository.findByCustomerIdWithDetails(customerId);
 
         // Filter cards based on branch authorization
         if ("BRANCH_MANAGER".equals(role) || "CARD_OFFICER".equals(role)) {
@@ -0,0 +1,133 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.AccountListItemDTO;
+import com.izak.demoBankManagement.dto.CardListItemDTO;
+import com.izak.demoBankManagement.dto.CustomerListItemDTO;
+import com.izak.demoBankManagement.dto.CustomerOverviewDTO;
+import com.izak.demoBankManagement.dto.DPSResponseDTO;
+import com.izak.demoBankManagement.dto.LoanListItemDTO;
+import com.izak.demoBankManagement.exception.CustomerNotFoundException;
+import com.izak.demoBankManagement.exception.UnauthorizedAccessException;
+import com.izak.demoBankManagement.repository.CustomerRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Customer 360: a customer's summary, accounts, cards, loans and DPS in one response.
+ *
+ * The summary and the four product lists are loaded in parallel on a small worker pool. Each list
+ * comes from one fetch-planned query (customer, account and branch joined in), so an overview costs
+ * six statements however many products the customer holds: summary, accounts, cards, DPS, and the
+ * loan existence check plus the loan query. Access rules are those of the per-product endpoints.
+ *
+ * Connections: the calling thread does no database work, so it never holds a connection while it
+ * waits, and each task holds one connection only for its own query. The pool is capped at half the
+ * connection pool, so however many overviews run at once they queue for workers instead of
+ * exhausting connections the rest of the application needs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerOverviewService {
+
+    private final CustomerRepository customerRepository;
+    private final AccountService accountService;
+    private final CardService cardService;
+    private final LoanService loanService;
+    private final DPSService dpsService;
+    private final BranchAuthorizationService branchAuthorizationService;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.customer-overview.workers:16}")
+    private int workerCount;
+
+    private ExecutorService workers;
+    private Timer overviewTimer;
+
+    @PostConstruct
+    void startWorkers() {
+        overviewTimer = meterRegistry.timer("bank.customer.overview");
+
+        int threads = Math.max(1, Math.min(workerCount, connectionPoolSize() / 2));
+        log.info("Customer overview loads on {} workers", threads);
+
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "customer-overview-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        workers.shutdown();
+    }
+
+    public CustomerOverviewDTO getOverview(String customerId, String jwtToken) {
+        long start = System.nanoTime();
+        String role = branchAuthorizationService.extractRole(jwtToken);
+        if ("CUSTOMER".equals(role) && !customerId.equals(branchAuthorizationService.extractCustomerId(jwtToken))) {
+            log.warn("Customer attempted to access the overview of customer {}", customerId);
+            throw new UnauthorizedAccessException("Access denied: can only access your own overview");
+        }
+
+        CompletableFuture<CustomerListItemDTO> customer = CompletableFuture.supplyAsync(
+                () -> customerRepository.findListItemByCustomerId(customerId)
+                        .orElseThrow(() -> new CustomerNotFoundException("Customer not found: " + customerId)), workers);
+        CompletableFuture<List<AccountListItemDTO>> accounts = CompletableFuture.supplyAsync(
+                () -> accountService.getAccountsByCustomerId(customerId, jwtToken), workers);
+        CompletableFuture<List<CardListItemDTO>> cards = CompletableFuture.supplyAsync(
+                () -> cardService.getCardsByCustomerId(customerId, jwtToken), workers);
+        CompletableFuture<List<LoanListItemDTO>> loans = CompletableFuture.supplyAsync(
+                () -> loanService.getLoansByCustomerId(customerId, jwtToken), workers);
+        CompletableFuture<List<DPSResponseDTO>> dpsAccounts = CompletableFuture.supplyAsync(
+                () -> dpsService.getDPSByCustomerId(customerId, jwtToken), workers);
+
+        try {
+            return new CustomerOverviewDTO(await(customer), await(accounts), await(cards), await(loans), await(dpsAccounts));
+        } finally {
+            overviewTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int connectionPoolSize() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Could not read the connection pool size: {}", e.getMessage());
+        }
+        return workerCount * 2;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -17,7 +17,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,6 +27,7 @@ public class CustomerService {
     private final CustomerRepository customerRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder; // ADD THIS
+    private final BusinessIdAllocator businessIdAllocator;
 
     @Transactional
     public CustomerResponseDTO createCustomer(CustomerCreateRequestDTO request) {
@@ -58,7 +58,7 @@ public class CustomerService {
         // Create Customer
         Customer customer = new Customer();
         customer.setUser(user);
-        customer.setCustomerId(generateCustomerId());
+        customer.setCustomerId(businessIdAllocator.nextCustomerId());
         customer.setFirstName(request.getFirstName());
         customer.setLastName(request.getLastName());
         customer.setEmail(request.getEmail());
@@ -223,16 +223,6 @@ public class CustomerService {
         return mapToResponseDTO(customer);
     }
 
-    private String generateCustomerId() {
-        String customerId;
-        do {
-            int randomNum = new Random().nextInt(9000) + 1000;
-            customerId = "CUST" + randomNum;
-        } while (customerRepository.existsByCustomerId(customerId));
-
-        return customerId;
-    }
-
     private CustomerResponseDTO mapToResponseDTO(Customer customer) {
         CustomerResponseDTO dto = new CustomerResponseDTO();
         dto.setId(customer.getId());
@@ -31,6 +31,8 @@ public class DPSService {
     private final TransactionRepository transactionRepository;
     private final JwtUtil jwtUtil;
     private final BranchAuthorizationService branchAuthService;
+    private final IdGeneratorService idGeneratorService;
+    private final BusinessIdAllocator businessIdAllocator;
 
     private static final BigDecimal PENALTY_RATE = new BigDecimal("0.02"); // 2% penalty per missed installment
 
@@ -90,7 +92,7 @@ public class DPSService {
 
         // Create DPS entity
         DPS dps = new DPS();
-        dps.setDpsNumber(generateDPSNumber());
+        dps.setDpsNumber(businessIdAllocator.nextDpsNumber());
         dps.setCustomer(customer);
         dps.setCustomerId(customer.getCustomerId());
         dps.setLinkedAccount(linkedAccount);
@@ -406,6 +408,7 @@ public class DPSService {
      * CUSTOMER: Can only view their own DPS
      * BRANCH_MANAGER: Can view DPS for customers in their branch
      */
+    @Transactional(readOnly = true)
     public List<DPSResponseDTO> getDPSByCustomerId(String customerId, String jwtToken) {
         log.info("Fetching DPS for customer: {}", customerId);
 
@@ -430,7 +433,7 @@ public class DPSService {
                     "Access denied: Your role does not have permission for DPS operations");
         }
 
-        List<DPS> dpsList = dpsRepository.findByCustomerId(customerId);
+        List<DPS> dpsList = dpsRepository.findByCustomerIdWithDetails(customerId);
 
         // Filter by branch for Branch Managers
         if ("BRANCH_MANAGER".equals(role)) {
@@ -586,30 +589,18 @@ public class DPSService {
         return maturity.setScale(2, RoundingMode.HALF_UP);
     }
 
-    /**
-     * Generate unique DPS number
-     */
-    private String generateDPSNumber() {
-        String dpsNumber;
-        do {
-            long randomNum = (long) (Math.random() * 10000000000L);
-            dpsNumber = "DPS" + randomNum;
-        } while (dpsRepository.existsByDpsNumber(dpsNumber));
-        return dpsNumber;
-    }
-
     /**
      * Generate unique transaction ID
      */
     private String generateTransactionId() {
-        return "TXN" + System.currentTimeMillis();
+        return idGeneratorService.nextTransactionId();
     }
 
     /**
      * Generate unique receipt number
      */
     private String generateReceiptNumber() {
-        return "RCP" + System.currentTimeMillis();
+        return idGeneratorService.nextReceiptNumber();
     }
 
     /**
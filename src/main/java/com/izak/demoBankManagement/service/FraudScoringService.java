@@ -0,0 +1,391 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.entity.Transaction;
+import com.izak.demoBankManagement.exception.FraudCheckFailedException;
+import com.izak.demoBankManagement.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Inline fraud and velocity scoring for outgoing postings (transfers and withdrawals).
+ *
+ * Each account keeps its last N outgoing postings in primitive ring buffers (time, amount in cents,
+ * counterparty hash). Scoring walks that buffer once: posting count, amount and distinct counterparties
+ * inside the sliding window, and whether the beneficiary is new to the account. Accounts live in a
+ * bounded LRU map, so memory stays fixed; the state is rebuilt from recent transactions on startup.
+ * Postings are recorded only after their transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FraudScoringService {
+
+    private static final String CASH_WITHDRAWAL = "CASH_WITHDRAWAL";
+    private static final int REBUILD_PAGE_SIZE = 5000;
+
+    private final TransactionRepository transactionRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.fraud.window-minutes:60}")
+    private long windowMinutes;
+
+    @Value("${bank.fraud.history-size:32}")
+    private int historySize;
+
+    @Value("${bank.fraud.max-accounts:50000}")
+    private int maxAccounts;
+
+    @Value("${bank.fraud.rebuild-hours:24}")
+    private long rebuildHours;
+
+    @Value("${bank.fraud.max-count:20}")
+    private int maxCount;
+
+    @Value("${bank.fraud.max-amount:50000}")
+    private BigDecimal maxAmount;
+
+    @Value("${bank.fraud.max-counterparties:10}")
+    private int maxCounterparties;
+
+    @Value("${bank.fraud.new-beneficiary-amount:5000}")
+    private BigDecimal newBeneficiaryAmount;
+
+    @Value("${bank.fraud.review-score:50}")
+    private int reviewScore;
+
+    @Value("${bank.fraud.reject-score:90}")
+    private int rejectScore;
+
+    private Map<String, AccountWindow> windows;
+    private Timer scoringTimer;
+
+    @PostConstruct
+    void init() {
+        final int limit = maxAccounts;
+        // Access-ordered LinkedHashMap evicting the least recently active account
+        windows = Collections.synchronizedMap(new LinkedHashMap<String, AccountWindow>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AccountWindow> eldest) {
+                return size() > limit;
+            }
+        });
+        scoringTimer = meterRegistry.timer("bank.fraud.score");
+    }
+
+    /**
+     * Score an outgoing posting against the account's recent activity.
+     *
+     * @param counterparty destination account number, or null for cash
+     * @throws FraudCheckFailedException when the score reaches the reject threshold
+     */
+    public FraudDecision assess(String accountNumber, String counterparty, BigDecimal amount) {
+        FraudDecision decision = timedScore(windows.get(accountNumber), counterparty, amount);
+        if (decision.reject) {
+            log.warn("Fraud check rejected posting from {} (score {}: {})", accountNumber, decision.score, decision.reasons);
+            throw new FraudCheckFailedException("Transaction declined by fraud checks, please contact your branch");
+        }
+        if (decision.review) {
+            log.info("Posting from {} flagged for review (score {}: {})", accountNumber, decision.score, decision.reasons);
+        }
+        return decision;
+    }
+
+    /**
+     * Start scoring the legs of a batch from one account. Each leg is scored against the account's
+     * recent activity plus the legs of the same batch accepted before it.
+     */
+    public BatchAssessment startBatch(String accountNumber) {
+        AccountWindow window = windows.get(accountNumber);
+        return new BatchAssessment(window != null ? window.copy() : new AccountWindow(historySize));
+    }
+
+    /**
+     * Stamp the decision on the transaction and record the posting once its transaction commits.
+     */
+    public void apply(Transaction transaction, FraudDecision decision, String accountNumber, String counterparty) {
+        stamp(transaction, decision);
+        recordOnCommit(accountNumber, List.of(transaction), t -> counterparty);
+    }
+
+    /**
+     * Stamp batch legs scored with {@link BatchAssessment} and record them once their transaction commits.
+     */
+    public void applyAll(List<Transaction> transactions, List<FraudDecision> decisions, String accountNumber) {
+        for (int i = 0; i < transactions.size(); i++) {
+            stamp(transactions.get(i), decisions.get(i));
+        }
+        recordOnCommit(accountNumber, transactions, Transaction::getToAccountNumber);
+    }
+
+    private static void stamp(Transaction transaction, FraudDecision decision) {
+        transaction.setRiskScore(decision.score);
+        transaction.setFraudCheckPassed(!decision.review);
+        if (decision.review) {
+            transaction.setRequiresApproval(true);
+        }
+    }
+
+    private void recordOnCommit(String accountNumber, List<Transaction> transactions,
+                                Function<Transaction, String> counterparty) {
+        long at = System.currentTimeMillis();
+        long[] cents = new long[transactions.size()];
+        long[] counterpartyHashes = new long[transactions.size()];
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = toCents(transactions.get(i).getAmount());
+            counterpartyHashes[i] = hash(counterparty.apply(transactions.get(i)));
+        }
+
+        Runnable recordAll = () -> {
+            for (int i = 0; i < cents.length; i++) {
+                record(accountNumber, at, cents[i], counterpartyHashes[i]);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordAll.run();
+                }
+            });
+        } else {
+            recordAll.run();
+        }
+    }
+
+    private FraudDecision timedScore(AccountWindow window, String counterparty, BigDecimal amount) {
+        long start = System.nanoTime();
+        FraudDecision decision = score(window, hash(counterparty), toCents(amount), System.currentTimeMillis());
+        scoringTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("bank.fraud.decisions", "outcome", decision.outcome()).increment();
+        return decision;
+    }
+
+    /**
+     * Rebuild account windows from recent completed postings
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime since = LocalDateTime.now().minusHours(rebuildHours);
+        // Keyset on (timestamp, id), starting just before the window so the first page seeks to `since`
+        LocalDateTime afterTimestamp = since;
+        long afterId = 0;
+        int loaded = 0;
+
+        while (true) {
+            List<Object[]> rows = transactionRepository.findOutgoingSince(afterTimestamp, afterId,
+                    Transaction.Status.COMPLETED, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Object[] row : rows) {
+                String counterparty = CASH_WITHDRAWAL.equals(row[2]) ? null : (String) row[2];
+                afterTimestamp = (LocalDateTime) row[4];
+                long at = afterTimestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                record((String) row[1], at, toCents((BigDecimal) row[3]), hash(counterparty));
+                afterId = (Long) row[0];
+            }
+            loaded += rows.size();
+            if (rows.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+        }
+        log.info("Fraud scoring state rebuilt from {} postings since {} ({} accounts)", loaded, since, windows.size());
+    }
+
+    private void record(String accountNumber, long at, long cents, long counterpartyHash) {
+        AccountWindow window;
+        synchronized (windows) {
+            window = windows.computeIfAbsent(accountNumber, k -> new AccountWindow(historySize));
+        }
+        window.add(at, cents, counterpartyHash);
+    }
+
+    FraudDecision score(AccountWindow window, long counterparty, long cents, long now) {
+        FraudDecision decision = new FraudDecision();
+        int count = 0;
+        long sum = 0;
+        int distinct = 0;
+        boolean knownCounterparty = false;
+
+        if (window != null) {
+            synchronized (window) {
+                long since = now - TimeUnit.MINUTES.toMillis(windowMinutes);
+                long[] seen = new long[window.size];
+                for (int i = 0; i < window.size; i++) {
+                    int idx = Math.floorMod(window.head - 1 - i, window.timestamps.length);
+                    long cp = window.counterparties[idx];
+                    if (cp != 0 && cp == counterparty) {
+                        knownCounterparty = true;
+                    }
+                    if (window.timestamps[idx] < since) {
+                        continue;
+                    }
+                    count++;
+                    sum += window.amounts[idx];
+                    if (cp != 0 && !contains(seen, distinct, cp)) {
+                        seen[distinct++] = cp;
+                    }
+                }
+            }
+        }
+
+        if (count + 1 > maxCount) {
+            decision.add(40, "velocity " + (count + 1) + " postings in " + windowMinutes + "m");
+        }
+        if (sum + cents > toCents(maxAmount)) {
+            decision.add(40, "window amount " + BigDecimal.valueOf(sum + cents, 2));
+        }
+        if (counterparty != 0 && !knownCounterparty) {
+            int counterparties = distinct + 1;
+            if (counterparties > maxCounterparties) {
+                decision.add(30, counterparties + " distinct beneficiaries");
+            }
+            if (cents >= toCents(newBeneficiaryAmount)) {
+                decision.add(30, "large amount to new beneficiary");
+            }
+        }
+
+        decision.review = decision.score >= reviewScore;
+        decision.reject = decision.score >= rejectScore;
+        return decision;
+    }
+
+    private static boolean contains(long[] values, int length, long value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long hash(String counterparty) {
+        if (counterparty == null) {
+            return 0;
+        }
+        long h = 1125899906842597L;
+        for (int i = 0; i < counterparty.length(); i++) {
+            h = 31 * h + counterparty.charAt(i);
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+
+    /**
+     * Last N outgoing postings of one account; oldest entries are overwritten.
+     */
+    static final class AccountWindow {
+        private final long[] timestamps;
+        private final long[] amounts;
+        private final long[] counterparties;
+        private int head;
+        private int size;
+
+        AccountWindow(int capacity) {
+            timestamps = new long[capacity];
+            amounts = new long[capacity];
+            counterparties = new long[capacity];
+        }
+
+        synchronized AccountWindow copy() {
+            AccountWindow copy = new AccountWindow(timestamps.length);
+            System.arraycopy(timestamps, 0, copy.timestamps, 0, timestamps.length);
+            System.arraycopy(amounts, 0, copy.amounts, 0, amounts.length);
+            System.arraycopy(counterparties, 0, copy.counterparties, 0, counterparties.length);
+            copy.head = head;
+            copy.size = size;
+            return copy;
+        }
+
+        synchronized void add(long at, long cents, long counterparty) {
+            timestamps[head] = at;
+            amounts[head] = cents;
+            counterparties[head] = counterparty;
+            head = (head + 1) % timestamps.length;
+            if (size < timestamps.length) {
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Scores the legs of one batch against a private copy of the account's window; the shared state
+     * only changes when the batch commits.
+     */
+    public final class BatchAssessment {
+        private final AccountWindow window;
+
+        private BatchAssessment(AccountWindow window) {
+            this.window = window;
+        }
+
+        /**
+         * Score a leg; a rejected leg is reported through {@link FraudDecision#isReject()} rather than thrown.
+         */
+        public FraudDecision assess(String counterparty, BigDecimal amount) {
+            FraudDecision decision = timedScore(window, counterparty, amount);
+            if (decision.reject) {
+                log.warn("Fraud check rejected batch leg to {} (score {}: {})", counterparty, decision.score, decision.reasons);
+            }
+            return decision;
+        }
+
+        /**
+         * Count an accepted leg towards the velocity of the legs after it.
+         */
+        public void accept(String counterparty, BigDecimal amount) {
+            window.add(System.currentTimeMillis(), toCents(amount), hash(counterparty));
+        }
+    }
+
+    public static final class FraudDecision {
+        private int score;
+        private boolean review;
+        private boolean reject;
+        private final StringBuilder reasons = new StringBuilder();
+
+        private void add(int points, String reason) {
+            score += points;
+            if (reasons.length() > 0) {
+                reasons.append(", ");
+            }
+            reasons.append(reason);
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public boolean isReview() {
+            return review;
+        }
+
+        public boolean isReject() {
+            return reject;
+        }
+
+        String outcome() {
+            return reject ? "reject" : review ? "review" : "pass";
+        }
+    }
+}
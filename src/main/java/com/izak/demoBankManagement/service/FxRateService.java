@@ -0,0 +1,163 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.entity.FxRate;
+import com.izak.demoBankManagement.exception.InvalidTransactionException;
+import com.izak.demoBankManagement.repository.FxRateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Exchange rates for cross-currency transfers.
+ *
+ * Rates are held in memory as an immutable snapshot: a currency index and a precomputed
+ * cross-rate matrix. A refresh builds a complete new snapshot and publishes it with a single
+ * volatile write, so lookups take no lock, allocate nothing and never see a half-loaded table.
+ *
+ * Rates are read from bank.fx.rates-file when set (properties format, {@code EUR=0.92} meaning
+ * units per one unit of bank.fx.base-currency), otherwise from the {@code fx_rates} table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FxRateService {
+
+    // Cross rates are stored as units of the target currency per unit of the source currency
+    private static final int RATE_SCALE = 10;
+
+    private final FxRateRepository fxRateRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.fx.base-currency:USD}")
+    private String baseCurrency;
+
+    @Value("${bank.fx.rates-file:}")
+    private String ratesFile;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @PostConstruct
+    void init() {
+        meterRegistry.gauge("bank.fx.currencies", this, service -> service.snapshot.index.size());
+        meterRegistry.gauge("bank.fx.snapshot.age.seconds", this, service -> service.snapshot.loadedAt == 0 ? 0
+                : (System.currentTimeMillis() - service.snapshot.loadedAt) / 1000.0);
+    }
+
+    /**
+     * Reload the rates and swap in a new snapshot. A failed or invalid load keeps the previous one.
+     * Runs at startup and then every bank.fx.refresh-interval-ms.
+     */
+    @Scheduled(fixedDelayString = "${bank.fx.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            Map<String, BigDecimal> unitsPerBase = ratesFile.isBlank() ? loadFromTable() : loadFromFile(Path.of(ratesFile));
+            snapshot = Snapshot.build(baseCurrency, unitsPerBase, System.currentTimeMillis());
+            log.debug("Loaded exchange rates for {} currencies", snapshot.index.size());
+        } catch (Exception e) {
+            log.error("Exchange rate refresh failed; keeping the previous rates", e);
+        }
+    }
+
+    /**
+     * @return units of {@code to} per unit of {@code from}; {@link BigDecimal#ONE} for the same currency
+     * @throws InvalidTransactionException when either currency has no rate
+     */
+    public BigDecimal rate(String from, String to) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        Snapshot current = snapshot;
+        Integer i = current.index.get(from);
+        Integer j = current.index.get(to);
+        if (i == null || j == null) {
+            throw new InvalidTransactionException("No exchange rate available for " + from + "/" + to);
+        }
+        return current.rates[i][j];
+    }
+
+    /**
+     * Convert an amount at a rate from {@link #rate}, rounded half-even to cents.
+     */
+    public static BigDecimal convert(BigDecimal amount, BigDecimal rate) {
+        if (BigDecimal.ONE.equals(rate)) {
+            return amount;
+        }
+        return amount.multiply(rate).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private Map<String, BigDecimal> loadFromTable() {
+        Map<String, BigDecimal> unitsPerBase = new HashMap<>();
+        for (FxRate rate : fxRateRepository.findAll()) {
+            unitsPerBase.put(rate.getCurrency().toUpperCase(), rate.getUnitsPerBase());
+        }
+        return unitsPerBase;
+    }
+
+    private static Map<String, BigDecimal> loadFromFile(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+
+        Map<String, BigDecimal> unitsPerBase = new HashMap<>();
+        for (String currency : properties.stringPropertyNames()) {
+            unitsPerBase.put(currency.trim().toUpperCase(), new BigDecimal(properties.getProperty(currency).trim()));
+        }
+        return unitsPerBase;
+    }
+
+    /**
+     * One consistent set of rates; never modified after it is built.
+     */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), new BigDecimal[0][0], 0);
+
+        private final Map<String, Integer> index;
+        private final BigDecimal[][] rates;
+        private final long loadedAt;
+
+        private Snapshot(Map<String, Integer> index, BigDecimal[][] rates, long loadedAt) {
+            this.index = index;
+            this.rates = rates;
+            this.loadedAt = loadedAt;
+        }
+
+        static Snapshot build(String baseCurrency, Map<String, BigDecimal> unitsPerBase, long loadedAt) {
+            Map<String, BigDecimal> all = new HashMap<>(unitsPerBase);
+            all.putIfAbsent(baseCurrency, BigDecimal.ONE);
+
+            Map<String, Integer> index = new HashMap<>();
+            BigDecimal[] units = new BigDecimal[all.size()];
+            for (Map.Entry<String, BigDecimal> entry : all.entrySet()) {
+                if (entry.getKey().length() != 3 || entry.getValue().signum() <= 0) {
+                    throw new IllegalArgumentException("Invalid exchange rate " + entry.getKey() + "=" + entry.getValue());
+                }
+                units[index.size()] = entry.getValue();
+                index.put(entry.getKey(), index.size());
+            }
+
+            BigDecimal[][] rates = new BigDecimal[units.length][units.length];
+            for (int i = 0; i < units.length; i++) {
+                for (int j = 0; j < units.length; j++) {
+                    rates[i][j] = i == j ? BigDecimal.ONE : units[j].divide(units[i], RATE_SCALE, RoundingMode.HALF_EVEN);
+                }
+            }
+            return new Snapshot(Collections.unmodifiableMap(index), rates, loadedAt);
+        }
+    }
+}
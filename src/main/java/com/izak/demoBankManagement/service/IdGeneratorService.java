@@ -0,0 +1,109 @@
+package com.izak.demoBankManagement.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free generator for unique posting identifiers (transaction IDs, reference and receipt numbers).
+ *
+ * Each ID is a 63-bit number laid out as:
+ * <pre>
+ *   | 41 bits: millis since EPOCH | 10 bits: node id | 12 bits: sequence |
+ * </pre>
+ * Time never moves backwards: the generator keeps its own logical clock that is the maximum of
+ * the wall clock and the last issued millisecond. When 4096 IDs have been issued in one
+ * millisecond, the generator borrows the next millisecond instead of blocking.
+ */
+@Service
+@Slf4j
+public class IdGeneratorService {
+
+    /** 2024-01-01T00:00:00Z - keeps the 41-bit timestamp good for ~69 years. */
+    static final long EPOCH = 1704067200000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    /** Packed (logical millis << SEQUENCE_BITS | sequence) of the last issued ID. */
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public IdGeneratorService(@Value("${bank.id.node-id:-1}") long configuredNodeId) {
+        this(configuredNodeId >= 0 ? configuredNodeId : deriveNodeId(), System::currentTimeMillis);
+    }
+
+    IdGeneratorService(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        log.info("ID generator initialised with node id {}", nodeId);
+    }
+
+    public long nextId() {
+        long now = clock.getAsLong() - EPOCH;
+        long next;
+        while (true) {
+            long last = lastState.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // Same or earlier millisecond (clock skew): continue the sequence, rolling
+                // over into the next logical millisecond when it is exhausted
+                next = last + 1;
+            }
+
+            if (lastState.compareAndSet(last, next)) {
+                break;
+            }
+        }
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public String nextTransactionId() {
+        return "TXN" + nextId();
+    }
+
+    public String nextReferenceNumber() {
+        return "REF" + nextId();
+    }
+
+    public String nextReceiptNumber() {
+        return "RCP" + nextId();
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Fall back to a hash of the host name when no node id is configured.
+     * Deployments with more than one instance should set {@code bank.id.node-id} explicitly.
+     */
+    private static long deriveNodeId() {
+        try {
+            String host = InetAddress.getLocalHost().getHostName();
+            return (host.hashCode() & 0x7fffffff) % (MAX_NODE_ID + 1);
+        } catch (Exception e) {
+            log.warn("Could not resolve host name for ID generator node id, using 0");
+            return 0;
+        }
+    }
+}
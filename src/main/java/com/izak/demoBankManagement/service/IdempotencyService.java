@@ -0,0 +1,331 @@
+package com.izak.demoBankManagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.izak.demoBankManagement.dto.TransactionResponseDTO;
+import com.izak.demoBankManagement.entity.IdempotencyRecord;
+import com.izak.demoBankManagement.exception.IdempotencyConflictException;
+import com.izak.demoBankManagement.exception.InvalidTransactionException;
+import com.izak.demoBankManagement.repository.IdempotencyRecordRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes money-moving requests safe to retry via the {@code Idempotency-Key} header.
+ *
+ * The first request with a key claims it in the {@code idempotency_keys} table and runs the posting;
+ * its response is stored there and kept in a bounded in-memory cache. Retries are answered from the
+ * cache or the table without touching account locks. Duplicates arriving while the first request is
+ * still running wait for its outcome (in-process via a shared future, across nodes by polling the table).
+ *
+ * The response is written in the posting's own transaction, and only while the request still holds
+ * its claim, so a key is COMPLETED exactly when its posting committed. A claim whose request died
+ * before committing expires after bank.idempotency.lease-seconds and the key can be used again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final AccountLockService accountLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${bank.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${bank.idempotency.wait-timeout-ms:15000}")
+    private long waitTimeoutMs;
+
+    @Value("${bank.idempotency.retention-hours:48}")
+    private long retentionHours;
+
+    @Value("${bank.idempotency.lease-seconds:120}")
+    private long leaseSeconds;
+
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private Map<String, CachedResponse> recentResponses;
+
+    @PostConstruct
+    void initCache() {
+        final int maxEntries = cacheSize;
+        // Access-ordered LinkedHashMap evicting the least recently replayed key
+        recentResponses = Collections.synchronizedMap(new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Run {@code posting} at most once per idempotency key.
+     *
+     * @param idempotencyKey client supplied key; when null the posting simply runs
+     * @param operation      posting type, e.g. "transfer"; a key cannot be reused across operations
+     * @param request        request body, fingerprinted to detect key reuse with a different payload
+     */
+    public TransactionResponseDTO execute(String idempotencyKey, String operation, Object request,
+                                          Supplier<TransactionResponseDTO> posting) {
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            return posting.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidTransactionException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        // Keys are scoped to the caller so one user's key can never replay another user's response
+        idempotencyKey = currentUsername() + ":" + idempotencyKey;
+        String requestHash = fingerprint(operation, request);
+
+        CachedResponse cached = recentResponses.get(idempotencyKey);
+        if (cached != null) {
+            return replay(idempotencyKey, cached.requestHash, requestHash, cached.response);
+        }
+
+        InFlight mine = new InFlight(requestHash);
+        InFlight running = inFlight.putIfAbsent(idempotencyKey, mine);
+        if (running != null) {
+            if (!running.requestHash.equals(requestHash)) {
+                throw new IdempotencyConflictException("Idempotency-Key was already used with a different request body");
+            }
+            log.info("Idempotency-Key {} is already being processed, waiting for the first request", idempotencyKey);
+            return awaitInFlight(running.response);
+        }
+
+        try {
+            TransactionResponseDTO response = executeOnce(idempotencyKey, operation, requestHash, posting);
+            mine.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.response.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(idempotencyKey, mine);
+        }
+    }
+
+    private TransactionResponseDTO executeOnce(String idempotencyKey, String operation, String requestHash,
+                                               Supplier<TransactionResponseDTO> posting) {
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+        String claimToken = UUID.randomUUID().toString();
+
+        while (true) {
+            Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                if (!record.getOperation().equals(operation)) {
+                    throw new IdempotencyConflictException("Idempotency-Key was already used for a different operation");
+                }
+                if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                    TransactionResponseDTO response = deserialize(record.getResponseBody());
+                    remember(idempotencyKey, record.getRequestHash(), response);
+                    return replay(idempotencyKey, record.getRequestHash(), requestHash, response);
+                }
+                // A claim past its lease belongs to a request that died before its posting committed
+                if (record.getCreatedAt().isBefore(leaseCutoff())) {
+                    Integer released = transactionTemplate.execute(status ->
+                            idempotencyRecordRepository.deleteStaleInProgress(idempotencyKey, leaseCutoff()));
+                    log.warn("Released expired claim on Idempotency-Key {} ({} rows)", idempotencyKey, released);
+                    continue;
+                }
+                // Claimed by another node: wait for it to finish or give up
+                waitOrFail(deadline);
+                continue;
+            }
+
+            if (claim(idempotencyKey, operation, requestHash, claimToken)) {
+                break;
+            }
+        }
+
+        TransactionResponseDTO response;
+        try {
+            // The posting joins this transaction, so the key completes if and only if the posting commits
+            response = accountLockService.executeWithRetry(operation, () -> {
+                TransactionResponseDTO result = posting.get();
+                complete(idempotencyKey, claimToken, result);
+                return result;
+            });
+        } catch (RuntimeException e) {
+            // Release the claim so the client can retry a posting that did not happen
+            transactionTemplate.execute(status -> idempotencyRecordRepository.deleteInProgress(idempotencyKey, claimToken));
+            throw e;
+        }
+
+        remember(idempotencyKey, requestHash, response);
+        return response;
+    }
+
+    private boolean claim(String idempotencyKey, String operation, String requestHash, String claimToken) {
+        try {
+            transactionTemplate.execute(status -> {
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setIdempotencyKey(idempotencyKey);
+                record.setOperation(operation);
+                record.setRequestHash(requestHash);
+                record.setClaimToken(claimToken);
+                record.setStatus(IdempotencyRecord.Status.IN_PROGRESS);
+                return idempotencyRecordRepository.saveAndFlush(record);
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Idempotency-Key {} claimed concurrently by another request", idempotencyKey);
+            return false;
+        }
+    }
+
+    /**
+     * Mark the key COMPLETED in the posting's transaction; fails, rolling the posting back, when the
+     * claim expired and was taken over in the meantime.
+     */
+    private void complete(String idempotencyKey, String claimToken, TransactionResponseDTO response) {
+        int updated = idempotencyRecordRepository.completeClaim(idempotencyKey, claimToken, serialize(response),
+                response.getTransactionId(), LocalDateTime.now());
+        if (updated == 0) {
+            throw new IdempotencyConflictException("Idempotency-Key claim expired before the request completed");
+        }
+    }
+
+    private LocalDateTime leaseCutoff() {
+        return LocalDateTime.now().minusSeconds(leaseSeconds);
+    }
+
+    private TransactionResponseDTO replay(String idempotencyKey, String storedHash, String requestHash,
+                                          TransactionResponseDTO response) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyConflictException("Idempotency-Key was already used with a different request body");
+        }
+        log.info("Replaying stored response for Idempotency-Key {} (transaction {})",
+                idempotencyKey, response.getTransactionId());
+        return response;
+    }
+
+    private TransactionResponseDTO awaitInFlight(CompletableFuture<TransactionResponseDTO> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the original request");
+        }
+    }
+
+    private void waitOrFail(long deadline) {
+        if (System.currentTimeMillis() >= deadline) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        }
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the original request");
+        }
+    }
+
+    /**
+     * Remove completed keys past the retention window and claims past their lease
+     * Runs hourly
+     */
+    @Scheduled(cron = "0 15 * * * *")
+    public void purgeExpiredKeys() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        Integer removed = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteCompletedBefore(cutoff));
+        Integer expired = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteInProgressBefore(leaseCutoff()));
+        log.info("Purged {} idempotency keys older than {} and {} expired claims", removed, cutoff, expired);
+    }
+
+    private void remember(String idempotencyKey, String requestHash, TransactionResponseDTO response) {
+        recentResponses.put(idempotencyKey, new CachedResponse(requestHash, response));
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            byte[] hash = digest.digest(objectMapper.writeValueAsBytes(request));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to fingerprint request", e);
+        }
+    }
+
+    private String serialize(TransactionResponseDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to store idempotent response", e);
+        }
+    }
+
+    private TransactionResponseDTO deserialize(String body) {
+        try {
+            return objectMapper.readValue(body, TransactionResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read stored idempotent response", e);
+        }
+    }
+
+    private static class InFlight {
+        private final String requestHash;
+        private final CompletableFuture<TransactionResponseDTO> response = new CompletableFuture<>();
+
+        InFlight(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+
+    private static class CachedResponse {
+        private final String requestHash;
+        private final TransactionResponseDTO response;
+
+        CachedResponse(String requestHash, TransactionResponseDTO response) {
+            this.requestHash = requestHash;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.entity.InterestAccrualCheckpoint;
+import com.izak.demoBankManagement.entity.LedgerEntry;
+import com.izak.demoBankManagement.entity.Transaction;
+import com.izak.demoBankManagement.repository.InterestAccrualBatchRepository;
+import com.izak.demoBankManagement.repository.TransactionBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Nightly interest accrual on deposit accounts ({@code Account.interestRate}, percent per annum).
+ *
+ * Each day is accrued on the account's closing balance checkpoint of that day into
+ * {@code interest_accruals}; on the last day of a month the accrued interest is capitalised:
+ * credited to the account, posted to the ledger against interest expense and written as a
+ * DEPOSIT transaction, so statements and transaction history show it.
+ *
+ * Accounts are split into id-range partitions that run in parallel, and each partition is worked
+ * off in chunks of bank.interest.chunk-size ids, one set-based statement and one transaction per
+ * chunk. The chunk commits together with its partition checkpoint, so a failed or interrupted run
+ * resumes where it stopped, and days missed while the job was down are caught up in order.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InterestAccrualService {
+
+    private static final DateTimeFormatter PERIOD = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final InterestAccrualBatchRepository accrualRepository;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final LedgerService ledgerService;
+    private final AccountLockService accountLockService;
+    private final BalanceCacheService balanceCacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.interest.partitions:8}")
+    private int partitions;
+
+    @Value("${bank.interest.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${bank.interest.days-in-year:365}")
+    private int daysInYear;
+
+    private ExecutorService workers;
+    private Counter accruedCounter;
+    private Counter capitalisedCounter;
+
+    @PostConstruct
+    void startWorkers() {
+        accruedCounter = meterRegistry.counter("bank.interest.accounts", "phase", "accrue");
+        capitalisedCounter = meterRegistry.counter("bank.interest.accounts", "phase", "capitalize");
+
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(partitions, runnable -> {
+            Thread thread = new Thread(runnable, "interest-accrual-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        workers.shutdown();
+    }
+
+    /**
+     * Accrue interest for yesterday, and any earlier days not finished yet
+     * Runs daily at 00:15 by default (bank.interest.cron)
+     */
+    @Scheduled(cron = "${bank.interest.cron:0 15 0 * * *}")
+    public void accrueNightly() {
+        try {
+            accrueThrough(LocalDate.now().minusDays(1));
+        } catch (Exception e) {
+            log.error("Interest accrual run failed; it resumes from its checkpoints on the next run", e);
+        }
+    }
+
+    /**
+     * Run every day from the last started one (which may be unfinished) up to {@code lastDay}.
+     */
+    public void accrueThrough(LocalDate lastDay) {
+        while (ledgerService.foldPendingCheckpoints(lastDay) > 0) {
+            log.debug("Folded queued checkpoint movements up to {}", lastDay);
+        }
+
+        LocalDate lastStarted = accrualRepository.findLastStartedDay();
+        LocalDate day = lastStarted != null ? lastStarted : lastDay;
+
+        while (!day.isAfter(lastDay)) {
+            runDay(day);
+            day = day.plusDays(1);
+        }
+    }
+
+    private void runDay(LocalDate day) {
+        long[] ids = accrualRepository.accountIdRange();
+        if (ids == null) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long accrued = runPhase(day, InterestAccrualCheckpoint.Phase.ACCRUE, ids);
+        long capitalised = 0;
+        if (day.getDayOfMonth() == day.lengthOfMonth()) {
+            capitalised = runPhase(day, InterestAccrualCheckpoint.Phase.CAPITALIZE, ids);
+        }
+        long nanos = sample.stop(meterRegistry.timer("bank.interest.run"));
+
+        log.info("Interest run for {} finished: {} accounts accrued, {} capitalised in {} ms",
+                day, accrued, capitalised, nanos / 1_000_000);
+    }
+
+    private long runPhase(LocalDate day, InterestAccrualCheckpoint.Phase phase, long[] ids) {
+        transactionTemplate.executeWithoutResult(status -> accrualRepository.createCheckpoints(
+                day, phase, ids[0] - 1, ids[1], partitions, LocalDateTime.now()));
+
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (Integer partition : accrualRepository.findOpenPartitions(day, phase)) {
+            tasks.add(() -> runPartition(day, phase, partition));
+        }
+
+        long total = 0;
+        try {
+            for (Future<Long> result : workers.invokeAll(tasks)) {
+                total += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during interest " + phase + " for " + day, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Interest " + phase + " for " + day + " failed", e.getCause());
+        }
+        return total;
+    }
+
+    private long runPartition(LocalDate day, InterestAccrualCheckpoint.Phase phase, int partition) {
+        long total = 0;
+        while (true) {
+            Integer processed = phase == InterestAccrualCheckpoint.Phase.ACCRUE
+                    ? transactionTemplate.execute(status -> nextChunk(day, phase, partition))
+                    : accountLockService.executeWithRetry("interest", () -> nextChunk(day, phase, partition));
+            if (processed == null) {
+                return total;
+            }
+            total += processed;
+        }
+    }
+
+    /**
+     * Process the partition's next chunk and move its checkpoint, in the caller's transaction.
+     *
+     * @return accounts processed, or null when the partition is complete
+     */
+    private Integer nextChunk(LocalDate day, InterestAccrualCheckpoint.Phase phase, int partition) {
+        long[] checkpoint = accrualRepository.lockCheckpoint(day, phase, partition);
+        if (checkpoint == null) {
+            return null;
+        }
+
+        long from = checkpoint[0];
+        long to = Math.min(checkpoint[1], from + chunkSize);
+        LocalDateTime now = LocalDateTime.now();
+
+        int processed;
+        if (phase == InterestAccrualCheckpoint.Phase.ACCRUE) {
+            processed = accrualRepository.accrue(day, day.withDayOfMonth(1), daysInYear, from, to, now);
+            accruedCounter.increment(processed);
+        } else {
+            processed = capitalise(day, from, to, now);
+            capitalisedCounter.increment(processed);
+        }
+
+        accrualRepository.advanceCheckpoint(day, phase, partition, to, now);
+        return processed;
+    }
+
+    private int capitalise(LocalDate day, long from, long to, LocalDateTime now) {
+        LocalDate periodStart = day.withDayOfMonth(1);
+        List<InterestAccrualBatchRepository.DueInterest> due = accrualRepository.lockDueInterest(periodStart, from, to);
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        String period = day.format(PERIOD);
+        Map<Long, BigDecimal> credits = new TreeMap<>();
+        List<Transaction> postings = new ArrayList<>();
+        for (InterestAccrualBatchRepository.DueInterest interest : due) {
+            if (interest.getAmount().signum() > 0) {
+                credits.put(interest.getAccountId(), interest.getAmount());
+                postings.add(interestPosting(interest, period, now));
+            }
+        }
+        if (transactionBatchRepository.creditAccounts(credits, now) > 0) {
+            throw new IllegalStateException("Locked account lost its ACTIVE status during interest capitalisation");
+        }
+
+        accrualRepository.markCapitalized(due, periodStart, periodStart.plusMonths(1), day, now);
+        transactionBatchRepository.insertAll(postings);
+        ledgerService.recordInterestCapitalisations(due, period, now);
+        balanceCacheService.evictOnCommit(due.stream()
+                .map(InterestAccrualBatchRepository.DueInterest::getAccountNumber)
+                .collect(Collectors.toList()));
+        return credits.size();
+    }
+
+    /**
+     * The posting row of one capitalisation, under the transaction id of its ledger legs.
+     * There is no transfer mode for a book entry; CASH keeps the row within the existing enum.
+     */
+    private Transaction interestPosting(InterestAccrualBatchRepository.DueInterest interest, String period,
+                                        LocalDateTime now) {
+        Account account = new Account();
+        account.setId(interest.getAccountId());
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(LedgerService.interestTransactionId(period, interest.getAccountId()));
+        transaction.setFromAccount(null);
+        transaction.setFromAccountNumber(LedgerEntry.GL_INTEREST_EXPENSE);
+        transaction.setToAccount(account);
+        transaction.setToAccountNumber(interest.getAccountNumber());
+        transaction.setAmount(interest.getAmount());
+        transaction.setCurrency(interest.getCurrency());
+        transaction.setTransferFee(BigDecimal.ZERO);
+        transaction.setServiceTax(BigDecimal.ZERO);
+        transaction.setTotalAmount(interest.getAmount());
+        transaction.setTransferMode(Transaction.TransferMode.CASH);
+        transaction.setTransactionType(Transaction.TransactionType.DEPOSIT);
+        transaction.setStatus(Transaction.Status.COMPLETED);
+        transaction.setDescription("Interest for " + period);
+        transaction.setRemarks("Interest capitalisation");
+        transaction.setBalanceBefore(interest.getBalance());
+        transaction.setBalanceAfter(interest.getBalance().add(interest.getAmount()));
+        transaction.setTimestamp(now);
+        transaction.setCompletedAt(now);
+        transaction.setVerified(true);
+        transaction.setFraudCheckPassed(true);
+        transaction.setRequiresApproval(false);
+        return transaction;
+    }
+}
@@ -0,0 +1,347 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.entity.DailyBalance;
+import com.izak.demoBankManagement.entity.LedgerEntry;
+import com.izak.demoBankManagement.entity.Transaction;
+import com.izak.demoBankManagement.repository.DailyBalanceRepository;
+import com.izak.demoBankManagement.repository.InterestAccrualBatchRepository;
+import com.izak.demoBankManagement.repository.LedgerEntryRepository;
+import com.izak.demoBankManagement.repository.TransactionBatchRepository;
+import com.izak.demoBankManagement.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Double-entry ledger behind account balances.
+ *
+ * Every posting appends balanced DEBIT/CREDIT legs to {@code ledger_entries} in the same database
+ * transaction that updates the balance snapshot on {@code accounts}. The ledger is the source of
+ * truth; {@code Account.balance} is a maintained snapshot that a nightly job reconciles against it.
+ *
+ * The end-of-day checkpoints in {@code daily_balances} are maintained off the posting path: the
+ * posting only appends its movements to {@code daily_balance_deltas}, and a background fold applies
+ * them. The balance at any instant is one checkpoint read, plus the movements still queued up to
+ * that checkpoint, plus the ledger entries since it.
+ *
+ * Postings still update {@code Account.balance} in place under the account row lock, because
+ * withdrawals and transfers check funds against it. Turning that snapshot into an asynchronously
+ * maintained one, and the posting path into inserts only, is still open.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final TransactionRepository transactionRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.ledger.checkpoint-fold-batch-size:5000}")
+    private int checkpointFoldBatchSize;
+
+    private final AtomicInteger driftingAccounts = new AtomicInteger();
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("bank.ledger.drifting.accounts", driftingAccounts);
+    }
+
+    /**
+     * Append the ledger legs of a completed posting.
+     * Must run inside the posting's transaction.
+     */
+    public void record(Transaction transaction) {
+        recordAll(Collections.singletonList(transaction));
+    }
+
+    public void recordAll(List<Transaction> transactions) {
+        List<LedgerEntry> entries = new ArrayList<>(transactions.size() * 2);
+        for (Transaction transaction : transactions) {
+            addLegs(transaction, entries);
+        }
+        transactionBatchRepository.insertLedgerEntries(entries);
+        updateCheckpoints(entries);
+    }
+
+    /**
+     * Post the opening balance of a new account against the opening balance GL account.
+     */
+    public void recordOpeningBalance(Account account) {
+        recordOpeningBalances(Collections.singletonList(account));
+    }
+
+    /**
+     * Opening balances of many new accounts in one set of batches (bulk onboarding).
+     * Accounts only need id, account number, balance and currency.
+     */
+    public void recordOpeningBalances(List<Account> accounts) {
+        LocalDateTime now = LocalDateTime.now();
+        List<LedgerEntry> entries = new ArrayList<>(accounts.size() * 2);
+        for (Account account : accounts) {
+            if (account.getBalance() == null || account.getBalance().signum() == 0) {
+                continue;
+            }
+            String transactionId = "OPEN" + account.getId();
+            entries.add(leg(transactionId, null, LedgerEntry.GL_OPENING_BALANCE, LedgerEntry.EntryType.DEBIT,
+                    account.getBalance(), account.getCurrency(), now));
+            entries.add(leg(transactionId, account.getId(), account.getAccountNumber(), LedgerEntry.EntryType.CREDIT,
+                    account.getBalance(), account.getCurrency(), now));
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        transactionBatchRepository.insertLedgerEntries(entries);
+        updateCheckpoints(entries);
+    }
+
+    /**
+     * Capitalised interest: debit interest expense, credit each account with its whole cents.
+     * Transaction ids are INT + period + account id, e.g. INT202601-42.
+     */
+    public void recordInterestCapitalisations(List<InterestAccrualBatchRepository.DueInterest> capitalised,
+                                              String period, LocalDateTime at) {
+        List<LedgerEntry> entries = new ArrayList<>(capitalised.size() * 2);
+        for (InterestAccrualBatchRepository.DueInterest interest : capitalised) {
+            if (interest.getAmount().signum() == 0) {
+                continue;
+            }
+            String transactionId = interestTransactionId(period, interest.getAccountId());
+            entries.add(leg(transactionId, null, LedgerEntry.GL_INTEREST_EXPENSE, LedgerEntry.EntryType.DEBIT,
+                    interest.getAmount(), interest.getCurrency(), at));
+            entries.add(leg(transactionId, interest.getAccountId(), interest.getAccountNumber(),
+                    LedgerEntry.EntryType.CREDIT, interest.getAmount(), interest.getCurrency(), at));
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        transactionBatchRepository.insertLedgerEntries(entries);
+        updateCheckpoints(entries);
+    }
+
+    /**
+     * Transaction id shared by the ledger legs and the posting row of one capitalisation.
+     */
+    public static String interestTransactionId(String period, Long accountId) {
+        return "INT" + period + "-" + accountId;
+    }
+
+    public BigDecimal ledgerBalance(Long accountId) {
+        return ledgerEntryRepository.balanceOf(accountId, LedgerEntry.EntryType.CREDIT);
+    }
+
+    /**
+     * Balance of an account including every posting made at or before {@code at}: the closing
+     * checkpoint of the last active day before {@code at}, plus that day's ledger entries up to it.
+     */
+    public BigDecimal balanceAsOf(Account account, LocalDateTime at) {
+        Optional<DailyBalance> checkpoint = dailyBalanceRepository
+                .findFirstByAccountIdAndBalanceDateLessThanOrderByBalanceDateDesc(account.getId(), at.toLocalDate());
+        if (checkpoint.isPresent()) {
+            // Queued hot account movements are part of the checkpoint; days after it may still lack theirs
+            LocalDate checkpointDate = checkpoint.get().getBalanceDate();
+            return checkpoint.get().getClosingBalance()
+                    .add(transactionBatchRepository.sumPendingDailyBalanceDeltas(account.getId(), checkpointDate))
+                    .add(ledgerEntryRepository.netBetween(account.getId(), checkpointDate.plusDays(1).atStartOfDay(),
+                            at, LedgerEntry.EntryType.CREDIT));
+        }
+
+        // No checkpoint before this day: the account's ledger history starts on it, or after it
+        LocalDateTime firstEntry = ledgerEntryRepository.firstEntryAt(account.getId());
+        if (firstEntry != null && !at.isBefore(firstEntry)) {
+            return ledgerEntryRepository.netBetween(account.getId(), firstEntry, at, LedgerEntry.EntryType.CREDIT);
+        }
+        if (account.getCreatedDate() != null && at.isBefore(account.getCreatedDate())) {
+            return BigDecimal.ZERO;
+        }
+
+        // Before the ledger existed: roll the current balance back over the completed postings since
+        LocalDateTime after = at.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+        return ledgerBalance(account.getId())
+                .add(transactionRepository.sumDebitsSince(account.getId(), Transaction.Status.COMPLETED, after))
+                .subtract(transactionRepository.sumCreditsSince(account.getId(), Transaction.Status.COMPLETED, after));
+    }
+
+    /**
+     * Balance just before {@code at}, e.g. the opening balance of a statement starting at {@code at}.
+     */
+    public BigDecimal balanceBefore(Account account, LocalDateTime at) {
+        return balanceAsOf(account, at.truncatedTo(ChronoUnit.MICROS).minus(1, ChronoUnit.MICROS));
+    }
+
+    /**
+     * Give accounts created before the ledger existed an opening entry equal to their current balance,
+     * then build daily checkpoints for accounts that have ledger entries but no checkpoints yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillOpeningBalances() {
+        // Queued hot account movements first, so seeding only sees accounts that truly have no checkpoints
+        while (foldPendingCheckpoints() > 0) {
+            log.debug("Folded queued checkpoint movements");
+        }
+
+        int backfilled = transactionBatchRepository.backfillOpeningBalances(LocalDateTime.now());
+        if (backfilled > 0) {
+            log.info("Posted opening ledger entries for {} existing accounts", backfilled);
+        }
+
+        int checkpoints = transactionBatchRepository.seedDailyBalances(LocalDateTime.now());
+        if (checkpoints > 0) {
+            log.info("Built {} daily balance checkpoints from the ledger", checkpoints);
+        }
+    }
+
+    /**
+     * Apply queued checkpoint movements to {@code daily_balances}
+     * Runs every bank.ledger.checkpoint-fold-interval-ms (default 5 seconds)
+     *
+     * @return number of account-day checkpoints moved, 0 when nothing was queued
+     */
+    @Scheduled(fixedDelayString = "${bank.ledger.checkpoint-fold-interval-ms:5000}")
+    @Transactional
+    public int foldPendingCheckpoints() {
+        transactionBatchRepository.lockDailyBalanceFold();
+        return applyCheckpointMovements(transactionBatchRepository.claimDailyBalanceDeltas(checkpointFoldBatchSize));
+    }
+
+    /**
+     * Apply one batch of queued movements dated on or before {@code through}, for jobs that read
+     * that day's checkpoints; call until it returns 0.
+     */
+    @Transactional
+    public int foldPendingCheckpoints(LocalDate through) {
+        transactionBatchRepository.lockDailyBalanceFold();
+        return applyCheckpointMovements(
+                transactionBatchRepository.claimDailyBalanceDeltas(through, checkpointFoldBatchSize));
+    }
+
+    private int applyCheckpointMovements(Map<LocalDate, Map<Long, BigDecimal>> deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        int folded = 0;
+        for (Map.Entry<LocalDate, Map<Long, BigDecimal>> day : deltas.entrySet()) {
+            transactionBatchRepository.applyDailyBalanceDeltas(day.getKey(), day.getValue(), now);
+            folded += day.getValue().size();
+        }
+        return folded;
+    }
+
+    /**
+     * Compare every account's balance snapshot with its ledger balance
+     * Runs daily at 2:30 AM
+     */
+    @Scheduled(cron = "0 30 2 * * *")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        List<Object[]> drift = transactionBatchRepository.findLedgerDrift();
+        driftingAccounts.set(drift.size());
+
+        for (Object[] row : drift) {
+            log.error("Ledger drift on account {}: snapshot balance {}, ledger balance {}", row[0], row[1], row[2]);
+        }
+        log.info("Ledger reconciliation finished, {} accounts out of balance", drift.size());
+    }
+
+    /**
+     * Queue the end-of-day checkpoint movements of every customer account touched by these legs.
+     */
+    private void updateCheckpoints(List<LedgerEntry> entries) {
+        Map<LocalDate, Map<Long, BigDecimal>> queued = new TreeMap<>();
+        for (LedgerEntry entry : entries) {
+            if (entry.getAccountId() == null) {
+                continue;
+            }
+            BigDecimal signed = entry.getEntryType() == LedgerEntry.EntryType.CREDIT
+                    ? entry.getAmount() : entry.getAmount().negate();
+            queued.computeIfAbsent(entry.getCreatedAt().toLocalDate(), day -> new TreeMap<>())
+                    .merge(entry.getAccountId(), signed, BigDecimal::add);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        queued.forEach((day, byAccount) -> transactionBatchRepository.insertDailyBalanceDeltas(day, byAccount, now));
+    }
+
+    /**
+     * Debit the paying side with the total amount; credit the receiving side with the principal and
+     * the fee and tax GL accounts with the charges. A missing side is cash.
+     */
+    private void addLegs(Transaction t, List<LedgerEntry> entries) {
+        LocalDateTime at = t.getCompletedAt() != null ? t.getCompletedAt() : LocalDateTime.now();
+        BigDecimal debit = t.getTotalAmount() != null ? t.getTotalAmount() : t.getAmount();
+
+        entries.add(t.getFromAccount() != null
+                ? leg(t.getTransactionId(), t.getFromAccount().getId(), t.getFromAccountNumber(),
+                        LedgerEntry.EntryType.DEBIT, debit, t.getCurrency(), at)
+                : leg(t.getTransactionId(), null, LedgerEntry.GL_CASH,
+                        LedgerEntry.EntryType.DEBIT, debit, t.getCurrency(), at));
+
+        // Cross-currency transfers balance per currency through the FX position
+        String creditCurrency = t.getCreditCurrency() != null ? t.getCreditCurrency() : t.getCurrency();
+        BigDecimal creditAmount = t.getCreditAmount() != null ? t.getCreditAmount() : t.getAmount();
+        if (!creditCurrency.equals(t.getCurrency())) {
+            entries.add(leg(t.getTransactionId(), null, LedgerEntry.GL_FX_POSITION,
+                    LedgerEntry.EntryType.CREDIT, t.getAmount(), t.getCurrency(), at));
+            entries.add(leg(t.getTransactionId(), null, LedgerEntry.GL_FX_POSITION,
+                    LedgerEntry.EntryType.DEBIT, creditAmount, creditCurrency, at));
+        }
+
+        entries.add(t.getToAccount() != null
+                ? leg(t.getTransactionId(), t.getToAccount().getId(), t.getToAccountNumber(),
+                        LedgerEntry.EntryType.CREDIT, creditAmount, creditCurrency, at)
+                : leg(t.getTransactionId(), null, LedgerEntry.GL_CASH,
+                        LedgerEntry.EntryType.CREDIT, creditAmount, creditCurrency, at));
+
+        BigDecimal credited = t.getAmount();
+        if (t.getTransferFee() != null && t.getTransferFee().signum() > 0) {
+            entries.add(leg(t.getTransactionId(), null, LedgerEntry.GL_FEE_INCOME,
+                    LedgerEntry.EntryType.CREDIT, t.getTransferFee(), t.getCurrency(), at));
+            credited = credited.add(t.getTransferFee());
+        }
+        if (t.getServiceTax() != null && t.getServiceTax().signum() > 0) {
+            entries.add(leg(t.getTransactionId(), null, LedgerEntry.GL_SERVICE_TAX,
+                    LedgerEntry.EntryType.CREDIT, t.getServiceTax(), t.getCurrency(), at));
+            credited = credited.add(t.getServiceTax());
+        }
+
+        if (credited.compareTo(debit) != 0) {
+            throw new IllegalStateException("Unbalanced posting " + t.getTransactionId()
+                    + ": debits " + debit + ", credits " + credited);
+        }
+    }
+
+    private static LedgerEntry leg(String transactionId, Long accountId, String ledgerAccount,
+                                   LedgerEntry.EntryType type, BigDecimal amount, String currency,
+                                   LocalDateTime createdAt) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setTransactionId(transactionId);
+        entry.setAccountId(accountId);
+        entry.setLedgerAccount(ledgerAccount);
+        entry.setEntryType(type);
+        entry.setAmount(amount);
+        entry.setCurrency(currency);
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+}
@@ -33,26 +33,8 @@ public class LoanCalculationService {
             throw new IllegalArgumentException("Tenure must be positive");
         }
 
-        // Convert annual rate to monthly rate
-        BigDecimal monthlyRate = annualRate
-                .divide(BigDecimal.valueOf(1200), 10, RoundingMode.HALF_UP);
-
-        // Calculate (1 + r)
-        BigDecimal onePlusRate = BigDecimal.ONE.add(monthlyRate);
-
-        // Calculate (1 + r)^n using power calculation
-        BigDecimal power = pow(onePlusRate, months);
-
-        // Calculate numerator: P × r × (1+r)^n
-        BigDecimal numerator = principal
-                .multiply(monthlyRate)
-                .multiply(power);
-
-        // Calculate denominator: (1+r)^n - 1
-        BigDecimal denominator = power.subtract(BigDecimal.ONE);
-
-        // Calculate EMI
-        BigDecimal emi = numerator.divide(denominator, 2, RoundingMode.HALF_UP);
+        // (1 + r)^n by squaring, see AmortizationEngine
+        BigDecimal emi = AmortizationEngine.emi(principal, AmortizationEngine.monthlyRate(annualRate), months);
 
         log.debug("Calculated EMI: {} for Principal: {}, Rate: {}%, Tenure: {} months",
                 emi, principal, annualRate, months);
@@ -127,22 +109,6 @@ public class LoanCalculationService {
         return currentOutstanding.subtract(principalPaid).setScale(2, RoundingMode.HALF_UP);
     }
 
-    /**
-     * Power function for BigDecimal
-     */
-    private BigDecimal pow(BigDecimal base, int exponent) {
-        if (exponent == 0) {
-            return BigDecimal.ONE;
-        }
-
-        BigDecimal result = base;
-        for (int i = 1; i < exponent; i++) {
-            result = result.multiply(base);
-        }
-
-        return result.setScale(10, RoundingMode.HALF_UP);
-    }
-
     /**
      * Calculate Loan-to-Value (LTV) ratio
      */
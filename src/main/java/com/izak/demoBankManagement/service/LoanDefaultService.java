@@ -0,0 +1,113 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.repository.LoanDefaultBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Marks ACTIVE loans DEFAULTED once an installment is more than bank.loan-default.overdue-days past
+ * due, and sets those installments OVERDUE.
+ *
+ * Candidates are found with one join query over the schedules, bank.loan-default.chunk-size loans at
+ * a time in id order; each chunk is defaulted with bulk UPDATEs and commits together with the run's
+ * checkpoint, so a failed run resumes after the last committed chunk when it is triggered again that day.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoanDefaultService {
+
+    private final LoanDefaultBatchRepository defaultBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.loan-default.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${bank.loan-default.overdue-days:90}")
+    private int overdueDays;
+
+    private Counter loansCounter;
+    private Counter schedulesCounter;
+
+    @PostConstruct
+    void init() {
+        loansCounter = meterRegistry.counter("bank.loan.default.rows", "table", "loans");
+        schedulesCounter = meterRegistry.counter("bank.loan.default.rows", "table", "schedules");
+    }
+
+    /**
+     * Run today's default marking for one branch, or for all loans when {@code branchId} is null.
+     *
+     * @return number of loans marked DEFAULTED by this call
+     */
+    public long markDefaults(Long branchId) {
+        LocalDate runDate = LocalDate.now();
+        LocalDate cutoff = runDate.minusDays(overdueDays);
+        String scope = branchId != null ? "BRANCH-" + branchId : "ALL";
+
+        transactionTemplate.executeWithoutResult(status ->
+                defaultBatchRepository.createCheckpoint(runDate, scope, LocalDateTime.now()));
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long loans = 0;
+        long schedules = 0;
+        int chunks = 0;
+        while (true) {
+            long[] processed = transactionTemplate.execute(status -> nextChunk(runDate, scope, cutoff, branchId));
+            if (processed == null) {
+                break;
+            }
+            loans += processed[0];
+            schedules += processed[1];
+            chunks++;
+        }
+        long nanos = sample.stop(meterRegistry.timer("bank.loan.default.run"));
+
+        double seconds = Math.max(nanos, 1) / 1_000_000_000.0;
+        log.info("Default marking {} for {} finished: {} loans defaulted, {} installments overdue in {} chunks, " +
+                        "{} ms ({} rows/s)", scope, runDate, loans, schedules, chunks, nanos / 1_000_000,
+                Math.round((loans + schedules) / seconds));
+        return loans;
+    }
+
+    /**
+     * Default the run's next chunk of candidates and move its checkpoint, in the caller's transaction.
+     *
+     * @return [loans, installments] updated, or null when the run is complete
+     */
+    private long[] nextChunk(LocalDate runDate, String scope, LocalDate cutoff, Long branchId) {
+        Long lastLoanId = defaultBatchRepository.lockCheckpoint(runDate, scope);
+        if (lastLoanId == null) {
+            return null;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> candidates = defaultBatchRepository.findDefaultCandidates(cutoff, branchId, lastLoanId, chunkSize);
+        if (candidates.isEmpty()) {
+            defaultBatchRepository.completeCheckpoint(runDate, scope, now);
+            return null;
+        }
+
+        long to = candidates.get(candidates.size() - 1);
+        long[] updated = defaultBatchRepository.markDefaulted(cutoff, overdueDays, branchId, lastLoanId, to, now);
+        defaultBatchRepository.advanceCheckpoint(runDate, scope, to, updated[0], updated[1], now);
+
+        loansCounter.increment(updated[0]);
+        schedulesCounter.increment(updated[1]);
+        log.debug("Default marking {}: loans ({}, {}] - {} loans, {} installments", scope, lastLoanId, to,
+                updated[0], updated[1]);
+        return updated;
+    }
+}
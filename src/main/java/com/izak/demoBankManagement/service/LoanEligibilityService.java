@@ -223,16 +223,8 @@ public class LoanEligibilityService {
         }
 
         // Calculate loan amount for this EMI
-        BigDecimal monthlyRate = annualRate
-                .divide(BigDecimal.valueOf(1200), 10, RoundingMode.HALF_UP);
-        BigDecimal onePlusRate = BigDecimal.ONE.add(monthlyRate);
-        BigDecimal power = pow(onePlusRate, tenureMonths);
-        BigDecimal denominator = monthlyRate.multiply(power);
-        BigDecimal numerator = power.subtract(BigDecimal.ONE);
-
-        BigDecimal recommendedAmount = maxAllowedEMI
-                .multiply(numerator)
-                .divide(denominator, 2, RoundingMode.HALF_UP);
+        BigDecimal recommendedAmount = AmortizationEngine.principalForEmi(maxAllowedEMI,
+                AmortizationEngine.monthlyRate(annualRate), tenureMonths);
 
         return recommendedAmount.setScale(2, RoundingMode.HALF_UP);
     }
@@ -267,17 +259,4 @@ public class LoanEligibilityService {
         }
     }
 
-    /**
-     * Power function for BigDecimal
-     */
-    private BigDecimal pow(BigDecimal base, int exponent) {
-        if (exponent == 0) {
-            return BigDecimal.ONE;
-        }
-        BigDecimal result = base;
-        for (int i = 1; i < exponent; i++) {
-            result = result.multiply(base);
-        }
-        return result.setScale(10, RoundingMode.HALF_UP);
-    }
 }
@@ -0,0 +1,221 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.entity.Loan;
+import com.izak.demoBankManagement.entity.LoanRepaymentSchedule;
+import com.izak.demoBankManagement.repository.LoanRepaymentScheduleRepository;
+import com.izak.demoBankManagement.repository.LoanRepository;
+import com.izak.demoBankManagement.repository.LoanScheduleBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores repayment schedules with JDBC batch inserts.
+ *
+ * With bank.loan-schedule.lazy=true, loans disbursed from then on keep their future installments
+ * virtual: they are computed from the loan terms by {@link AmortizationSchedule} when read, and only
+ * stored once they fall due (nightly, ahead of default marking) or a repayment reaches them.
+ * Stored installments are always a prefix of the schedule. {@code Loan.nextScheduleDueDate} holds the
+ * due date of the first virtual installment, so the nightly run only visits loans with one falling due;
+ * once every installment is stored the loan stops being lazy.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoanScheduleService {
+
+    private final LoanRepository loanRepository;
+    private final LoanRepaymentScheduleRepository scheduleRepository;
+    private final LoanScheduleBatchRepository scheduleBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.loan-schedule.lazy:false}")
+    private boolean lazy;
+
+    @Value("${bank.loan-schedule.chunk-size:1000}")
+    private int chunkSize;
+
+    private Counter materializedCounter;
+
+    @PostConstruct
+    void init() {
+        materializedCounter = meterRegistry.counter("bank.loan.schedule.materialized");
+    }
+
+    /**
+     * Replace the loan's schedule, in the caller's transaction. Lazy schedules store only the
+     * installments already due.
+     *
+     * @return number of installments stored
+     */
+    public int generate(Loan loan) {
+        scheduleBatchRepository.deleteByLoanId(loan.getId());
+        loan.setLazySchedule(lazy);
+
+        LocalDate today = LocalDate.now();
+        List<LoanRepaymentSchedule> schedules = new ArrayList<>();
+        LoanRepaymentSchedule firstVirtual = null;
+        for (LoanRepaymentSchedule schedule : AmortizationSchedule.of(loan)) {
+            if (lazy && schedule.getDueDate().isAfter(today)) {
+                firstVirtual = schedule;
+                break;
+            }
+            schedules.add(schedule);
+        }
+        scheduleBatchRepository.insert(schedules);
+        storedUpTo(loan, firstVirtual);
+        materializedCounter.increment(schedules.size());
+        return schedules.size();
+    }
+
+    /**
+     * Store the installments a repayment of {@code amount} reaches: everything due by today, then
+     * future installments until the unpaid stored ones cover the amount. No-op for stored schedules.
+     */
+    public void materializeForPayment(Loan loan, BigDecimal amount) {
+        if (!Boolean.TRUE.equals(loan.getLazySchedule())) {
+            return;
+        }
+
+        List<LoanRepaymentSchedule> stored = scheduleRepository.findByLoanIdOrderByDueDateAsc(loan.getId());
+        BigDecimal pending = stored.stream()
+                .filter(s -> s.getStatus() == LoanRepaymentSchedule.ScheduleStatus.PENDING)
+                .map(LoanRepaymentSchedule::getTotalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        LocalDate today = LocalDate.now();
+        List<LoanRepaymentSchedule> schedules = new ArrayList<>();
+        Iterator<LoanRepaymentSchedule> virtual = virtualInstallments(loan, stored.size());
+        LoanRepaymentSchedule firstVirtual = null;
+        while (virtual.hasNext()) {
+            LoanRepaymentSchedule schedule = virtual.next();
+            if (schedule.getDueDate().isAfter(today) && pending.compareTo(amount) >= 0) {
+                firstVirtual = schedule;
+                break;
+            }
+            schedules.add(schedule);
+            pending = pending.add(schedule.getTotalAmount());
+        }
+        scheduleBatchRepository.insert(schedules);
+        storedUpTo(loan, firstVirtual);
+        materializedCounter.increment(schedules.size());
+    }
+
+    /**
+     * The full schedule: stored installments followed, for an ACTIVE lazy loan, by the virtual
+     * remainder (unsaved PENDING rows).
+     */
+    public List<LoanRepaymentSchedule> getSchedule(Loan loan) {
+        List<LoanRepaymentSchedule> schedules = new ArrayList<>(
+                scheduleRepository.findByLoanIdOrderByDueDateAsc(loan.getId()));
+        if (Boolean.TRUE.equals(loan.getLazySchedule()) && loan.getLoanStatus() == Loan.LoanStatus.ACTIVE) {
+            virtualInstallments(loan, schedules.size()).forEachRemaining(schedules::add);
+        }
+        return schedules;
+    }
+
+    /**
+     * Store lazy installments that fall due today
+     * Runs daily at 1:30 AM by default (bank.loan-schedule.materialize-cron), before default marking
+     */
+    @Scheduled(cron = "${bank.loan-schedule.materialize-cron:0 30 1 * * *}")
+    public void materializeDueNightly() {
+        try {
+            materializeDue(LocalDate.now());
+        } catch (Exception e) {
+            log.error("Materialising due installments failed", e);
+        }
+    }
+
+    /**
+     * Store every installment of ACTIVE lazy loans due by {@code day}, bank.loan-schedule.chunk-size
+     * loans per transaction. Only loans whose next virtual installment is due by then are read.
+     *
+     * @return number of installments stored
+     */
+    public long materializeDue(LocalDate day) {
+        long start = System.nanoTime();
+        long afterId = 0;
+        long total = 0;
+        while (true) {
+            long from = afterId;
+            long[] chunk = transactionTemplate.execute(status -> materializeChunk(day, from));
+            if (chunk == null) {
+                break;
+            }
+            afterId = chunk[0];
+            total += chunk[1];
+        }
+
+        log.info("Materialised {} due installments through {} in {} ms", total, day,
+                (System.nanoTime() - start) / 1_000_000);
+        return total;
+    }
+
+    /**
+     * @return [last loan id, installments stored], or null when no lazy loans are due
+     */
+    private long[] materializeChunk(LocalDate day, long afterId) {
+        List<Loan> loans = loanRepository.findLazyScheduleLoansDueBy(Loan.LoanStatus.ACTIVE, day, afterId,
+                PageRequest.of(0, chunkSize));
+        if (loans.isEmpty()) {
+            return null;
+        }
+
+        long lastId = loans.get(loans.size() - 1).getId();
+        Map<Long, Integer> lastInstallments = scheduleBatchRepository.findLastInstallments(
+                loans.stream().map(Loan::getId).toList());
+
+        List<LoanRepaymentSchedule> schedules = new ArrayList<>();
+        for (Loan loan : loans) {
+            Iterator<LoanRepaymentSchedule> virtual = virtualInstallments(loan, lastInstallments.getOrDefault(loan.getId(), 0));
+            LoanRepaymentSchedule firstVirtual = null;
+            while (virtual.hasNext()) {
+                LoanRepaymentSchedule schedule = virtual.next();
+                if (schedule.getDueDate().isAfter(day)) {
+                    firstVirtual = schedule;
+                    break;
+                }
+                schedules.add(schedule);
+            }
+            storedUpTo(loan, firstVirtual);
+        }
+        scheduleBatchRepository.insert(schedules);
+        materializedCounter.increment(schedules.size());
+        return new long[]{lastId, schedules.size()};
+    }
+
+    // Record where the stored prefix ends; saved with the loan by the surrounding transaction
+    private static void storedUpTo(Loan loan, LoanRepaymentSchedule firstVirtual) {
+        if (firstVirtual != null) {
+            loan.setNextScheduleDueDate(firstVirtual.getDueDate());
+        } else {
+            loan.setNextScheduleDueDate(null);
+            loan.setLazySchedule(false);
+        }
+    }
+
+    // Installments after the first {@code stored}, which are the ones already in the table
+    private static Iterator<LoanRepaymentSchedule> virtualInstallments(Loan loan, int stored) {
+        Iterator<LoanRepaymentSchedule> installments = AmortizationSchedule.of(loan).iterator();
+        for (int i = 0; i < stored && installments.hasNext(); i++) {
+            installments.next();
+        }
+        return installments;
+    }
+}
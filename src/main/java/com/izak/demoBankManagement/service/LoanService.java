@@ -7,6 +7,11 @@ import com.izak.demoBankManagement.repository.*;
 import com.izak.demoBankManagement.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,8 +20,9 @@ import java.security.PublicKey;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Random;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -33,10 +39,12 @@ public class LoanService {
     private final LoanCalculationService calculationService;
     private final LoanEligibilityService eligibilityService;
     private final TransactionService transactionService;
+    private final LoanDefaultService loanDefaultService;
+    private final LoanScheduleService loanScheduleService;
+    private final IdGeneratorService idGeneratorService;
     private final BranchAuthorizationService branchAuthorizationService;
     private final JwtUtil jwtUtil;
-    // Define the missing constant here
-    private static final int MAX_OVERDUE_DAYS = 90;
+    private static final int MAX_LOAN_PAGE_SIZE = 100;
 
     // ============================================
     // LOAN RETRIEVAL
@@ -263,7 +271,7 @@ public class LoanService {
     }
 
     private String generateLoanId() {
-        return "L" + System.currentTimeMillis() + new Random().nextInt(1000);
+        return "L" + idGeneratorService.nextId();
     }
 
 //    private LoanResponseDTO mapToResponseDTO(Loan loan) {
@@ -327,57 +335,26 @@ private LoanResponseDTO mapToResponseDTO(Loan loan) {
      * Enforces branch-aware access:
      * - ADMIN: Processes all active loans.
      * - BRANCH_MANAGER/LOAN_OFFICER: Processes only loans in their branch.
+     * The work runs as a chunked batch job in {@link LoanDefaultService}, one transaction per chunk.
      */
-    @Transactional
     public void markDefaults(String jwtToken) {
         log.info("Running default marking process triggered by user");
 
         String role = branchAuthorizationService.extractRole(jwtToken);
         Long tokenBranchId = branchAuthorizationService.extractBranchId(jwtToken);
 
-        // 1. Fetch active loans
-        List<Loan> activeLoans;
+        long markedCount;
         if ("ADMIN".equals(role)) {
-            activeLoans = loanRepository.findByLoanStatus(Loan.LoanStatus.ACTIVE);
+            markedCount = loanDefaultService.markDefaults(null);
         } else if ("BRANCH_MANAGER".equals(role) || "LOAN_OFFICER".equals(role)) {
             if (tokenBranchId == null) {
                 throw new UnauthorizedAccessException("User has no assigned branch for this operation");
             }
-            // Optimization: Use a repository method to filter by branch directly if available
-            // For now, we filter the list using the branch check logic
-            activeLoans = loanRepository.findByLoanStatus(Loan.LoanStatus.ACTIVE).stream()
-                    .filter(loan -> branchAuthorizationService.canAccessLoan(jwtToken, loan))
-                    .collect(Collectors.toList());
+            markedCount = loanDefaultService.markDefaults(tokenBranchId);
         } else {
             throw new UnauthorizedAccessException("Your role is not authorized to mark loan defaults");
         }
 
-        LocalDate cutoffDate = LocalDate.now().minusDays(MAX_OVERDUE_DAYS);
-        int markedCount = 0;
-
-        for (Loan loan : activeLoans) {
-            List<LoanRepaymentSchedule> overdueSchedules = scheduleRepository
-                    .findByLoanIdAndStatus(loan.getId(), LoanRepaymentSchedule.ScheduleStatus.PENDING)
-                    .stream()
-                    .filter(s -> s.getDueDate().isBefore(cutoffDate))
-                    .collect(Collectors.toList());
-
-            if (!overdueSchedules.isEmpty()) {
-                loan.setLoanStatus(Loan.LoanStatus.DEFAULTED);
-                loan.setRemarks("Loan defaulted - " + overdueSchedules.size() +
-                        " installments overdue by more than " + MAX_OVERDUE_DAYS + " days");
-                loanRepository.save(loan);
-
-                for (LoanRepaymentSchedule schedule : overdueSchedules) {
-                    schedule.setStatus(LoanRepaymentSchedule.ScheduleStatus.OVERDUE);
-                    scheduleRepository.save(schedule);
-                }
-
-                markedCount++;
-                log.warn("Marked loan {} as DEFAULTED", loan.getLoanId());
-            }
-        }
-
         log.info("Default marking completed for role {}. Marked {} loans as defaulted", role, markedCount);
     }
 
@@ -390,8 +367,9 @@ private LoanResponseDTO mapToResponseDTO(Loan loan) {
         log.info("Fetching loans for customer: {}", customerId);
 
         // Verify customer exists
-        Customer customer = customerRepository.findByCustomerId(customerId)
-                .orElseThrow(() -> new CustomerNotFoundException("Customer not found: " + customerId));
+        if (!customerRepository.existsByCustomerId(customerId)) {
+            throw new CustomerNotFoundException("Customer not found: " + customerId);
+        }
 
         // Extract role and branch from token
         String role = branchAuthorizationService.extractRole(jwtToken);
@@ -405,8 +383,8 @@ private LoanResponseDTO mapToResponseDTO(Loan loan) {
             }
         }
 
-        // Fetch all loans for the customer
-        List<Loan> loans = loanRepository.findByCustomerCustomerId(customerId);
+        // Fetch all loans for the customer, with customer and account branch in the same statement
+        List<Loan> loans = loanRepository.findByCustomerIdWithDetails(customerId);
 
         // Filter by branch authorization
         return loans.stream()
@@ -429,8 +407,8 @@ private LoanResponseDTO mapToResponseDTO(Loan loan) {
             throw new UnauthorizedAccessException("You do not have permission to access this loan statement");
         }
 
-        // Fetch repayment schedules
-        List<LoanRepaymentSchedule> schedules = scheduleRepository.findByLoanIdOrderByDueDateAsc(loan.getId());
+        // Fetch repayment schedules, including installments not stored yet
+        List<LoanRepaymentSchedule> schedules = loanScheduleService.getSchedule(loan);
 
         // Calculate statement details - use totalAmount instead of getEmiAmount
         BigDecimal totalPaid = schedules.stream()
@@ -602,6 +580,7 @@ private LoanResponseDTO mapToResponseDTO(Loan loan) {
         loan = loanRepository.save(loan);
 
         // Update repayment schedules - use totalAmount and paymentDate
+        loanScheduleService.materializeForPayment(loan, request.getPaymentAmount());
         List<LoanRepaymentSchedule> pendingSchedules = scheduleRepository
                 .findByLoanIdAndStatus(loan.getId(), LoanRepaymentSchedule.ScheduleStatus.PENDING);
 
@@ -625,96 +604,107 @@ private LoanResponseDTO mapToResponseDTO(Loan loan) {
         return transactionResponse;
     }
 
+    /**
+     * One page of the approval queue, oldest application first, projected without loading loans.
+     * Page numbers are 1-based like {@link #getAllLoans}.
+     */
     @Transactional(readOnly = true)
-    public List<LoanListItemDTO> getPendingApprovalLoans(String jwtToken) {
-        log.info("Fetching pending approval loans");
+    public LoanSearchResponseDTO getPendingApprovalLoans(int pageNumber, int pageSize, String jwtToken) {
+        log.info("Fetching pending approval loans - Page: {}, Size: {}", pageNumber, pageSize);
 
         String role = branchAuthorizationService.extractRole(jwtToken);
-        Long tokenBranchId = branchAuthorizationService.extractBranchId(jwtToken);
+        Pageable pageable = loanListPage(pageNumber, pageSize);
 
-        // Fetch pending loans
-        List<Loan> pendingLoans = loanRepository.findByApprovalStatus(Loan.ApprovalStatus.PENDING);
-
-        // Filter based on role
+        Page<LoanListItemDTO> page;
         if ("ADMIN".equals(role)) {
             // Admin can see all pending loans
-            return pendingLoans.stream()
-                    .map(this::mapToLoanListItemDTO)
-                    .collect(Collectors.toList());
+            page = loanRepository.findListItemsByApprovalStatus(Loan.ApprovalStatus.PENDING, pageable);
         } else if ("BRANCH_MANAGER".equals(role) || "LOAN_OFFICER".equals(role)) {
             // Filter by branch
+            Long tokenBranchId = branchAuthorizationService.extractBranchId(jwtToken);
             if (tokenBranchId == null) {
                 throw new UnauthorizedAccessException("User has no assigned branch");
             }
-
-            return pendingLoans.stream()
-                    .filter(loan -> branchAuthorizationService.canAccessLoan(jwtToken, loan))
-                    .map(this::mapToLoanListItemDTO)
-                    .collect(Collectors.toList());
+            page = loanRepository.findListItemsByApprovalStatusAndBranchId(
+                    Loan.ApprovalStatus.PENDING, tokenBranchId, pageable);
         } else {
             throw new UnauthorizedAccessException("Role not authorized to view pending approval loans");
         }
+
+        return toLoanPageResponse(page);
     }
 
 
+    /**
+     * Search loans in one query: the caller's role scope and every given filter become predicates,
+     * and the page is read with LIMIT/OFFSET plus a separate count.
+     */
     @Transactional(readOnly = true)
     public LoanSearchResponseDTO searchLoans(LoanSearchRequestDTO request, String jwtToken) {
         log.info("Searching loans with criteria: {}", request);
 
         String role = branchAuthorizationService.extractRole(jwtToken);
-        Long tokenBranchId = branchAuthorizationService.extractBranchId(jwtToken);
 
-        // Fetch all loans (in production, use proper pagination and filtering at DB level)
-        List<Loan> allLoans = loanRepository.findAll();
-
-        // Apply role-based filtering
-        List<Loan> accessibleLoans;
+        // Role-based scope
+        Specification<Loan> scope;
         if ("ADMIN".equals(role)) {
-            accessibleLoans = allLoans;
+            scope = null;
         } else if ("BRANCH_MANAGER".equals(role) || "LOAN_OFFICER".equals(role)) {
+            Long tokenBranchId = branchAuthorizationService.extractBranchId(jwtToken);
             if (tokenBranchId == null) {
                 throw new UnauthorizedAccessException("User has no assigned branch");
             }
-            accessibleLoans = allLoans.stream()
-                    .filter(loan -> branchAuthorizationService.canAccessLoan(jwtToken, loan))
-                    .collect(Collectors.toList());
+            scope = LoanSpecifications.inBranch(tokenBranchId);
         } else if ("CUSTOMER".equals(role)) {
             String tokenCustomerId = branchAuthorizationService.extractCustomerId(jwtToken);
-            accessibleLoans = allLoans.stream()
-                    .filter(loan -> loan.getCustomer().getCustomerId().equals(tokenCustomerId))
-                    .collect(Collectors.toList());
+            if (tokenCustomerId == null) {
+                throw new UnauthorizedAccessException("Customer ID not found in token");
+            }
+            scope = LoanSpecifications.ofCustomer(tokenCustomerId);
         } else {
             throw new UnauthorizedAccessException("Role not authorized to search loans");
         }
 
-        // Apply search filters
-        List<LoanListItemDTO> filteredLoans = accessibleLoans.stream()
-                .filter(loan -> matchesSearchCriteria(loan, request))
-                .map(this::mapToLoanListItemDTO)
-                .collect(Collectors.toList());
+        // Search filters
+        Specification<Loan> spec = Specification.allOf(Stream.of(scope,
+                        LoanSpecifications.ofCustomer(request.getCustomerId()),
+                        LoanSpecifications.hasStatus(parseSearchEnum(Loan.LoanStatus.class, request.getLoanStatus(), "loan status")),
+                        LoanSpecifications.hasType(parseSearchEnum(Loan.LoanType.class, request.getLoanType(), "loan type")),
+                        LoanSpecifications.principalBetween(request.getMinAmount(), request.getMaxAmount()),
+                        LoanSpecifications.appliedBetween(request.getApplicationDateFrom(), request.getApplicationDateTo()),
+                        LoanSpecifications.fetchCustomer())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
 
-        // Apply pagination
         int pageNumber = request.getPageNumber() != null ? request.getPageNumber() : 0;
         int pageSize = request.getPageSize() != null ? request.getPageSize() : 10;
-        int totalCount = filteredLoans.size();
-        int totalPages = (int) Math.ceil((double) totalCount / pageSize);
-
-        int fromIndex = pageNumber * pageSize;
-        int toIndex = Math.min(fromIndex + pageSize, totalCount);
-
-        List<LoanListItemDTO> paginatedLoans = fromIndex < totalCount ?
-                filteredLoans.subList(fromIndex, toIndex) : List.of();
+        Page<Loan> page = loanRepository.findAll(spec, PageRequest.of(pageNumber, pageSize,
+                Sort.by(Sort.Order.desc("applicationDate"), Sort.Order.desc("id"))));
 
         // Build response
         LoanSearchResponseDTO response = new LoanSearchResponseDTO();
-        response.setLoans(paginatedLoans);
-        response.setTotalCount(totalCount);
+        response.setLoans(page.getContent().stream()
+                .map(this::mapToLoanListItemDTO)
+                .collect(Collectors.toList()));
+        response.setTotalCount((int) page.getTotalElements());
         response.setPageNumber(pageNumber);
         response.setPageSize(pageSize);
-        response.setTotalPages(totalPages);
+        response.setTotalPages(page.getTotalPages());
 
         return response;
     }
+
+    private static <E extends Enum<E>> E parseSearchEnum(Class<E> type, String value, String field) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new LoanApplicationException("Invalid " + field + ": " + value);
+        }
+    }
+
     @Transactional
     public LoanResponseDTO foreCloseLoan(LoanForeclosureRequestDTO request, String jwtToken) {
         log.info("Processing loan foreclosure for loan: {}", request.getLoanId());
@@ -784,82 +774,60 @@ private LoanResponseDTO mapToResponseDTO(Loan loan) {
         return dto;
     }
 
-    // Helper method to match search criteria - only check fields that exist in DTO
-    private boolean matchesSearchCriteria(Loan loan, LoanSearchRequestDTO request) {
-        if (request.getLoanType() != null && !loan.getLoanType().toString().equalsIgnoreCase(request.getLoanType())) {
-            return false;
-        }
-        if (request.getLoanStatus() != null && !loan.getLoanStatus().toString().equalsIgnoreCase(request.getLoanStatus())) {
-            return false;
-        }
-        if (request.getCustomerId() != null && !loan.getCustomer().getCustomerId().equals(request.getCustomerId())) {
-            return false;
-        }
-        return true;
-    }
-
 
 
+    /**
+     * One page of all loans visible to the caller, newest application first. Rows are projected
+     * straight into the list DTO and the branch scope is part of the query, so a page costs the
+     * same however large the portfolio is. Page numbers are 1-based.
+     */
     @Transactional(readOnly = true)
     public LoanSearchResponseDTO getAllLoans(int pageNumber, int pageSize, String jwtToken) {
         log.info("Fetching all loans - Page: {}, Size: {}", pageNumber, pageSize);
 
-        // Extract role and branch from JWT token
+        // Extract role from JWT token
         String role = branchAuthorizationService.extractRole(jwtToken);
-        Long tokenBranchId = branchAuthorizationService.extractBranchId(jwtToken);
+        Pageable pageable = loanListPage(pageNumber, pageSize);
 
         // Fetch loans based on role
-        List<Loan> allLoans;
-
+        Page<LoanListItemDTO> page;
         if ("ADMIN".equals(role)) {
             // ADMIN can see all loans system-wide
             log.debug("ADMIN role - fetching all loans");
-            allLoans = loanRepository.findAll();
+            page = loanRepository.findListItems(pageable);
         } else if ("BRANCH_MANAGER".equals(role) || "LOAN_OFFICER".equals(role)) {
             // BRANCH_MANAGER and LOAN_OFFICER can only see loans in their branch
+            Long tokenBranchId = branchAuthorizationService.extractBranchId(jwtToken);
             if (tokenBranchId == null) {
                 log.warn("{} has no assigned branch in token", role);
                 throw new UnauthorizedAccessException("User has no assigned branch");
             }
 
             log.debug("{} role - fetching loans for branch ID: {}", role, tokenBranchId);
-            allLoans = loanRepository.findByBranchId(tokenBranchId);
+            page = loanRepository.findListItemsByBranchId(tokenBranchId, pageable);
         } else {
             log.warn("Unauthorized role {} attempted to get all loans", role);
             throw new UnauthorizedAccessException("Role not authorized to view all loans");
         }
 
-        // Apply pagination
-        int adjustedPageNumber = pageNumber - 1; // Convert to 0-based index
-        if (adjustedPageNumber < 0) {
-            adjustedPageNumber = 0;
-        }
-
-        int totalCount = allLoans.size();
-        int totalPages = (int) Math.ceil((double) totalCount / pageSize);
+        log.info("Retrieved {} loans out of {} total for role {}",
+                page.getNumberOfElements(), page.getTotalElements(), role);
 
-        int fromIndex = adjustedPageNumber * pageSize;
-        int toIndex = Math.min(fromIndex + pageSize, totalCount);
+        return toLoanPageResponse(page);
+    }
 
-        // Get paginated subset
-        List<LoanListItemDTO> paginatedLoans = fromIndex < totalCount ?
-                allLoans.subList(fromIndex, toIndex)
-                        .stream()
-                        .map(this::mapToLoanListItemDTO)
-                        .collect(Collectors.toList())
-                : List.of();
+    // 1-based page number from the API, page size capped like the loan search
+    private static Pageable loanListPage(int pageNumber, int pageSize) {
+        return PageRequest.of(Math.max(pageNumber - 1, 0), Math.max(1, Math.min(pageSize, MAX_LOAN_PAGE_SIZE)));
+    }
 
-        // Build response
+    private static LoanSearchResponseDTO toLoanPageResponse(Page<LoanListItemDTO> page) {
         LoanSearchResponseDTO response = new LoanSearchResponseDTO();
-        response.setLoans(paginatedLoans);
-        response.setTotalCount(totalCount);
-        response.setPageNumber(adjustedPageNumber);
-        response.setPageSize(pageSize);
-        response.setTotalPages(totalPages);
-
-        log.info("Retrieved {} loans out of {} total for role {}",
-                paginatedLoans.size(), totalCount, role);
-
+        response.setLoans(page.getContent());
+        response.setTotalCount((int) page.getTotalElements());
+        response.setPageNumber(page.getNumber());
+        response.setPageSize(page.getSize());
+        response.setTotalPages(page.getTotalPages());
         return response;
     }
 
@@ -867,62 +835,10 @@ private LoanResponseDTO mapToResponseDTO(Loan loan) {
     private void generateRepaymentSchedule(Loan loan) {
         log.info("Generating repayment schedule for loan: {}", loan.getLoanId());
 
-        // Clear any existing schedules (in case of regeneration)
-        scheduleRepository.deleteAll(
-                scheduleRepository.findByLoanIdOrderByDueDateAsc(loan.getId())
-        );
-
-        LocalDate startDate = loan.getActualDisbursementDate() != null
-                ? loan.getActualDisbursementDate()
-                : LocalDate.now();
-
-        BigDecimal monthlyInterestRate = loan.getAnnualInterestRate()
-                .divide(BigDecimal.valueOf(100), 10, BigDecimal.ROUND_HALF_UP)
-                .divide(BigDecimal.valueOf(12), 10, BigDecimal.ROUND_HALF_UP);
-
-        BigDecimal remainingPrincipal = loan.getPrincipal();
-
-        for (int i = 1; i <= loan.getTenureMonths(); i++) {
-            LoanRepaymentSchedule schedule = new LoanRepaymentSchedule();
-            schedule.setLoan(loan);
-            schedule.setInstallmentNumber(i);
-
-            // Calculate due date (first EMI due after 1 month from disbursement)
-            LocalDate dueDate = startDate.plusMonths(i);
-            schedule.setDueDate(dueDate);
-
-            // Calculate interest for this period
-            BigDecimal interestAmount = remainingPrincipal
-                    .multiply(monthlyInterestRate)
-                    .setScale(2, BigDecimal.ROUND_HALF_UP);
-
-            // Calculate principal for this period
-            BigDecimal principalAmount = loan.getMonthlyEMI()
-                    .subtract(interestAmount)
-                    .setScale(2, BigDecimal.ROUND_HALF_UP);
-
-            // Adjust for last installment to account for rounding
-            if (i == loan.getTenureMonths()) {
-                principalAmount = remainingPrincipal;
-                BigDecimal totalAmount = principalAmount.add(interestAmount);
-                schedule.setTotalAmount(totalAmount);
-            } else {
-                schedule.setTotalAmount(loan.getMonthlyEMI());
-            }
-
-            schedule.setPrincipalAmount(principalAmount);
-            schedule.setInterestAmount(interestAmount);
-            schedule.setStatus(LoanRepaymentSchedule.ScheduleStatus.PENDING);
-
-            // Calculate balance after this payment
-            remainingPrincipal = remainingPrincipal.subtract(principalAmount);
-            schedule.setBalanceAfterPayment(remainingPrincipal);
-
-            scheduleRepository.save(schedule);
-        }
+        int stored = loanScheduleService.generate(loan);
 
-        log.info("Generated {} repayment schedules for loan {}",
-                loan.getTenureMonths(), loan.getLoanId());
+        log.info("Generated {} repayment schedules for loan {} ({} stored)",
+                loan.getTenureMonths(), loan.getLoanId(), stored);
     }
 
 
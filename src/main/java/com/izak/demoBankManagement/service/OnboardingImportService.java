@@ -0,0 +1,545 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.AccountCreateRequestDTO;
+import com.izak.demoBankManagement.dto.CustomerCreateRequestDTO;
+import com.izak.demoBankManagement.dto.OnboardingImportErrorDTO;
+import com.izak.demoBankManagement.dto.OnboardingImportReportDTO;
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.entity.Branch;
+import com.izak.demoBankManagement.entity.Customer;
+import com.izak.demoBankManagement.entity.User;
+import com.izak.demoBankManagement.exception.InvalidTransactionException;
+import com.izak.demoBankManagement.repository.BranchRepository;
+import com.izak.demoBankManagement.repository.OnboardingBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk customer and account onboarding from CSV, e.g. when migrating a branch portfolio.
+ *
+ * The upload is read as a stream and processed in chunks of bank.import.chunk-size rows. Existing
+ * usernames, emails and branches are loaded once per import, so duplicate checks are in-memory set
+ * lookups rather than {@code existsBy} queries per row. Each chunk reserves its ids with one query
+ * per table and is written with JDBC batch inserts in its own transaction, opening balances
+ * included; a failing chunk does not undo the chunks before it.
+ *
+ * One row creates a customer and, when {@code accountType} is set, an account. A later row with
+ * the email of a customer created earlier in the same file adds another account to that customer.
+ * Passwords are not imported in clear text: a row may carry a BCrypt {@code passwordHash} from the
+ * source system, otherwise the user gets an unusable password and needs a credential reset.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OnboardingImportService {
+
+    static final List<String> CUSTOMER_COLUMNS = Arrays.asList("username", "email", "firstName", "lastName",
+            "phone", "dateOfBirth", "address", "city", "state", "zipCode", "passwordHash");
+    static final List<String> ACCOUNT_COLUMNS = Arrays.asList("branchCode", "accountType", "balance", "currency",
+            "interestRate", "nomineeFirstName", "nomineeLastName", "nomineeRelationship", "nomineePhone");
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private final OnboardingBatchRepository onboardingBatchRepository;
+    private final BranchRepository branchRepository;
+    private final BranchAuthorizationService branchAuthorizationService;
+    private final BusinessIdAllocator businessIdAllocator;
+    private final LedgerService ledgerService;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${bank.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    /**
+     * Import customers and accounts from a CSV stream with a header row.
+     *
+     * @return counts plus the first bank.import.max-reported-errors row errors
+     */
+    public OnboardingImportReportDTO importCsv(InputStream csv, String jwtToken) throws IOException {
+        long startedAt = System.nanoTime();
+        CsvReader reader = new CsvReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = readHeader(reader);
+
+        ImportJob job = new ImportJob(jwtToken, columns);
+        log.info("Starting onboarding import: {} existing usernames, {} existing emails, {} branches",
+                job.usernames.size(), job.emails.size(), job.branches.size());
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            chunk.add(new ImportRow(reader.getRecordNumber(), record));
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, job);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, job);
+        }
+
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        meterRegistry.counter("bank.import.rows", "outcome", "imported").increment(job.totalRows - job.failedRows);
+        meterRegistry.counter("bank.import.rows", "outcome", "failed").increment(job.failedRows);
+        log.info("Onboarding import finished: {} rows, {} customers and {} accounts created, {} rows failed in {} ms",
+                job.totalRows, job.customersCreated, job.accountsCreated, job.failedRows, elapsedMillis);
+
+        return new OnboardingImportReportDTO(job.totalRows, job.customersCreated, job.accountsCreated,
+                job.failedRows, job.errors, job.failedRows > job.errors.size(), elapsedMillis);
+    }
+
+    private Map<String, Integer> readHeader(CsvReader reader) throws IOException {
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            throw new InvalidTransactionException("Import file is empty");
+        }
+        // Spreadsheet exports often start with a byte order mark
+        header.set(0, header.get(0).replace("\uFEFF", ""));
+
+        Map<String, String> known = new HashMap<>();
+        for (String column : CUSTOMER_COLUMNS) {
+            known.put(column.toLowerCase(Locale.ROOT), column);
+        }
+        for (String column : ACCOUNT_COLUMNS) {
+            known.put(column.toLowerCase(Locale.ROOT), column);
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = known.get(header.get(i).trim().toLowerCase(Locale.ROOT));
+            if (column == null) {
+                throw new InvalidTransactionException("Unknown import column: " + header.get(i));
+            }
+            columns.put(column, i);
+        }
+        if (!columns.containsKey("email")) {
+            throw new InvalidTransactionException("Import header must contain an email column");
+        }
+        return columns;
+    }
+
+    /**
+     * Validate a chunk against the in-memory sets, then write the valid rows in one transaction.
+     */
+    private void processChunk(List<ImportRow> rows, ImportJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ImportRow> accepted = new ArrayList<>(rows.size());
+        List<Customer> customers = new ArrayList<>();
+        List<Account> accounts = new ArrayList<>();
+        List<String> claimedUsernames = new ArrayList<>();
+        List<String> claimedEmails = new ArrayList<>();
+
+        for (ImportRow row : rows) {
+            job.totalRows++;
+            try {
+                String email = row.value(job.columns, "email");
+                String emailKey = email != null ? email.toLowerCase(Locale.ROOT) : null;
+                Customer customer = emailKey != null ? job.importedCustomers.get(emailKey) : null;
+
+                if (customer == null) {
+                    customer = newCustomer(row, job, now);
+                    // Validate the whole row before claiming the customer, so a bad account leaves no orphan
+                    Account account = row.value(job.columns, "accountType") != null
+                            ? newAccount(row, job, customer, now) : null;
+                    job.usernames.add(customer.getUser().getUsername());
+                    job.emails.add(emailKey);
+                    job.importedCustomers.put(emailKey, customer);
+                    claimedUsernames.add(customer.getUser().getUsername());
+                    claimedEmails.add(emailKey);
+                    customers.add(customer);
+                    if (account != null) {
+                        accounts.add(account);
+                    }
+                } else {
+                    if (row.value(job.columns, "accountType") == null) {
+                        throw new InvalidTransactionException("Customer " + email + " already imported from an earlier row");
+                    }
+                    accounts.add(newAccount(row, job, customer, now));
+                }
+                accepted.add(row);
+            } catch (InvalidTransactionException e) {
+                job.fail(row.rowNumber, e.getMessage());
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            assignIds(customers, accounts);
+            transactionTemplate.executeWithoutResult(status -> {
+                onboardingBatchRepository.insertUsers(customers.stream().map(Customer::getUser).collect(Collectors.toList()));
+                onboardingBatchRepository.insertCustomers(customers);
+                onboardingBatchRepository.insertAccounts(accounts);
+                ledgerService.recordOpeningBalances(accounts);
+            });
+            job.customersCreated += customers.size();
+            job.accountsCreated += accounts.size();
+
+            // Later rows only need the customer's ids; drop the rest of the row data
+            for (Customer customer : customers) {
+                Customer imported = new Customer();
+                imported.setId(customer.getId());
+                imported.setCustomerId(customer.getCustomerId());
+                job.importedCustomers.put(customer.getEmail().toLowerCase(Locale.ROOT), imported);
+            }
+        } catch (RuntimeException e) {
+            log.error("Onboarding import chunk of rows {}-{} failed", rows.get(0).rowNumber,
+                    rows.get(rows.size() - 1).rowNumber, e);
+            job.usernames.removeAll(claimedUsernames);
+            job.emails.removeAll(claimedEmails);
+            claimedEmails.forEach(job.importedCustomers::remove);
+            for (ImportRow row : accepted) {
+                job.fail(row.rowNumber, "Chunk could not be written: "
+                        + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+    }
+
+    private Customer newCustomer(ImportRow row, ImportJob job, LocalDateTime now) {
+        CustomerCreateRequestDTO request = new CustomerCreateRequestDTO();
+        request.setUsername(row.value(job.columns, "username"));
+        request.setEmail(row.value(job.columns, "email"));
+        request.setFirstName(row.value(job.columns, "firstName"));
+        request.setLastName(row.value(job.columns, "lastName"));
+        request.setPhone(row.value(job.columns, "phone"));
+        request.setDateOfBirth(parseDate(row.value(job.columns, "dateOfBirth")));
+        request.setAddress(row.value(job.columns, "address"));
+        request.setCity(row.value(job.columns, "city"));
+        request.setState(row.value(job.columns, "state"));
+        request.setZipCode(row.value(job.columns, "zipCode"));
+        validate(request, "password");
+
+        if (job.usernames.contains(request.getUsername())) {
+            throw new InvalidTransactionException("Username already exists: " + request.getUsername());
+        }
+        if (job.emails.contains(request.getEmail().toLowerCase(Locale.ROOT))) {
+            throw new InvalidTransactionException("Email already exists: " + request.getEmail());
+        }
+
+        String passwordHash = row.value(job.columns, "passwordHash");
+        if (passwordHash != null && !BCRYPT_HASH.matcher(passwordHash).matches()) {
+            throw new InvalidTransactionException("passwordHash must be a BCrypt hash");
+        }
+
+        User user = new User();
+        user.setUsername(request.getUsername());
+        user.setPassword(passwordHash != null ? passwordHash : job.unusablePassword());
+        user.setEmail(request.getEmail());
+        user.setRole(User.Role.CUSTOMER);
+        user.setIsActive(true);
+        user.setCreatedDate(now);
+
+        Customer customer = new Customer();
+        customer.setUser(user);
+        customer.setFirstName(request.getFirstName());
+        customer.setLastName(request.getLastName());
+        customer.setEmail(request.getEmail());
+        customer.setPhone(request.getPhone());
+        customer.setDateOfBirth(request.getDateOfBirth());
+        customer.setAddress(request.getAddress());
+        customer.setCity(request.getCity());
+        customer.setState(request.getState());
+        customer.setZipCode(request.getZipCode());
+        customer.setStatus(Customer.Status.ACTIVE);
+        customer.setKycStatus(Customer.KycStatus.PENDING);
+        customer.setCreatedDate(now);
+        return customer;
+    }
+
+    private Account newAccount(ImportRow row, ImportJob job, Customer customer, LocalDateTime now) {
+        AccountCreateRequestDTO request = new AccountCreateRequestDTO();
+        request.setAccountType(row.value(job.columns, "accountType"));
+        request.setBranchCode(row.value(job.columns, "branchCode"));
+        request.setBalance(parseAmount(row.value(job.columns, "balance"), "balance", null));
+        request.setCurrency(row.value(job.columns, "currency") != null ? row.value(job.columns, "currency") : "USD");
+        request.setInterestRate(parseAmount(row.value(job.columns, "interestRate"), "interestRate", BigDecimal.ZERO));
+        request.setNomineeFirstName(row.value(job.columns, "nomineeFirstName"));
+        request.setNomineeLastName(row.value(job.columns, "nomineeLastName"));
+        request.setNomineeRelationship(row.value(job.columns, "nomineeRelationship"));
+        request.setNomineePhone(row.value(job.columns, "nomineePhone"));
+        validate(request, "customerId");
+
+        Branch branch = job.branches.get(request.getBranchCode());
+        if (branch == null) {
+            throw new InvalidTransactionException("Branch not found: " + request.getBranchCode());
+        }
+        if (branch.getStatus() != Branch.BranchStatus.ACTIVE) {
+            throw new InvalidTransactionException("Cannot create account for inactive branch");
+        }
+        if (!job.branchAccess.computeIfAbsent(branch.getId(),
+                id -> branchAuthorizationService.canAccessBranch(job.jwtToken, id))) {
+            throw new InvalidTransactionException("Access denied to branch " + request.getBranchCode());
+        }
+
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setAccountType(request.getAccountType());
+        account.setBranch(branch);
+        account.setBalance(request.getBalance());
+        account.setCurrency(request.getCurrency());
+        account.setInterestRate(request.getInterestRate());
+        account.setNomineeFirstName(request.getNomineeFirstName());
+        account.setNomineeLastName(request.getNomineeLastName());
+        account.setNomineeRelationship(request.getNomineeRelationship());
+        account.setNomineePhone(request.getNomineePhone());
+        account.setStatus(Account.Status.ACTIVE);
+        account.setKycStatus(Account.KycStatus.PENDING);
+        account.setCreatedDate(now);
+        return account;
+    }
+
+    /**
+     * Reserve database ids and business identifiers for a chunk; nothing is written yet.
+     */
+    private void assignIds(List<Customer> customers, List<Account> accounts) {
+        List<Long> userIds = onboardingBatchRepository.reserveIds("users", customers.size());
+        List<Long> customerIds = onboardingBatchRepository.reserveIds("customers", customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            customer.getUser().setId(userIds.get(i));
+            customer.setId(customerIds.get(i));
+            customer.setCustomerId(businessIdAllocator.nextCustomerId());
+        }
+
+        List<Long> accountIds = onboardingBatchRepository.reserveIds("accounts", accounts.size());
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            account.setId(accountIds.get(i));
+            account.setAccountNumber(businessIdAllocator.nextAccountNumber());
+            account.setCustomerId(account.getCustomer().getCustomerId());
+        }
+    }
+
+    private void validate(Object request, String ignoredProperty) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        String message = violations.stream()
+                .filter(v -> !ignoredProperty.equals(v.getPropertyPath().toString()))
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (!message.isEmpty()) {
+            throw new InvalidTransactionException(message);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return value != null ? LocalDate.parse(value) : null;
+        } catch (DateTimeParseException e) {
+            throw new InvalidTransactionException("dateOfBirth: expected yyyy-MM-dd, got " + value);
+        }
+    }
+
+    private static BigDecimal parseAmount(String value, String column, BigDecimal defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidTransactionException(column + ": not a number: " + value);
+        }
+    }
+
+    /**
+     * State shared by all chunks of one import.
+     */
+    private final class ImportJob {
+        private final String jwtToken;
+        private final Map<String, Integer> columns;
+        private final Set<String> usernames;
+        private final Set<String> emails;
+        private final Map<String, Branch> branches = new HashMap<>();
+        private final Map<Long, Boolean> branchAccess = new HashMap<>();
+        private final Map<String, Customer> importedCustomers = new HashMap<>();
+        private final List<OnboardingImportErrorDTO> errors = new ArrayList<>();
+        private String unusablePassword;
+        private long totalRows;
+        private long customersCreated;
+        private long accountsCreated;
+        private long failedRows;
+
+        ImportJob(String jwtToken, Map<String, Integer> columns) {
+            this.jwtToken = jwtToken;
+            this.columns = columns;
+            this.usernames = onboardingBatchRepository.findAllUsernames();
+            this.emails = onboardingBatchRepository.findAllEmails();
+            for (Branch branch : branchRepository.findAll()) {
+                branches.put(branch.getBranchCode(), branch);
+            }
+        }
+
+        /**
+         * One BCrypt hash of a random secret per import; hashing per row would dominate the import
+         */
+        String unusablePassword() {
+            if (unusablePassword == null) {
+                unusablePassword = passwordEncoder.encode(UUID.randomUUID().toString());
+            }
+            return unusablePassword;
+        }
+
+        void fail(long rowNumber, String message) {
+            failedRows++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new OnboardingImportErrorDTO(rowNumber, message));
+            }
+        }
+    }
+
+    private static final class ImportRow {
+        private final long rowNumber;
+        private final List<String> values;
+
+        ImportRow(long rowNumber, List<String> values) {
+            this.rowNumber = rowNumber;
+            this.values = values;
+        }
+
+        /**
+         * Trimmed value of a column, or null when the column is absent or blank
+         */
+        String value(Map<String, Integer> columns, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields may contain commas, doubled quotes and line breaks.
+     */
+    static final class CsvReader {
+        private final Reader in;
+        private long recordNumber;
+        private int pushedBack = -2;
+
+        CsvReader(Reader in) {
+            this.in = new BufferedReader(in, 64 * 1024);
+        }
+
+        long getRecordNumber() {
+            return recordNumber;
+        }
+
+        /**
+         * @return the next non-empty record, or null at the end of the input
+         */
+        List<String> readRecord() throws IOException {
+            while (true) {
+                int c = read();
+                if (c == -1) {
+                    return null;
+                }
+                if (c == '\r' || c == '\n') {
+                    if (c == '\r') {
+                        skipLineFeed();
+                    }
+                    recordNumber++;
+                    continue;
+                }
+                unread(c);
+                recordNumber++;
+                return readFields();
+            }
+        }
+
+        private List<String> readFields() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            while (true) {
+                int c = read();
+                if (quoted) {
+                    if (c == -1) {
+                        throw new InvalidTransactionException("Unterminated quoted field in row " + recordNumber);
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            unread(next);
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        skipLineFeed();
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+        }
+
+        private void skipLineFeed() throws IOException {
+            int next = read();
+            if (next != '\n') {
+                unread(next);
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        private void unread(int c) {
+            pushedBack = c;
+        }
+    }
+}
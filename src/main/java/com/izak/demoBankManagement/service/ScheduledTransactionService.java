@@ -0,0 +1,283 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.TransactionResponseDTO;
+import com.izak.demoBankManagement.entity.Transaction;
+import com.izak.demoBankManagement.repository.TransactionBatchRepository;
+import com.izak.demoBankManagement.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution engine for scheduled transfers and standing orders.
+ *
+ * Each batch is claimed from the due queues with {@code FOR UPDATE SKIP LOCKED}, so several nodes
+ * can work through the same queue without blocking on each other. Claiming turns due items into
+ * ordinary PENDING transfers: a one-off transfer leaves the scheduled queue, a standing order
+ * materialises one occurrence and rolls {@code nextRecurringDate} forward. The claimed postings are
+ * then applied through the queued-transfer path, grouped by source account so one account is only
+ * ever debited by one worker. A batch is fully applied before the next one is claimed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduledTransactionService {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final TransactionService transactionService;
+    private final IdGeneratorService idGeneratorService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bank.scheduled.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${bank.scheduled.workers:8}")
+    private int workerCount;
+
+    @Value("${bank.scheduled.max-run-minutes:240}")
+    private long maxRunMinutes;
+
+    private ExecutorService workers;
+
+    private final AtomicLong lastRunThroughput = new AtomicLong();
+
+    @PostConstruct
+    void startWorkers() {
+        meterRegistry.gauge("bank.scheduled.last.run.throughput", lastRunThroughput);
+
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-txn-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        workers.shutdown();
+    }
+
+    /**
+     * Execute everything that is due, batch by batch, until the queues are empty or the run
+     * exceeds bank.scheduled.max-run-minutes.
+     */
+    public RunSummary runDueTransactions() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long startedAt = System.nanoTime();
+        LocalDateTime deadline = LocalDateTime.now().plusMinutes(maxRunMinutes);
+        RunSummary summary = new RunSummary();
+
+        while (LocalDateTime.now().isBefore(deadline)) {
+            List<Claimed> claimed = transactionTemplate.execute(status -> claimBatch(LocalDateTime.now()));
+            if (claimed == null || claimed.isEmpty()) {
+                break;
+            }
+            summary.batches++;
+            applyBatch(claimed, summary);
+        }
+
+        sample.stop(meterRegistry.timer("bank.scheduled.run"));
+        summary.elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        meterRegistry.counter("bank.scheduled.executed", "status", "COMPLETED").increment(summary.completed);
+        meterRegistry.counter("bank.scheduled.executed", "status", "FAILED").increment(summary.failed);
+        meterRegistry.counter("bank.scheduled.executed", "status", "RETRY").increment(summary.retried);
+        lastRunThroughput.set(Math.round(summary.throughput()));
+        return summary;
+    }
+
+    /**
+     * Claim up to one batch of due items and turn them into PENDING transfers.
+     * Runs in one transaction; SKIP LOCKED row locks keep other nodes off these items until commit.
+     */
+    private List<Claimed> claimBatch(LocalDateTime now) {
+        List<Claimed> claimed = new ArrayList<>();
+
+        for (Transaction scheduled : transactionRepository.claimDueScheduled(
+                Transaction.Status.PENDING, now, PageRequest.of(0, batchSize))) {
+            // Leaves the scheduled queue; if this node dies before applying it, the async sweep picks it up
+            scheduled.setIsScheduled(false);
+            claimed.add(new Claimed(scheduled.getTransactionId(), scheduled.getFromAccountNumber()));
+        }
+
+        int remaining = batchSize - claimed.size();
+        if (remaining > 0) {
+            List<Transaction> occurrences = new ArrayList<>();
+            for (Transaction standingOrder : transactionRepository.claimDueRecurring(
+                    Transaction.Status.PENDING, now, PageRequest.of(0, remaining))) {
+                Transaction occurrence = materialise(standingOrder, now);
+                occurrences.add(occurrence);
+                standingOrder.setNextRecurringDate(nextOccurrence(standingOrder));
+                claimed.add(new Claimed(occurrence.getTransactionId(), occurrence.getFromAccountNumber()));
+            }
+            transactionBatchRepository.insertAll(occurrences);
+        }
+
+        return claimed;
+    }
+
+    private void applyBatch(List<Claimed> claimed, RunSummary summary) {
+        // One task per source-account group keeps each account on a single writer
+        List<List<String>> groups = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (Claimed item : claimed) {
+            groups.get(Math.floorMod(item.fromAccountNumber.hashCode(), workerCount)).add(item.transactionId);
+        }
+
+        List<Callable<int[]>> tasks = new ArrayList<>();
+        for (List<String> group : groups) {
+            if (!group.isEmpty()) {
+                tasks.add(() -> applyGroup(group));
+            }
+        }
+
+        try {
+            for (Future<int[]> result : workers.invokeAll(tasks)) {
+                int[] counts = result.get();
+                summary.completed += counts[0];
+                summary.failed += counts[1];
+                summary.retried += counts[2];
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while applying scheduled transactions", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scheduled transaction worker failed", e.getCause());
+        }
+    }
+
+    private int[] applyGroup(List<String> transactionIds) {
+        int[] counts = new int[3];
+        for (String transactionId : transactionIds) {
+            try {
+                TransactionResponseDTO outcome = transactionService.applyQueuedTransfer(transactionId);
+                if (outcome != null && Transaction.Status.COMPLETED.name().equals(outcome.getStatus())) {
+                    counts[0]++;
+                } else if (outcome != null) {
+                    counts[1]++;
+                }
+            } catch (RuntimeException e) {
+                // Still PENDING; the async sweep retries it
+                counts[2]++;
+                log.warn("Scheduled transfer {} could not be applied and will be retried: {}", transactionId, e.getMessage());
+            }
+        }
+        return counts;
+    }
+
+    private Transaction materialise(Transaction standingOrder, LocalDateTime now) {
+        Transaction occurrence = new Transaction();
+        occurrence.setTransactionId(idGeneratorService.nextTransactionId());
+        occurrence.setReferenceNumber(idGeneratorService.nextReferenceNumber());
+        occurrence.setReceiptNumber(idGeneratorService.nextReceiptNumber());
+        occurrence.setFromAccount(standingOrder.getFromAccount());
+        occurrence.setFromAccountNumber(standingOrder.getFromAccountNumber());
+        occurrence.setToAccount(standingOrder.getToAccount());
+        occurrence.setToAccountNumber(standingOrder.getToAccountNumber());
+        occurrence.setAmount(standingOrder.getAmount());
+        occurrence.setCurrency(standingOrder.getCurrency());
+        occurrence.setTransferFee(standingOrder.getTransferFee());
+        occurrence.setServiceTax(standingOrder.getServiceTax());
+        occurrence.setTotalAmount(standingOrder.getTotalAmount());
+        occurrence.setTransferMode(standingOrder.getTransferMode());
+        occurrence.setTransactionType(Transaction.TransactionType.TRANSFER);
+        occurrence.setTransferType(standingOrder.getTransferType());
+        occurrence.setStatus(Transaction.Status.PENDING);
+        occurrence.setDescription(standingOrder.getDescription());
+        occurrence.setRemarks("Standing order " + standingOrder.getTransactionId());
+        occurrence.setBeneficiaryName(standingOrder.getBeneficiaryName());
+        occurrence.setBeneficiaryBank(standingOrder.getBeneficiaryBank());
+        occurrence.setTimestamp(now);
+        occurrence.setFraudCheckPassed(standingOrder.getFraudCheckPassed());
+        occurrence.setRequiresApproval(standingOrder.getRequiresApproval());
+        occurrence.setVerified(standingOrder.getVerified());
+        return occurrence;
+    }
+
+    /**
+     * Next due date of a standing order. Monthly and yearly orders are anchored on the first
+     * scheduled date, so an order starting on the 31st returns to the 31st after a short month.
+     */
+    static LocalDateTime nextOccurrence(Transaction standingOrder) {
+        LocalDateTime current = standingOrder.getNextRecurringDate();
+        LocalDateTime anchor = standingOrder.getScheduledAt() != null ? standingOrder.getScheduledAt() : current;
+
+        switch (standingOrder.getRecurringFrequency()) {
+            case DAILY:
+                return current.plusDays(1);
+            case WEEKLY:
+                return current.plusWeeks(1);
+            case MONTHLY: {
+                long months = Math.max(1, ChronoUnit.MONTHS.between(anchor, current));
+                while (!anchor.plusMonths(months).isAfter(current)) {
+                    months++;
+                }
+                return anchor.plusMonths(months);
+            }
+            case YEARLY: {
+                long years = Math.max(1, ChronoUnit.YEARS.between(anchor, current));
+                while (!anchor.plusYears(years).isAfter(current)) {
+                    years++;
+                }
+                return anchor.plusYears(years);
+            }
+            default:
+                throw new IllegalStateException("Unknown recurring frequency " + standingOrder.getRecurringFrequency());
+        }
+    }
+
+    private static class Claimed {
+        private final String transactionId;
+        private final String fromAccountNumber;
+
+        Claimed(String transactionId, String fromAccountNumber) {
+            this.transactionId = transactionId;
+            this.fromAccountNumber = fromAccountNumber;
+        }
+    }
+
+    public static class RunSummary {
+        private int batches;
+        private int completed;
+        private int failed;
+        private int retried;
+        private long elapsedMillis;
+
+        public boolean hasWork() {
+            return batches > 0;
+        }
+
+        public double throughput() {
+            return elapsedMillis > 0 ? (completed + failed) * 1000.0 / elapsedMillis : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d batches, %d completed, %d failed, %d left for retry in %d ms (%.0f tx/s)",
+                    batches, completed, failed, retried, elapsedMillis, throughput());
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.izak.demoBankManagement.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.izak.demoBankManagement.dto.AccountStatementRequestDTO;
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.entity.Transaction;
+import com.izak.demoBankManagement.exception.AccountNotFoundException;
+import com.izak.demoBankManagement.exception.InvalidTransactionException;
+import com.izak.demoBankManagement.exception.UnauthorizedAccessException;
+import com.izak.demoBankManagement.repository.AccountRepository;
+import com.izak.demoBankManagement.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streaming account statement export (CSV or NDJSON).
+ *
+ * The statement range is read through two forward-only cursors, one for debits and one for
+ * credits, each walking its (account, timestamp, id) index in order. The two cursors are merged
+ * row by row and written straight to the response stream, with the running balance and totals
+ * computed on the fly. Rows are read-only tuples rather than entities, so heap use does not grow
+ * with the length of the statement. The opening balance comes from the daily balance checkpoints;
+ * the export runs in one REPEATABLE READ read-only transaction, so it and the rows come from the
+ * same snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementExportService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BranchAuthorizationService branchAuthorizationService;
+    private final LedgerService ledgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private TransactionTemplate snapshotTemplate;
+
+    @PostConstruct
+    void init() {
+        snapshotTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshotTemplate.setReadOnly(true);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidTransactionException("Unsupported statement format: " + value + " (use csv or ndjson)");
+            }
+        }
+    }
+
+    /**
+     * Check access and return a body that streams the statement when the response is written.
+     */
+    public StreamingResponseBody export(AccountStatementRequestDTO request, Format format, String jwtToken) {
+        if (request.getStartDate().isAfter(request.getEndDate())) {
+            throw new InvalidTransactionException("Statement start date must not be after the end date");
+        }
+
+        Account account = accountRepository.findByAccountNumber(request.getAccountNumber())
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + request.getAccountNumber()));
+
+        if (!branchAuthorizationService.canAccessAccount(jwtToken, account)) {
+            log.warn("Unauthorized statement export attempt for account {}", request.getAccountNumber());
+            throw new UnauthorizedAccessException("Access denied: insufficient permissions for this account");
+        }
+
+        log.info("Exporting {} statement for account {} from {} to {}",
+                format, account.getAccountNumber(), request.getStartDate(), request.getEndDate());
+
+        return out -> snapshotTemplate.executeWithoutResult(status -> {
+            try {
+                write(account, request.getStartDate(), request.getEndDate(), format, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void write(Account account, LocalDateTime startDate, LocalDateTime endDate, Format format,
+                       OutputStream out) throws IOException {
+        BigDecimal balance = ledgerService.balanceBefore(account, startDate);
+
+        StatementWriter writer = format == Format.CSV ? new CsvWriter(out) : new NdjsonWriter(objectMapper, out);
+        writer.opening(account.getAccountNumber(), startDate, endDate, balance);
+
+        BigDecimal totalCredits = BigDecimal.ZERO;
+        BigDecimal totalDebits = BigDecimal.ZERO;
+        long count = 0;
+
+        try (Stream<Object[]> debitStream = transactionRepository.streamDebitsForStatement(account.getId(), startDate, endDate);
+             Stream<Object[]> creditStream = transactionRepository.streamCreditsForStatement(account.getId(), startDate, endDate)) {
+            Iterator<Object[]> debits = debitStream.iterator();
+            Iterator<Object[]> credits = creditStream.iterator();
+            Object[] debit = debits.hasNext() ? debits.next() : null;
+            Object[] credit = credits.hasNext() ? credits.next() : null;
+
+            while (debit != null || credit != null) {
+                boolean isDebit = credit == null || (debit != null && compareRows(debit, credit) <= 0);
+                Object[] row = isDebit ? debit : credit;
+
+                BigDecimal amount = (BigDecimal) (isDebit ? row[6] : row[5]);
+                if (row[8] == Transaction.Status.COMPLETED) {
+                    if (isDebit) {
+                        balance = balance.subtract(amount);
+                        totalDebits = totalDebits.add(amount);
+                    } else {
+                        balance = balance.add(amount);
+                        totalCredits = totalCredits.add(amount);
+                    }
+                }
+                writer.row(row, isDebit ? "DEBIT" : "CREDIT", amount, balance);
+                count++;
+
+                if (isDebit) {
+                    debit = debits.hasNext() ? debits.next() : null;
+                } else {
+                    credit = credits.hasNext() ? credits.next() : null;
+                }
+            }
+        }
+
+        writer.closing(balance, totalCredits, totalDebits, count);
+        log.info("Exported {} statement rows for account {}", count, account.getAccountNumber());
+    }
+
+    /**
+     * Orders rows by (timestamp, id)
+     */
+    private static int compareRows(Object[] a, Object[] b) {
+        int byTime = ((LocalDateTime) a[1]).compareTo((LocalDateTime) b[1]);
+        return byTime != 0 ? byTime : ((Long) a[0]).compareTo((Long) b[0]);
+    }
+
+    /**
+     * Row layout: id, timestamp, transactionId, referenceNumber, otherAccountNumber, amount,
+     * totalAmount, transferMode, status, description.
+     */
+    private interface StatementWriter {
+        void opening(String accountNumber, LocalDateTime startDate, LocalDateTime endDate, BigDecimal balance) throws IOException;
+
+        void row(Object[] row, String direction, BigDecimal amount, BigDecimal balance) throws IOException;
+
+        void closing(BigDecimal balance, BigDecimal totalCredits, BigDecimal totalDebits, long count) throws IOException;
+    }
+
+    private static final class CsvWriter implements StatementWriter {
+        private final Writer out;
+
+        CsvWriter(OutputStream stream) {
+            this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void opening(String accountNumber, LocalDateTime startDate, LocalDateTime endDate, BigDecimal balance)
+                throws IOException {
+            out.write("timestamp,transaction_id,reference_number,type,counterparty,transfer_mode,status,description,amount,balance\n");
+            line(startDate.toString(), null, null, "OPENING", accountNumber, null, null, null, null, balance.toPlainString());
+        }
+
+        @Override
+        public void row(Object[] row, String direction, BigDecimal amount, BigDecimal balance) throws IOException {
+            line(row[1].toString(), (String) row[2], (String) row[3], direction, (String) row[4],
+                    row[7] != null ? row[7].toString() : null, row[8].toString(), (String) row[9],
+                    amount.toPlainString(), balance.toPlainString());
+        }
+
+        @Override
+        public void closing(BigDecimal balance, BigDecimal totalCredits, BigDecimal totalDebits, long count)
+                throws IOException {
+            line(null, null, null, "TOTAL_CREDITS", null, null, null, null, totalCredits.toPlainString(), null);
+            line(null, null, null, "TOTAL_DEBITS", null, null, null, null, totalDebits.toPlainString(), null);
+            line(null, null, null, "CLOSING", null, null, null, count + " transactions", null, balance.toPlainString());
+            out.flush();
+        }
+
+        private void line(String... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i]);
+                }
+            }
+            out.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    private static final class NdjsonWriter implements StatementWriter {
+        private final JsonGenerator json;
+
+        NdjsonWriter(ObjectMapper objectMapper, OutputStream stream) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(stream);
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void opening(String accountNumber, LocalDateTime startDate, LocalDateTime endDate, BigDecimal balance)
+                throws IOException {
+            json.writeStartObject();
+            json.writeStringField("type", "opening");
+            json.writeStringField("accountNumber", accountNumber);
+            json.writeStringField("startDate", startDate.toString());
+            json.writeStringField("endDate", endDate.toString());
+            json.writeNumberField("balance", balance);
+            end();
+        }
+
+        @Override
+        public void row(Object[] row, String direction, BigDecimal amount, BigDecimal balance) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("type", "transaction");
+            json.writeStringField("timestamp", row[1].toString());
+            json.writeStringField("transactionId", (String) row[2]);
+            json.writeStringField("referenceNumber", (String) row[3]);
+            json.writeStringField("direction", direction);
+            json.writeStringField("counterparty", (String) row[4]);
+            json.writeStringField("transferMode", row[7] != null ? row[7].toString() : null);
+            json.writeStringField("status", row[8].toString());
+            json.writeStringField("description", (String) row[9]);
+            json.writeNumberField("amount", amount);
+            json.writeNumberField("balance", balance);
+            end();
+        }
+
+        @Override
+        public void closing(BigDecimal balance, BigDecimal totalCredits, BigDecimal totalDebits, long count)
+                throws IOException {
+            json.writeStartObject();
+            json.writeStringField("type", "summary");
+            json.writeNumberField("closingBalance", balance);
+            json.writeNumberField("totalCredits", totalCredits);
+            json.writeNumberField("totalDebits", totalDebits);
+            json.writeNumberField("transactionCount", count);
+            end();
+            json.flush();
+        }
+
+        private void end() throws IOException {
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.entity.AccountBalanceStripe;
+import com.izak.demoBankManagement.exception.AccountNotFoundException;
+import com.izak.demoBankManagement.exception.InvalidTransactionException;
+import com.izak.demoBankManagement.repository.AccountBalanceStripeRepository;
+import com.izak.demoBankManagement.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hot account mode: striped sub-balances for accounts that receive many concurrent credits
+ * (merchant and settlement accounts).
+ *
+ * Credits to a hot account update one of N {@link AccountBalanceStripe} rows chosen by hash instead
+ * of locking the account row, so they run in parallel. The account's balance is
+ * {@code Account.balance + sum(stripes)}. Debits lock the account row and fold the stripes in first;
+ * a background job folds stripes periodically so reads of {@code Account.balance} stay close.
+ *
+ * Lock order: account rows are always locked before stripe rows, and a credit takes a single stripe lock
+ * as its last lock. That alone does not prevent cycles: a transfer from hot account A to hot account B
+ * holds A's stripes (folded before the debit) while crediting a stripe of B, and a transfer from B to A
+ * the reverse. Credits therefore never wait for a stripe: they skip locked stripes, and when every
+ * stripe is locked by a fold they fail with {@link ConcurrencyFailureException} and the posting is
+ * retried by {@link AccountLockService#executeWithRetry}, which also retries any deadlock the database
+ * reports.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StripedBalanceService {
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceStripeRepository stripeRepository;
+    private final AccountLockService accountLockService;
+    private final BalanceCacheService balanceCacheService;
+
+    @Value("${bank.hot-accounts.max-stripes:64}")
+    private int maxStripes;
+
+    /** Hot accounts by account number, refreshed by the fold job and on mode changes. */
+    private volatile Map<String, HotAccount> hotAccounts = new HashMap<>();
+
+    public boolean isHot(String accountNumber) {
+        return hotAccounts.containsKey(accountNumber);
+    }
+
+    /**
+     * Credit a hot account on the stripe selected by {@code hashKey}.
+     * Must run inside a posting transaction started by {@link AccountLockService#executeWithRetry}.
+     *
+     * Another unlocked stripe is used when that one is locked.
+     *
+     * @throws ConcurrencyFailureException when hot mode was switched off meanwhile, or every stripe is
+     *                                     locked by a fold; the posting is retried
+     */
+    public void creditStripe(Account account, BigDecimal amount, String hashKey) {
+        HotAccount hot = hotAccounts.get(account.getAccountNumber());
+        int updated = hot == null ? 0 : stripeRepository.addToStripe(hot.accountId, stripeFor(hashKey, hot.stripes), amount);
+
+        if (updated == 0) {
+            refreshHotAccounts();
+            throw new ConcurrencyFailureException("No stripe available for hot account " + account.getAccountNumber());
+        }
+    }
+
+    /**
+     * Fold every stripe of an account into {@code Account.balance}.
+     * The caller must hold the account row lock; no-op for accounts not in hot mode.
+     */
+    public void consolidate(Account lockedAccount) {
+        if (lockedAccount.getBalanceStripes() == null || lockedAccount.getBalanceStripes() <= 0) {
+            return;
+        }
+
+        BigDecimal folded = BigDecimal.ZERO;
+        for (AccountBalanceStripe stripe : stripeRepository.findByAccountIdWithLock(lockedAccount.getId())) {
+            if (stripe.getBalance().signum() != 0) {
+                folded = folded.add(stripe.getBalance());
+                stripe.setBalance(BigDecimal.ZERO);
+            }
+        }
+
+        if (folded.signum() != 0) {
+            lockedAccount.setBalance(lockedAccount.getBalance().add(folded));
+            log.debug("Folded {} from stripes into account {}", folded, lockedAccount.getAccountNumber());
+        }
+    }
+
+    /**
+     * Credits sitting on stripes that are not yet part of {@code Account.balance}.
+     */
+    public BigDecimal pendingCredits(Account account) {
+        if (account.getBalanceStripes() == null || account.getBalanceStripes() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return stripeRepository.sumByAccountId(account.getId());
+    }
+
+    /**
+     * Switch an account into hot mode with the given number of stripes, or out of it when
+     * {@code stripes} is 0. Existing stripes are folded into the balance first.
+     */
+    public void setStripeCount(String accountNumber, int stripes) {
+        if (stripes < 0 || stripes > maxStripes) {
+            throw new InvalidTransactionException("Stripe count must be between 0 and " + maxStripes);
+        }
+
+        accountLockService.executeWithRetry("hot-mode", () -> {
+            Account account = accountLockService.lockInOrder(accountNumber).get(accountNumber);
+            if (account == null) {
+                throw new AccountNotFoundException("Account not found: " + accountNumber);
+            }
+
+            consolidate(account);
+            stripeRepository.deleteByAccountId(account.getId());
+
+            for (int i = 0; i < stripes; i++) {
+                AccountBalanceStripe stripe = new AccountBalanceStripe();
+                stripe.setAccount(account);
+                stripe.setStripeIndex(i);
+                stripe.setBalance(BigDecimal.ZERO);
+                stripeRepository.save(stripe);
+            }
+
+            account.setBalanceStripes(stripes > 0 ? stripes : null);
+            Account saved = accountRepository.save(account);
+            balanceCacheService.updateOnCommit(saved);
+            return saved;
+        });
+
+        refreshHotAccounts();
+        log.info("Account {} hot mode {} ({} stripes)", accountNumber, stripes > 0 ? "enabled" : "disabled", stripes);
+    }
+
+    /**
+     * Fold stripes of all hot accounts into their balances
+     * Runs every bank.hot-accounts.fold-interval-ms (default 5 seconds)
+     */
+    @Scheduled(fixedDelayString = "${bank.hot-accounts.fold-interval-ms:5000}")
+    public void foldStripes() {
+        refreshHotAccounts();
+
+        for (String accountNumber : hotAccounts.keySet()) {
+            try {
+                accountLockService.executeWithRetry("fold", () -> {
+                    Account account = accountLockService.lockInOrder(accountNumber).get(accountNumber);
+                    if (account != null) {
+                        consolidate(account);
+                        accountRepository.save(account);
+                    }
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.warn("Could not fold balance stripes for account {}: {}", accountNumber, e.getMessage());
+            }
+        }
+    }
+
+    private void refreshHotAccounts() {
+        Map<String, HotAccount> refreshed = new HashMap<>();
+        for (Object[] row : accountRepository.findHotAccounts()) {
+            refreshed.put((String) row[0], new HotAccount((Long) row[1], (Integer) row[2]));
+        }
+        hotAccounts = refreshed;
+    }
+
+    static int stripeFor(String hashKey, int stripes) {
+        int h = hashKey.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, stripes);
+    }
+
+    private static class HotAccount {
+        private final Long accountId;
+        private final int stripes;
+
+        HotAccount(Long accountId, int stripes) {
+            this.accountId = accountId;
+            this.stripes = stripes;
+        }
+    }
+}
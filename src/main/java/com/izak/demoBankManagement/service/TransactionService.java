@@ -5,15 +5,30 @@ import com.izak.demoBankManagement.entity.Account;
 import com.izak.demoBankManagement.entity.Transaction;
 import com.izak.demoBankManagement.exception.*;
 import com.izak.demoBankManagement.repository.AccountRepository;
+import com.izak.demoBankManagement.repository.TransactionBatchRepository;
 import com.izak.demoBankManagement.repository.TransactionRepository;
 import com.izak.demoBankManagement.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,14 +37,27 @@ public class TransactionService {
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final BranchAuthorizationService branchAuthorizationService;
+    private final AccountLockService accountLockService;
+    private final IdGeneratorService idGeneratorService;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final StripedBalanceService stripedBalanceService;
+    private final LedgerService ledgerService;
+    private final FraudScoringService fraudScoringService;
+    private final BalanceCacheService balanceCacheService;
+    private final FxRateService fxRateService;
     private final JwtUtil jwtUtil;
 
+    @Value("${bank.transactions.history.max-page-size:100}")
+    private int maxHistoryPageSize;
+
     private static final BigDecimal NEFT_FEE = new BigDecimal("2.00");
     private static final BigDecimal HIGH_PRIORITY_FEE = new BigDecimal("7.00");
     private static final BigDecimal SERVICE_TAX_RATE = new BigDecimal("0.18");
     private static final BigDecimal HIGH_AMOUNT_THRESHOLD = new BigDecimal("10000.00");
+    // Upper bound of the keyset seek for the first history page
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final int TARGET_LOOKUP_CHUNK = 1000;
 
-    @Transactional
     public TransactionResponseDTO transferFunds(TransferRequestDTO request, String authHeader) {
         log.info("Processing fund transfer from {} to {}", request.getFromAccountNumber(), request.getToAccountNumber());
 
@@ -44,58 +72,100 @@ public class TransactionService {
 
             log.debug("User role: {}, customerId: {}, branchId: {}", role, customerId, branchId);
 
-            // Validate accounts exist and are active
-            Account fromAccount = accountRepository.findByAccountNumberWithLock(request.getFromAccountNumber())
-                    .orElseThrow(() -> new AccountNotFoundException("Source account not found: " + request.getFromAccountNumber()));
+            // Each attempt runs in its own transaction; lock conflicts roll back and retry
+            TransactionResponseDTO response = accountLockService.executeWithRetry("transfer",
+                    () -> executeTransfer(request, role, customerId, branchId));
 
-            Account toAccount = accountRepository.findByAccountNumberWithLock(request.getToAccountNumber())
-                    .orElseThrow(() -> new AccountNotFoundException("Destination account not found: " + request.getToAccountNumber()));
+            log.info("Fund transfer completed successfully. Transaction ID: {}", response.getTransactionId());
+            return response;
 
-            // Branch-aware authorization checks
-            performAuthorizationCheck(role, customerId, branchId, fromAccount);
+        } catch (Exception e) {
+            log.error("Error processing transfer: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
 
-            if (fromAccount.getStatus() != Account.Status.ACTIVE) {
-                throw new AccountInactiveException("Source account is not active");
-            }
+    private TransactionResponseDTO executeTransfer(TransferRequestDTO request, String role,
+                                                   String customerId, Long branchId) {
+        // Credits to a hot account go to a balance stripe, so its row is not locked
+        boolean stripedCredit = stripedBalanceService.isHot(request.getToAccountNumber())
+                && !request.getToAccountNumber().equals(request.getFromAccountNumber());
 
-            if (toAccount.getStatus() != Account.Status.ACTIVE) {
-                throw new AccountInactiveException("Destination account is not active");
-            }
+        // Lock both accounts in a global order so opposing transfers cannot deadlock
+        Map<String, Account> locked = stripedCredit
+                ? accountLockService.lockInOrder(request.getFromAccountNumber())
+                : accountLockService.lockInOrder(request.getFromAccountNumber(), request.getToAccountNumber());
 
-            // Calculate fees and total amount
-            BigDecimal transferFee = calculateTransferFee(request);
-            BigDecimal serviceTax = transferFee.multiply(SERVICE_TAX_RATE).setScale(2, BigDecimal.ROUND_HALF_UP);
-            BigDecimal totalAmount = request.getAmount().add(transferFee).add(serviceTax);
+        Account fromAccount = locked.get(request.getFromAccountNumber());
+        if (fromAccount == null) {
+            throw new AccountNotFoundException("Source account not found: " + request.getFromAccountNumber());
+        }
 
-            // Check sufficient balance
-            if (fromAccount.getBalance().compareTo(totalAmount) < 0) {
-                throw new InsufficientBalanceException("Insufficient balance. Available: " + fromAccount.getBalance() + ", Required: " + totalAmount);
-            }
+        Account toAccount = stripedCredit
+                ? accountRepository.findByAccountNumber(request.getToAccountNumber()).orElse(null)
+                : locked.get(request.getToAccountNumber());
+        if (toAccount == null) {
+            throw new AccountNotFoundException("Destination account not found: " + request.getToAccountNumber());
+        }
 
-            // Perform transfer
-            BigDecimal fromBalanceBefore = fromAccount.getBalance();
-            fromAccount.setBalance(fromAccount.getBalance().subtract(totalAmount));
-            toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
+        // Branch-aware authorization checks
+        performAuthorizationCheck(role, customerId, branchId, fromAccount);
 
-            accountRepository.save(fromAccount);
-            accountRepository.save(toAccount);
+        if (fromAccount.getStatus() != Account.Status.ACTIVE) {
+            throw new AccountInactiveException("Source account is not active");
+        }
 
-            // Create transaction record
-            Transaction transaction = createTransaction(request, fromAccount, toAccount,
-                    transferFee, serviceTax, totalAmount, fromBalanceBefore);
+        if (toAccount.getStatus() != Account.Status.ACTIVE) {
+            throw new AccountInactiveException("Destination account is not active");
+        }
 
-            transactionRepository.save(transaction);
+        // Calculate fees and total amount
+        BigDecimal transferFee = calculateTransferFee(request);
+        BigDecimal serviceTax = transferFee.multiply(SERVICE_TAX_RATE).setScale(2, BigDecimal.ROUND_HALF_UP);
+        BigDecimal totalAmount = request.getAmount().add(transferFee).add(serviceTax);
 
-            log.info("Fund transfer completed successfully. Transaction ID: {}", transaction.getTransactionId());
-            return mapToResponseDTO(transaction);
+        // A hot source account must see the credits sitting on its stripes
+        stripedBalanceService.consolidate(fromAccount);
 
-        } catch (Exception e) {
-            log.error("Error processing transfer: {}", e.getMessage(), e);
-            throw e;
+        // Check sufficient balance
+        if (fromAccount.getBalance().compareTo(totalAmount) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance. Available: " + fromAccount.getBalance() + ", Required: " + totalAmount);
+        }
+
+        FraudScoringService.FraudDecision fraudDecision = fraudScoringService.assess(
+                fromAccount.getAccountNumber(), toAccount.getAccountNumber(), request.getAmount());
+
+        // The destination is credited in its own currency
+        BigDecimal fxRate = fxRateService.rate(fromAccount.getCurrency(), toAccount.getCurrency());
+        BigDecimal creditAmount = FxRateService.convert(request.getAmount(), fxRate);
+
+        // Perform transfer
+        BigDecimal fromBalanceBefore = fromAccount.getBalance();
+        fromAccount.setBalance(fromAccount.getBalance().subtract(totalAmount));
+        accountRepository.save(fromAccount);
+        balanceCacheService.updateOnCommit(fromAccount);
+
+        if (!stripedCredit) {
+            toAccount.setBalance(toAccount.getBalance().add(creditAmount));
+            accountRepository.save(toAccount);
+            balanceCacheService.updateOnCommit(toAccount);
+        }
+
+        // Create transaction record
+        Transaction transaction = createTransaction(request, fromAccount, toAccount,
+                transferFee, serviceTax, totalAmount, fromBalanceBefore, fxRate);
+        fraudScoringService.apply(transaction, fraudDecision, fromAccount.getAccountNumber(), toAccount.getAccountNumber());
+
+        if (stripedCredit) {
+            stripedBalanceService.creditStripe(toAccount, creditAmount, transaction.getTransactionId());
         }
+
+        transactionRepository.save(transaction);
+        ledgerService.record(transaction);
+
+        return mapToResponseDTO(transaction);
     }
 
-    @Transactional
     public TransactionResponseDTO depositMoney(DepositRequestDTO request, String authHeader) {
         log.info("Processing deposit to account {}", request.getAccountNumber());
 
@@ -106,34 +176,119 @@ public class TransactionService {
             String customerId = jwtUtil.extractCustomerId(jwtToken);
             Long branchId = jwtUtil.extractBranchId(jwtToken);
 
-            Account account = accountRepository.findByAccountNumberWithLock(request.getAccountNumber())
-                    .orElseThrow(() -> new AccountNotFoundException("Account not found: " + request.getAccountNumber()));
+            TransactionResponseDTO response = accountLockService.executeWithRetry("deposit",
+                    () -> executeDeposit(request, role, customerId, branchId));
 
-            performAuthorizationCheck(role, customerId, branchId, account);
+            log.info("Deposit completed successfully. Transaction ID: {}", response.getTransactionId());
+            return response;
 
-            if (account.getStatus() != Account.Status.ACTIVE) {
-                throw new AccountInactiveException("Account is not active");
-            }
+        } catch (Exception e) {
+            log.error("Error processing deposit: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private TransactionResponseDTO executeDeposit(DepositRequestDTO request, String role,
+                                                  String customerId, Long branchId) {
+        boolean stripedCredit = stripedBalanceService.isHot(request.getAccountNumber());
+
+        Account account = stripedCredit
+                ? accountRepository.findByAccountNumber(request.getAccountNumber()).orElse(null)
+                : accountLockService.lockInOrder(request.getAccountNumber()).get(request.getAccountNumber());
+        if (account == null) {
+            throw new AccountNotFoundException("Account not found: " + request.getAccountNumber());
+        }
 
+        performAuthorizationCheck(role, customerId, branchId, account);
+
+        if (account.getStatus() != Account.Status.ACTIVE) {
+            throw new AccountInactiveException("Account is not active");
+        }
+
+        Transaction transaction;
+        if (stripedCredit) {
+            transaction = createDepositTransaction(request, account, null);
+            // The account row is not locked, so a striped credit has no exact running balance
+            transaction.setBalanceAfter(null);
+            stripedBalanceService.creditStripe(account, request.getAmount(), transaction.getTransactionId());
+        } else {
             BigDecimal balanceBefore = account.getBalance();
             account.setBalance(account.getBalance().add(request.getAmount()));
             accountRepository.save(account);
+            balanceCacheService.updateOnCommit(account);
+            transaction = createDepositTransaction(request, account, balanceBefore);
+        }
 
-            Transaction transaction = createDepositTransaction(request, account, balanceBefore);
-            transactionRepository.save(transaction);
+        transactionRepository.save(transaction);
+        ledgerService.record(transaction);
+        return mapToResponseDTO(transaction);
+    }
 
-            log.info("Deposit completed successfully. Transaction ID: {}", transaction.getTransactionId());
-            return mapToResponseDTO(transaction);
+    public TransactionResponseDTO withdrawMoney(WithdrawRequestDTO request, String authHeader) {
+        log.info("Processing withdrawal from account {}", request.getAccountNumber());
+
+        String jwtToken = extractToken(authHeader);
+
+        try {
+            String role = jwtUtil.extractRole(jwtToken);
+            String customerId = jwtUtil.extractCustomerId(jwtToken);
+            Long branchId = jwtUtil.extractBranchId(jwtToken);
+
+            TransactionResponseDTO response = accountLockService.executeWithRetry("withdraw",
+                    () -> executeWithdrawal(request, role, customerId, branchId));
+
+            log.info("Withdrawal completed successfully. Transaction ID: {}", response.getTransactionId());
+            return response;
 
         } catch (Exception e) {
-            log.error("Error processing deposit: {}", e.getMessage(), e);
+            log.error("Error processing withdrawal: {}", e.getMessage(), e);
             throw e;
         }
     }
 
-    @Transactional
-    public TransactionResponseDTO withdrawMoney(WithdrawRequestDTO request, String authHeader) {
-        log.info("Processing withdrawal from account {}", request.getAccountNumber());
+    private TransactionResponseDTO executeWithdrawal(WithdrawRequestDTO request, String role,
+                                                     String customerId, Long branchId) {
+        Account account = accountLockService.lockInOrder(request.getAccountNumber()).get(request.getAccountNumber());
+        if (account == null) {
+            throw new AccountNotFoundException("Account not found: " + request.getAccountNumber());
+        }
+
+        performAuthorizationCheck(role, customerId, branchId, account);
+
+        if (account.getStatus() != Account.Status.ACTIVE) {
+            throw new AccountInactiveException("Account is not active");
+        }
+
+        stripedBalanceService.consolidate(account);
+
+        if (account.getBalance().compareTo(request.getAmount()) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance. Available: " + account.getBalance() + ", Requested: " + request.getAmount());
+        }
+
+        FraudScoringService.FraudDecision fraudDecision = fraudScoringService.assess(
+                account.getAccountNumber(), null, request.getAmount());
+
+        BigDecimal balanceBefore = account.getBalance();
+        account.setBalance(account.getBalance().subtract(request.getAmount()));
+        accountRepository.save(account);
+        balanceCacheService.updateOnCommit(account);
+
+        Transaction transaction = createWithdrawalTransaction(request, account, balanceBefore);
+        fraudScoringService.apply(transaction, fraudDecision, account.getAccountNumber(), null);
+        transactionRepository.save(transaction);
+        ledgerService.record(transaction);
+
+        return mapToResponseDTO(transaction);
+    }
+
+    /**
+     * Post many credit legs from one debit account in a single transaction.
+     * Legs are validated up front, the debit account is locked once, credits are applied as
+     * batched balance increments and the transaction rows are written with JDBC batch inserts.
+     * Invalid or unaffordable legs are reported as FAILED without affecting the others.
+     */
+    public BatchTransferResponseDTO batchTransfer(BatchTransferRequestDTO request, String authHeader) {
+        log.info("Processing batch transfer of {} legs from {}", request.getLegs().size(), request.getFromAccountNumber());
 
         String jwtToken = extractToken(authHeader);
 
@@ -142,63 +297,507 @@ public class TransactionService {
             String customerId = jwtUtil.extractCustomerId(jwtToken);
             Long branchId = jwtUtil.extractBranchId(jwtToken);
 
-            Account account = accountRepository.findByAccountNumberWithLock(request.getAccountNumber())
-                    .orElseThrow(() -> new AccountNotFoundException("Account not found: " + request.getAccountNumber()));
+            Transaction.TransferMode transferMode = parseTransferMode(request.getTransferMode());
+
+            // Validate all credit legs before any lock is taken
+            Map<String, Object[]> targets = loadPostingTargets(request.getLegs());
 
-            performAuthorizationCheck(role, customerId, branchId, account);
+            BatchTransferResponseDTO response = accountLockService.executeWithRetry("batch",
+                    () -> executeBatchTransfer(request, transferMode, targets, role, customerId, branchId));
 
-            if (account.getStatus() != Account.Status.ACTIVE) {
-                throw new AccountInactiveException("Account is not active");
+            log.info("Batch transfer {} completed: {} of {} legs posted",
+                    response.getBatchReference(), response.getCompletedLegs(), response.getTotalLegs());
+            return response;
+
+        } catch (Exception e) {
+            log.error("Error processing batch transfer: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private BatchTransferResponseDTO executeBatchTransfer(BatchTransferRequestDTO request,
+                                                          Transaction.TransferMode transferMode,
+                                                          Map<String, Object[]> targets,
+                                                          String role, String customerId, Long branchId) {
+        Account fromAccount = accountLockService.lockInOrder(request.getFromAccountNumber())
+                .get(request.getFromAccountNumber());
+        if (fromAccount == null) {
+            throw new AccountNotFoundException("Source account not found: " + request.getFromAccountNumber());
+        }
+
+        performAuthorizationCheck(role, customerId, branchId, fromAccount);
+
+        if (fromAccount.getStatus() != Account.Status.ACTIVE) {
+            throw new AccountInactiveException("Source account is not active");
+        }
+
+        stripedBalanceService.consolidate(fromAccount);
+
+        BigDecimal transferFee = calculateTransferFee(request.getPriority(), request.getTransferType());
+        BigDecimal serviceTax = transferFee.multiply(SERVICE_TAX_RATE).setScale(2, RoundingMode.HALF_UP);
+        Transaction.TransferType transferType = determineTransferType(request.getTransferType());
+        LocalDateTime now = LocalDateTime.now();
+
+        BigDecimal balanceBefore = fromAccount.getBalance();
+        BigDecimal balance = balanceBefore;
+        BigDecimal totalDebited = BigDecimal.ZERO;
+
+        List<Transaction> postings = new ArrayList<>();
+        List<FraudScoringService.FraudDecision> fraudDecisions = new ArrayList<>();
+        FraudScoringService.BatchAssessment fraudAssessment = fraudScoringService.startBatch(fromAccount.getAccountNumber());
+        Map<Long, BigDecimal> credits = new TreeMap<>();
+        List<BatchTransferLegResultDTO> results = new ArrayList<>(request.getLegs().size());
+
+        for (int i = 0; i < request.getLegs().size(); i++) {
+            BatchTransferLegDTO leg = request.getLegs().get(i);
+            BatchTransferLegResultDTO result = new BatchTransferLegResultDTO();
+            result.setLegIndex(i);
+            result.setToAccountNumber(leg.getToAccountNumber());
+            result.setAmount(leg.getAmount());
+            results.add(result);
+
+            Object[] target = targets.get(leg.getToAccountNumber());
+            String error = validateBatchLeg(leg, target, fromAccount);
+            BigDecimal fxRate = null;
+            if (error == null) {
+                try {
+                    fxRate = fxRateService.rate(fromAccount.getCurrency(), (String) target[5]);
+                } catch (InvalidTransactionException e) {
+                    error = e.getMessage();
+                }
             }
+            BigDecimal totalAmount = error == null ? leg.getAmount().add(transferFee).add(serviceTax) : null;
 
-            if (account.getBalance().compareTo(request.getAmount()) < 0) {
-                throw new InsufficientBalanceException("Insufficient balance. Available: " + account.getBalance() + ", Requested: " + request.getAmount());
+            if (error == null && balance.compareTo(totalAmount) < 0) {
+                error = "Insufficient balance. Available: " + balance + ", Required: " + totalAmount;
             }
 
-            BigDecimal balanceBefore = account.getBalance();
-            account.setBalance(account.getBalance().subtract(request.getAmount()));
-            accountRepository.save(account);
+            // Score each leg against the account's recent activity and the legs accepted before it
+            FraudScoringService.FraudDecision fraudDecision = null;
+            if (error == null) {
+                fraudDecision = fraudAssessment.assess(leg.getToAccountNumber(), leg.getAmount());
+                if (fraudDecision.isReject()) {
+                    error = "Transaction declined by fraud checks, please contact your branch";
+                }
+            }
 
-            Transaction transaction = createWithdrawalTransaction(request, account, balanceBefore);
-            transactionRepository.save(transaction);
+            if (error != null) {
+                result.setStatus(Transaction.Status.FAILED.name());
+                result.setErrorMessage(error);
+                continue;
+            }
+
+            fraudAssessment.accept(leg.getToAccountNumber(), leg.getAmount());
+            Long toAccountId = (Long) target[1];
+            BigDecimal legBalanceBefore = balance;
+            balance = balance.subtract(totalAmount);
+            totalDebited = totalDebited.add(totalAmount);
+            BigDecimal creditAmount = FxRateService.convert(leg.getAmount(), fxRate);
+            credits.merge(toAccountId, creditAmount, BigDecimal::add);
+
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(generateTransactionId());
+            transaction.setReferenceNumber(generateReferenceNumber());
+            transaction.setFromAccount(fromAccount);
+            transaction.setFromAccountNumber(fromAccount.getAccountNumber());
+            transaction.setToAccount(accountRepository.getReferenceById(toAccountId));
+            transaction.setToAccountNumber(leg.getToAccountNumber());
+            transaction.setAmount(leg.getAmount());
+            transaction.setCurrency(fromAccount.getCurrency());
+            applyConversion(transaction, (String) target[5], fxRate);
+            transaction.setTransferFee(transferFee);
+            transaction.setServiceTax(serviceTax);
+            transaction.setTotalAmount(totalAmount);
+            transaction.setTransferMode(transferMode);
+            transaction.setTransactionType(Transaction.TransactionType.TRANSFER);
+            transaction.setTransferType(transferType);
+            transaction.setStatus(Transaction.Status.COMPLETED);
+            transaction.setDescription(leg.getDescription() != null ? leg.getDescription() : request.getDescription());
+            transaction.setRemarks(leg.getRemarks());
+            transaction.setBalanceBefore(legBalanceBefore);
+            transaction.setBalanceAfter(balance);
+            transaction.setTimestamp(now);
+            transaction.setCompletedAt(now);
+            transaction.setReceiptNumber(generateReceiptNumber());
+            transaction.setVerified(true);
+            transaction.setRequiresApproval(leg.getAmount().compareTo(HIGH_AMOUNT_THRESHOLD) > 0);
+            transaction.setBeneficiaryName(target[3] + " " + target[4]);
+            transaction.setBeneficiaryBank("Same Bank");
+            postings.add(transaction);
+            fraudDecisions.add(fraudDecision);
+
+            result.setTotalAmount(totalAmount);
+            result.setStatus(Transaction.Status.COMPLETED.name());
+            result.setTransactionId(transaction.getTransactionId());
+            result.setReferenceNumber(transaction.getReferenceNumber());
+        }
+
+        if (!postings.isEmpty()) {
+            fromAccount.setBalance(balance);
+            accountRepository.save(fromAccount);
+
+            if (transactionBatchRepository.creditAccounts(credits, now) > 0) {
+                // A destination changed status after validation; roll back rather than post partial credits
+                throw new AccountInactiveException("A destination account became inactive during the batch, please resubmit");
+            }
+            fraudScoringService.applyAll(postings, fraudDecisions, fromAccount.getAccountNumber());
+            transactionBatchRepository.insertAll(postings);
+            ledgerService.recordAll(postings);
+
+            balanceCacheService.updateOnCommit(fromAccount);
+            balanceCacheService.evictOnCommit(postings.stream()
+                    .map(Transaction::getToAccountNumber).distinct().collect(Collectors.toList()));
+        }
+
+        BatchTransferResponseDTO response = new BatchTransferResponseDTO();
+        response.setBatchReference(generateReferenceNumber());
+        response.setFromAccountNumber(fromAccount.getAccountNumber());
+        response.setTotalLegs(results.size());
+        response.setCompletedLegs(postings.size());
+        response.setFailedLegs(results.size() - postings.size());
+        response.setTotalDebited(totalDebited);
+        response.setBalanceBefore(balanceBefore);
+        response.setBalanceAfter(balance);
+        response.setProcessedAt(now.toString());
+        response.setResults(results);
+        return response;
+    }
+
+    /**
+     * Accept a transfer for asynchronous processing: validate it, persist it as PENDING and return.
+     * Funds move later on the source account's partition worker, see {@link AsyncTransferService}.
+     */
+    @Transactional
+    public TransactionResponseDTO createPendingTransfer(TransferRequestDTO request, String authHeader) {
+        log.info("Queueing transfer from {} to {}", request.getFromAccountNumber(), request.getToAccountNumber());
+
+        String jwtToken = extractToken(authHeader);
+        Transaction transaction = buildPendingTransfer(request, jwtUtil.extractRole(jwtToken),
+                jwtUtil.extractCustomerId(jwtToken), jwtUtil.extractBranchId(jwtToken));
+        transactionRepository.save(transaction);
+
+        return mapToResponseDTO(transaction);
+    }
+
+    /**
+     * Schedule a one-off transfer, or a standing order when a recurring frequency is given.
+     * The scheduled transaction engine executes it once due.
+     */
+    @Transactional
+    public TransactionResponseDTO createScheduledTransfer(ScheduledTransferRequestDTO request, String authHeader) {
+        log.info("Scheduling transfer from {} to {} at {}", request.getTransfer().getFromAccountNumber(),
+                request.getTransfer().getToAccountNumber(), request.getScheduledAt());
+
+        String jwtToken = extractToken(authHeader);
+        Transaction transaction = buildPendingTransfer(request.getTransfer(), jwtUtil.extractRole(jwtToken),
+                jwtUtil.extractCustomerId(jwtToken), jwtUtil.extractBranchId(jwtToken));
+        transaction.setIsScheduled(true);
+        transaction.setScheduledAt(request.getScheduledAt());
+
+        if (request.getRecurringFrequency() != null && !request.getRecurringFrequency().isBlank()) {
+            transaction.setIsRecurring(true);
+            transaction.setRecurringFrequency(
+                    Transaction.RecurringFrequency.valueOf(request.getRecurringFrequency().toUpperCase()));
+            transaction.setNextRecurringDate(request.getScheduledAt());
+        }
+
+        transactionRepository.save(transaction);
+        return mapToResponseDTO(transaction);
+    }
+
+    @Transactional
+    public TransactionResponseDTO cancelScheduledTransfer(String transactionId, String authHeader) {
+        String jwtToken = extractToken(authHeader);
+
+        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException("Transaction not found: " + transactionId));
+
+        performAuthorizationCheck(jwtUtil.extractRole(jwtToken), jwtUtil.extractCustomerId(jwtToken),
+                jwtUtil.extractBranchId(jwtToken), transaction.getFromAccount());
+
+        // Conditional update: the engine may be executing this transfer right now
+        if (transactionRepository.cancelScheduled(transactionId, Transaction.Status.PENDING,
+                Transaction.Status.CANCELLED, LocalDateTime.now()) == 0) {
+            throw new InvalidTransactionException("Only pending scheduled transfers can be cancelled");
+        }
 
-            log.info("Withdrawal completed successfully. Transaction ID: {}", transaction.getTransactionId());
+        log.info("Scheduled transfer {} cancelled", transactionId);
+        return mapToResponseDTO(transactionRepository.findByTransactionId(transactionId).orElseThrow());
+    }
+
+    /**
+     * Validate a transfer request and build its PENDING transaction without touching balances.
+     * Balance is checked when the posting is applied.
+     */
+    private Transaction buildPendingTransfer(TransferRequestDTO request, String role, String customerId, Long branchId) {
+        Account fromAccount = accountRepository.findByAccountNumber(request.getFromAccountNumber())
+                .orElseThrow(() -> new AccountNotFoundException("Source account not found: " + request.getFromAccountNumber()));
+        Account toAccount = accountRepository.findByAccountNumber(request.getToAccountNumber())
+                .orElseThrow(() -> new AccountNotFoundException("Destination account not found: " + request.getToAccountNumber()));
+
+        performAuthorizationCheck(role, customerId, branchId, fromAccount);
+
+        if (fromAccount.getStatus() != Account.Status.ACTIVE) {
+            throw new AccountInactiveException("Source account is not active");
+        }
+
+        if (toAccount.getStatus() != Account.Status.ACTIVE) {
+            throw new AccountInactiveException("Destination account is not active");
+        }
+
+        BigDecimal transferFee = calculateTransferFee(request);
+        BigDecimal serviceTax = transferFee.multiply(SERVICE_TAX_RATE).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal totalAmount = request.getAmount().add(transferFee).add(serviceTax);
+
+        // Indicative only: queued transfers are priced again when applied
+        Transaction transaction = createTransaction(request, fromAccount, toAccount, transferFee, serviceTax,
+                totalAmount, null, fxRateService.rate(fromAccount.getCurrency(), toAccount.getCurrency()));
+        transaction.setStatus(Transaction.Status.PENDING);
+        transaction.setBalanceAfter(null);
+        transaction.setCompletedAt(null);
+        return transaction;
+    }
+
+    /**
+     * Apply a queued transfer. Only the source account's partition worker calls this, so debits of
+     * one account never race each other; each balance change is a single guarded UPDATE instead of a
+     * locked read-modify-write.
+     *
+     * @return the outcome, or null when the posting was already handled elsewhere
+     */
+    public TransactionResponseDTO applyQueuedTransfer(String transactionId) {
+        return accountLockService.executeWithRetry("async-transfer", () -> executeQueuedTransfer(transactionId));
+    }
+
+    private TransactionResponseDTO executeQueuedTransfer(String transactionId) {
+        if (transactionRepository.updateStatusIf(transactionId,
+                Transaction.Status.PENDING, Transaction.Status.PROCESSING) == 0) {
+            return null;
+        }
+
+        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException("Transaction not found: " + transactionId));
+
+        if (stripedBalanceService.isHot(transaction.getFromAccountNumber())) {
+            // Stripes can only be folded under the account row lock
+            Account hotSource = accountLockService.lockInOrder(transaction.getFromAccountNumber())
+                    .get(transaction.getFromAccountNumber());
+            stripedBalanceService.consolidate(hotSource);
+            accountRepository.save(hotSource);
+        }
+
+        Long fromId = transaction.getFromAccount().getId();
+        Long toId = transaction.getToAccount().getId();
+        BigDecimal amount = transaction.getAmount();
+        BigDecimal totalAmount = transaction.getTotalAmount();
+        boolean stripedCredit = stripedBalanceService.isHot(transaction.getToAccountNumber()) && !fromId.equals(toId);
+        LocalDateTime now = LocalDateTime.now();
+
+        FraudScoringService.FraudDecision fraudDecision = null;
+        String error = null;
+        String errorCode = null;
+        try {
+            fraudDecision = fraudScoringService.assess(transaction.getFromAccountNumber(),
+                    transaction.getToAccountNumber(), amount);
+        } catch (FraudCheckFailedException e) {
+            error = e.getMessage();
+            errorCode = "FRAUD_REJECTED";
+        }
+
+        BigDecimal creditAmount = amount;
+        if (error == null) {
+            String toCurrency = transaction.getToAccount().getCurrency();
+            try {
+                applyConversion(transaction, toCurrency, fxRateService.rate(transaction.getCurrency(), toCurrency));
+                creditAmount = transaction.getCreditAmount();
+            } catch (InvalidTransactionException e) {
+                error = e.getMessage();
+                errorCode = "FX_RATE_UNAVAILABLE";
+            }
+        }
+
+        if (error == null) {
+            // Row updates run in account id order so opposing transfers on different partitions cannot deadlock
+            if (stripedCredit || fromId <= toId) {
+                error = debitQueued(transaction, now);
+                if (error == null && !stripedCredit && !creditQueued(toId, creditAmount, now)) {
+                    accountRepository.creditIfStatus(fromId, totalAmount, Account.Status.ACTIVE, now);
+                    error = "Destination account is not active";
+                }
+            } else {
+                error = creditQueued(toId, creditAmount, now) ? null : "Destination account is not active";
+                if (error == null) {
+                    error = debitQueued(transaction, now);
+                    if (error != null) {
+                        accountRepository.debitIfSufficient(toId, creditAmount, Account.Status.ACTIVE, now);
+                    }
+                }
+            }
+        }
+
+        if (error != null) {
+            transaction.setStatus(Transaction.Status.FAILED);
+            transaction.setErrorCode(errorCode != null ? errorCode
+                    : error.startsWith("Insufficient") ? "INSUFFICIENT_FUNDS" : "ACCOUNT_INACTIVE");
+            transaction.setErrorMessage(error);
+            transactionRepository.save(transaction);
+            log.info("Queued transfer {} failed: {}", transactionId, error);
             return mapToResponseDTO(transaction);
+        }
 
-        } catch (Exception e) {
-            log.error("Error processing withdrawal: {}", e.getMessage(), e);
-            throw e;
+        if (stripedCredit) {
+            stripedBalanceService.creditStripe(transaction.getToAccount(), creditAmount, transactionId);
+        }
+
+        fraudScoringService.apply(transaction, fraudDecision,
+                transaction.getFromAccountNumber(), transaction.getToAccountNumber());
+
+        BigDecimal balanceAfter = accountRepository.findBalanceById(fromId);
+        transaction.setBalanceBefore(fromId.equals(toId) ? balanceAfter.add(totalAmount).subtract(amount) : balanceAfter.add(totalAmount));
+        transaction.setBalanceAfter(balanceAfter);
+        transaction.setStatus(Transaction.Status.COMPLETED);
+        transaction.setCompletedAt(now);
+        transactionRepository.save(transaction);
+        ledgerService.record(transaction);
+        balanceCacheService.evictOnCommit(Arrays.asList(
+                transaction.getFromAccountNumber(), transaction.getToAccountNumber()));
+
+        return mapToResponseDTO(transaction);
+    }
+
+    private String debitQueued(Transaction transaction, LocalDateTime now) {
+        Account fromAccount = transaction.getFromAccount();
+        if (accountRepository.debitIfSufficient(fromAccount.getId(), transaction.getTotalAmount(),
+                Account.Status.ACTIVE, now) > 0) {
+            return null;
         }
+        return fromAccount.getStatus() != Account.Status.ACTIVE
+                ? "Source account is not active"
+                : "Insufficient balance. Required: " + transaction.getTotalAmount();
     }
 
-    public AccountBalanceDTO getAccountBalance(String accountNumber, String authHeader) {
-        log.info("Fetching account balance for {}", accountNumber);
+    private boolean creditQueued(Long accountId, BigDecimal amount, LocalDateTime now) {
+        return accountRepository.creditIfStatus(accountId, amount, Account.Status.ACTIVE, now) > 0;
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionStatusDTO getTransactionStatus(String transactionId, String authHeader) {
+        String jwtToken = extractToken(authHeader);
+        String role = jwtUtil.extractRole(jwtToken);
+        String customerId = jwtUtil.extractCustomerId(jwtToken);
+        Long branchId = jwtUtil.extractBranchId(jwtToken);
+
+        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException("Transaction not found: " + transactionId));
+
+        performAuthorizationCheck(role, customerId, branchId,
+                transaction.getFromAccount() != null ? transaction.getFromAccount() : transaction.getToAccount());
+
+        TransactionStatusDTO dto = new TransactionStatusDTO();
+        dto.setTransactionId(transaction.getTransactionId());
+        dto.setReferenceNumber(transaction.getReferenceNumber());
+        dto.setStatus(transaction.getStatus().name());
+        dto.setFromAccountNumber(transaction.getFromAccountNumber());
+        dto.setToAccountNumber(transaction.getToAccountNumber());
+        dto.setAmount(transaction.getAmount());
+        dto.setTotalAmount(transaction.getTotalAmount());
+        dto.setBalanceAfter(transaction.getBalanceAfter());
+        dto.setErrorCode(transaction.getErrorCode());
+        dto.setErrorMessage(transaction.getErrorMessage());
+        dto.setTimestamp(transaction.getTimestamp().toString());
+        dto.setCompletedAt(transaction.getCompletedAt() != null ? transaction.getCompletedAt().toString() : null);
+        return dto;
+    }
 
+    /**
+     * One page of an account's history, newest first.
+     *
+     * Pages are addressed by a (timestamp, id) cursor rather than an offset, so every page is two
+     * index seeks (debit side and credit side) of at most {@code size + 1} rows, however deep it is.
+     * Rows are projected straight into the DTO without loading transaction entities.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistoryPageDTO getTransactionHistory(String accountNumber, String cursor, int size,
+                                                           String authHeader) {
         String jwtToken = extractToken(authHeader);
 
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
 
         if (!branchAuthorizationService.canAccessAccount(jwtToken, account)) {
-            throw new UnauthorizedAccessException("Access denied: You do not have permission to view this account's balance");
+            throw new UnauthorizedAccessException("Access denied: You do not have permission to view this account's transactions");
         }
 
-        AccountBalanceDTO dto = new AccountBalanceDTO();
-        dto.setAccountNumber(account.getAccountNumber());
-        dto.setCustomerId(account.getCustomer().getCustomerId());
-        dto.setAccountType(account.getAccountType());
+        int pageSize = Math.max(1, Math.min(size, maxHistoryPageSize));
+        LocalDateTime beforeTimestamp = HISTORY_START;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            beforeTimestamp = LocalDateTime.parse(parts[0]);
+            beforeId = Long.parseLong(parts[1]);
+        }
 
-        if (account.getBranch() != null) {
-            dto.setBranchCode(account.getBranch().getBranchCode());
-            dto.setBranchName(account.getBranch().getBranchName());
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Object[]> debits = transactionRepository.findDebitHistoryPage(account.getId(), beforeTimestamp, beforeId, limit);
+        List<Object[]> credits = transactionRepository.findCreditHistoryPage(account.getId(), beforeTimestamp, beforeId, limit);
+
+        // Merge the two sorted sides; a transfer to the same account shows once, as a debit
+        List<TransactionHistoryDTO> items = new ArrayList<>(pageSize);
+        int d = 0;
+        int c = 0;
+        Object[] last = null;
+        boolean hasMore = false;
+        while (d < debits.size() || c < credits.size()) {
+            boolean takeDebit = c >= credits.size()
+                    || (d < debits.size() && compareHistoryRows(debits.get(d), credits.get(c)) >= 0);
+            Object[] row = takeDebit ? debits.get(d++) : credits.get(c++);
+            if (last != null && last[0].equals(row[0])) {
+                continue;
+            }
+            if (items.size() == pageSize) {
+                hasMore = true;
+                break;
+            }
+            items.add(mapHistoryRow(row, accountNumber, takeDebit ? "DEBIT" : "CREDIT"));
+            last = row;
         }
 
-        dto.setBalance(account.getBalance());
-        dto.setCurrency(account.getCurrency());
-        dto.setStatus(account.getStatus().name().toLowerCase());
+        String nextCursor = hasMore ? encodeCursor((LocalDateTime) last[1], (Long) last[0]) : null;
+        return new TransactionHistoryPageDTO(accountNumber, items, items.size(), hasMore, nextCursor);
+    }
+
+    public AccountBalanceDTO getAccountBalance(String accountNumber, String authHeader) {
+        log.info("Fetching account balance for {}", accountNumber);
+
+        String jwtToken = extractToken(authHeader);
+
+        BalanceCacheService.BalanceView view = balanceCacheService.get(accountNumber);
+
+        if (!branchAuthorizationService.canAccessAccount(jwtToken, view.getAccountNumber(),
+                view.getCustomerId(), view.getBranchId())) {
+            throw new UnauthorizedAccessException("Access denied: You do not have permission to view this account's balance");
+        }
 
         log.info("Account balance retrieved successfully for {}", accountNumber);
-        return dto;
+        return view.toDto();
+    }
+
+    /**
+     * Balance of an account at a point in time, from the daily balance checkpoints.
+     */
+    @Transactional(readOnly = true)
+    public BalanceAsOfDTO getBalanceAsOf(String accountNumber, LocalDateTime at, String authHeader) {
+        String jwtToken = extractToken(authHeader);
+
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+
+        if (!branchAuthorizationService.canAccessAccount(jwtToken, account)) {
+            throw new UnauthorizedAccessException("Access denied: You do not have permission to view this account's balance");
+        }
+
+        return new BalanceAsOfDTO(account.getAccountNumber(), at.toString(),
+                ledgerService.balanceAsOf(account, at), account.getCurrency());
     }
 
     // ============================================
@@ -257,10 +856,57 @@ public class TransactionService {
         throw new UnauthorizedAccessException("Access denied: Unknown role");
     }
 
+    /**
+     * Orders history rows by (timestamp, id)
+     */
+    private static int compareHistoryRows(Object[] a, Object[] b) {
+        int byTime = ((LocalDateTime) a[1]).compareTo((LocalDateTime) b[1]);
+        return byTime != 0 ? byTime : ((Long) a[0]).compareTo((Long) b[0]);
+    }
+
+    private TransactionHistoryDTO mapHistoryRow(Object[] row, String accountNumber, String transactionType) {
+        TransactionHistoryDTO dto = new TransactionHistoryDTO();
+        dto.setTransactionId((String) row[2]);
+        dto.setReferenceNumber((String) row[3]);
+        dto.setAccountNumber(accountNumber);
+        dto.setOtherAccountNumber((String) row[4]);
+        dto.setBranchCode((String) row[5]);
+        dto.setBranchName((String) row[6]);
+        dto.setOtherBranchCode((String) row[7]);
+        dto.setOtherBranchName((String) row[8]);
+        dto.setTransactionType(transactionType);
+        dto.setAmount((BigDecimal) row[9]);
+        dto.setTransferMode(row[10] != null ? ((Transaction.TransferMode) row[10]).name() : null);
+        dto.setStatus(((Transaction.Status) row[11]).name().toLowerCase());
+        dto.setDescription((String) row[12]);
+        dto.setTimestamp(row[1].toString());
+        dto.setBalanceAfter((BigDecimal) row[13]);
+        return dto;
+    }
+
+    private static String encodeCursor(LocalDateTime timestamp, Long id) {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidTransactionException("Invalid history cursor");
+        }
+    }
+
     private Transaction createTransaction(TransferRequestDTO request, Account fromAccount,
                                           Account toAccount, BigDecimal transferFee,
                                           BigDecimal serviceTax, BigDecimal totalAmount,
-                                          BigDecimal fromBalanceBefore) {
+                                          BigDecimal fromBalanceBefore, BigDecimal fxRate) {
         Transaction transaction = new Transaction();
         transaction.setTransactionId(generateTransactionId());
         transaction.setReferenceNumber(generateReferenceNumber());
@@ -269,7 +915,8 @@ public class TransactionService {
         transaction.setToAccount(toAccount);
         transaction.setToAccountNumber(toAccount.getAccountNumber());
         transaction.setAmount(request.getAmount());
-        transaction.setCurrency("USD");
+        transaction.setCurrency(fromAccount.getCurrency());
+        applyConversion(transaction, toAccount.getCurrency(), fxRate);
         transaction.setTransferFee(transferFee);
         transaction.setServiceTax(serviceTax);
         transaction.setTotalAmount(totalAmount);
@@ -292,6 +939,16 @@ public class TransactionService {
         return transaction;
     }
 
+    /**
+     * Record what the destination receives: the amount converted at {@code fxRate} into its currency.
+     * The rate itself is only kept when a conversion took place.
+     */
+    private static void applyConversion(Transaction transaction, String toCurrency, BigDecimal fxRate) {
+        transaction.setCreditCurrency(toCurrency);
+        transaction.setCreditAmount(FxRateService.convert(transaction.getAmount(), fxRate));
+        transaction.setFxRate(toCurrency.equals(transaction.getCurrency()) ? null : fxRate);
+    }
+
     private Transaction createDepositTransaction(DepositRequestDTO request, Account account, BigDecimal balanceBefore) {
         Transaction transaction = new Transaction();
         transaction.setTransactionId(generateTransactionId());
@@ -301,7 +958,7 @@ public class TransactionService {
         transaction.setToAccount(account);
         transaction.setToAccountNumber(account.getAccountNumber());
         transaction.setAmount(request.getAmount());
-        transaction.setCurrency("USD");
+        transaction.setCurrency(account.getCurrency());
         transaction.setTransferFee(BigDecimal.ZERO);
         transaction.setServiceTax(BigDecimal.ZERO);
         transaction.setTotalAmount(request.getAmount());
@@ -330,7 +987,7 @@ public class TransactionService {
         transaction.setToAccount(null);
         transaction.setToAccountNumber("CASH_WITHDRAWAL");
         transaction.setAmount(request.getAmount());
-        transaction.setCurrency("USD");
+        transaction.setCurrency(account.getCurrency());
         transaction.setTransferFee(BigDecimal.ZERO);
         transaction.setServiceTax(BigDecimal.ZERO);
         transaction.setTotalAmount(request.getAmount());
@@ -351,30 +1008,75 @@ public class TransactionService {
     }
 
     private BigDecimal calculateTransferFee(TransferRequestDTO request) {
-        if ("high".equalsIgnoreCase(request.getPriority())) {
+        return calculateTransferFee(request.getPriority(), request.getTransferType());
+    }
+
+    private BigDecimal calculateTransferFee(String priority, String transferType) {
+        if ("high".equalsIgnoreCase(priority)) {
             return HIGH_PRIORITY_FEE;
         }
-        if ("own".equalsIgnoreCase(request.getTransferType())) {
+        if ("own".equalsIgnoreCase(transferType)) {
             return BigDecimal.ZERO;
         }
         return NEFT_FEE;
     }
 
+    private Transaction.TransferMode parseTransferMode(String transferMode) {
+        try {
+            return Transaction.TransferMode.valueOf(transferMode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTransactionException("Invalid transfer mode: " + transferMode);
+        }
+    }
+
+    /**
+     * Look up every distinct destination of a batch with one projection query per chunk.
+     * Rows are [accountNumber, id, status, firstName, lastName, currency].
+     */
+    private Map<String, Object[]> loadPostingTargets(List<BatchTransferLegDTO> legs) {
+        List<String> accountNumbers = legs.stream()
+                .map(BatchTransferLegDTO::getToAccountNumber)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<String, Object[]> targets = new HashMap<>();
+        for (int from = 0; from < accountNumbers.size(); from += TARGET_LOOKUP_CHUNK) {
+            List<String> chunk = accountNumbers.subList(from, Math.min(from + TARGET_LOOKUP_CHUNK, accountNumbers.size()));
+            for (Object[] row : accountRepository.findPostingTargetsByAccountNumberIn(chunk)) {
+                targets.put((String) row[0], row);
+            }
+        }
+        return targets;
+    }
+
+    private String validateBatchLeg(BatchTransferLegDTO leg, Object[] target, Account fromAccount) {
+        if (target == null) {
+            return "Destination account not found: " + leg.getToAccountNumber();
+        }
+        if (target[2] != Account.Status.ACTIVE) {
+            return "Destination account is not active";
+        }
+        if (fromAccount.getAccountNumber().equals(leg.getToAccountNumber())) {
+            return "Destination account must differ from the source account";
+        }
+        return null;
+    }
+
     private Transaction.TransferType determineTransferType(String type) {
         if (type == null) return Transaction.TransferType.OTHER;
         return "own".equalsIgnoreCase(type) ? Transaction.TransferType.OWN : Transaction.TransferType.OTHER;
     }
 
     private String generateTransactionId() {
-        return "TXN" + System.currentTimeMillis();
+        return idGeneratorService.nextTransactionId();
     }
 
     private String generateReferenceNumber() {
-        return "REF" + System.currentTimeMillis();
+        return idGeneratorService.nextReferenceNumber();
     }
 
     private String generateReceiptNumber() {
-        return "RCP" + System.currentTimeMillis();
+        return idGeneratorService.nextReceiptNumber();
     }
 
     private TransactionResponseDTO mapToResponseDTO(Transaction transaction) {
@@ -396,6 +1098,9 @@ public class TransactionService {
 
         dto.setAmount(transaction.getAmount());
         dto.setCurrency(transaction.getCurrency());
+        dto.setCreditAmount(transaction.getCreditAmount());
+        dto.setCreditCurrency(transaction.getCreditCurrency());
+        dto.setFxRate(transaction.getFxRate());
         dto.setTransferFee(transaction.getTransferFee());
         dto.setServiceTax(transaction.getServiceTax());
         dto.setTotalAmount(transaction.getTotalAmount());
@@ -0,0 +1,27 @@
+package com.izak.demoBankManagement.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Account number with valid check digits; rejects mistyped numbers before any database lookup.
+ * Null values are left to {@code @NotBlank}.
+ */
+@Documented
+@Constraint(validatedBy = AccountNumberValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AccountNumber {
+
+    String message() default "Invalid account number";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
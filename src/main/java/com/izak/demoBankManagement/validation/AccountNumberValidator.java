@@ -0,0 +1,13 @@
+package com.izak.demoBankManagement.validation;
+
+import com.izak.demoBankManagement.service.BusinessIdAllocator;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class AccountNumberValidator implements ConstraintValidator<AccountNumber, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || BusinessIdAllocator.isValidAccountNumber(value);
+    }
+}
@@ -0,0 +1,15 @@
+-- Sequences behind BusinessIdAllocator: one nextval reserves a block of INCREMENT BY serials.
+--
+-- The increment must equal bank.id.block-size on every node; a node with a different block size
+-- refuses to start. To change the block size, stop all nodes, run the ALTER statements with the
+-- new size, set bank.id.block-size to it and start the nodes again.
+
+CREATE SEQUENCE IF NOT EXISTS account_number_seq START WITH 1000000000 INCREMENT BY 100;
+CREATE SEQUENCE IF NOT EXISTS dps_number_seq START WITH 1000000000 INCREMENT BY 100;
+CREATE SEQUENCE IF NOT EXISTS customer_id_seq START WITH 100000 INCREMENT BY 100;
+CREATE SEQUENCE IF NOT EXISTS branch_code_seq START WITH 10000 INCREMENT BY 100;
+
+ALTER SEQUENCE account_number_seq INCREMENT BY 100;
+ALTER SEQUENCE dps_number_seq INCREMENT BY 100;
+ALTER SEQUENCE customer_id_seq INCREMENT BY 100;
+ALTER SEQUENCE branch_code_seq INCREMENT BY 100;
@@ -0,0 +1,62 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.AccountListItemDTO;
+import com.izak.demoBankManagement.dto.AccountListPageDTO;
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.support.DatabaseTestSupport;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The branch-scoped account listing must cost one SQL statement per page, whatever the page size,
+ * with no lazy customer or branch loads per row.
+ */
+class AccountListingQueryCountTest extends DatabaseTestSupport {
+
+    private static final int ACCOUNTS = 45;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void branchManagerPagesCostOneStatementEach() {
+        List<Account> accounts = fixtures.createAccounts(ACCOUNTS, new BigDecimal("100.00"));
+        Long branchId = accounts.get(0).getBranch().getId();
+        String token = fixtures.branchManagerToken(branchId).substring(7);
+
+        Statistics statistics = resetStatistics();
+        for (int size : new int[]{5, 20, 45}) {
+            int page = 1;
+            int seen = 0;
+            boolean hasNext = true;
+            while (hasNext) {
+                statistics.clear();
+                AccountListPageDTO result = accountService.getAllAccounts(page++, size, null, null, null, token);
+
+                assertEquals(1, statistics.getPrepareStatementCount(),
+                        "Page " + (page - 1) + " of size " + size + " must run exactly one statement");
+                for (AccountListItemDTO item : result.getAccounts()) {
+                    assertEquals(branchId, item.getBranchId());
+                    assertTrue(item.getCustomerName().startsWith("Bench "));
+                }
+                seen += result.getAccounts().size();
+                hasNext = result.getHasNext();
+            }
+            assertEquals(ACCOUNTS, seen, "Every branch account is listed once with page size " + size);
+        }
+
+        statistics.clear();
+        AccountListPageDTO frozen = accountService.getAllAccounts(1, 20, "frozen", null, null, token);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(frozen.getAccounts().isEmpty());
+        assertFalse(frozen.getHasNext());
+    }
+}
@@ -0,0 +1,73 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.support.LegacyAmortization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of one loan's EMI plus full repayment schedule, computed the previous way
+ * ({@link LegacyAmortization}) and by {@link AmortizationEngine}, for tenures from 12 to 480 months.
+ * Equivalence of the two is checked by {@link AmortizationEngineTest}.
+ *
+ * Not a test: run it after {@code mvn test-compile} through {@link #main} (or {@code org.openjdk.jmh.Main
+ * AmortizationBenchmark}) with the test classpath. Each benchmark runs in its own forked JVMs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AmortizationBenchmark {
+
+    private static final BigDecimal PRINCIPAL = new BigDecimal("250000.00");
+    private static final BigDecimal ANNUAL_RATE = new BigDecimal("7.25");
+
+    @Param({"12", "60", "120", "240", "360", "480"})
+    public int months;
+
+    private BigDecimal monthlyRate;
+    private BigDecimal scheduleRate;
+
+    @Setup
+    public void setUp() {
+        monthlyRate = AmortizationEngine.monthlyRate(ANNUAL_RATE);
+        scheduleRate = ANNUAL_RATE.divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(12), 10, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        BigDecimal emi = LegacyAmortization.emi(PRINCIPAL, ANNUAL_RATE, months);
+        blackhole.consume(emi);
+        blackhole.consume(LegacyAmortization.schedule(PRINCIPAL, ANNUAL_RATE, emi, months));
+    }
+
+    @Benchmark
+    public void engine(Blackhole blackhole) {
+        BigDecimal emi = AmortizationEngine.emi(PRINCIPAL, monthlyRate, months);
+        blackhole.consume(emi);
+        blackhole.consume(AmortizationEngine.schedule(PRINCIPAL, scheduleRate, emi, months));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AmortizationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.support.LegacyAmortization;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AmortizationEngineTest {
+
+    private static final int[] TENURES = {12, 60, 120, 240, 360, 480};
+    private static final String[] RATES = {"0.50", "7.25", "12.00", "24.00", "36.00"};
+
+    @Test
+    void powBySquaringMatchesRepeatedMultiplication() {
+        for (String rate : RATES) {
+            BigDecimal base = BigDecimal.ONE.add(AmortizationEngine.monthlyRate(new BigDecimal(rate)));
+            for (int months : TENURES) {
+                assertEquals(LegacyAmortization.pow(base, months), AmortizationEngine.pow(base, months),
+                        rate + "% over " + months);
+            }
+        }
+    }
+
+    @Test
+    void emiAndScheduleMatchPreviousCalculation() {
+        // The last principal is too large for whole-cent longs and takes the BigDecimal path
+        for (String principal : new String[]{"1000.00", "250000.00", "12345678.91", "900000000000.00"}) {
+            for (String rate : RATES) {
+                for (int months : TENURES) {
+                    assertSameSchedule(new BigDecimal(principal), new BigDecimal(rate), months);
+                }
+            }
+        }
+    }
+
+    @Test
+    void principalForEmiInvertsEmi() {
+        BigDecimal monthlyRate = AmortizationEngine.monthlyRate(new BigDecimal("8.50"));
+        BigDecimal emi = AmortizationEngine.emi(new BigDecimal("500000.00"), monthlyRate, 240);
+
+        BigDecimal principal = AmortizationEngine.principalForEmi(emi, monthlyRate, 240);
+
+        assertTrue(principal.subtract(new BigDecimal("500000.00")).abs().compareTo(new BigDecimal("1.00")) <= 0,
+                "Recovered principal " + principal);
+    }
+
+    private static void assertSameSchedule(BigDecimal principal, BigDecimal annualRate, int months) {
+        String label = principal + " at " + annualRate + "% over " + months;
+        BigDecimal emi = LegacyAmortization.emi(principal, annualRate, months);
+        assertEquals(emi, AmortizationEngine.emi(principal, AmortizationEngine.monthlyRate(annualRate), months), label);
+
+        BigDecimal[][] expected = LegacyAmortization.schedule(principal, annualRate, emi, months);
+        BigDecimal monthlyRate = annualRate.divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(12), 10, RoundingMode.HALF_UP);
+        AmortizationEngine.Installments actual = AmortizationEngine.schedule(principal, monthlyRate, emi, months);
+
+        assertEquals(months, actual.size(), label);
+        for (int i = 0; i < months; i++) {
+            assertEquals(0, expected[i][0].compareTo(actual.principal(i)), label + " principal #" + (i + 1));
+            assertEquals(0, expected[i][1].compareTo(actual.interest(i)), label + " interest #" + (i + 1));
+            assertEquals(0, expected[i][2].compareTo(actual.total(i)), label + " total #" + (i + 1));
+            assertEquals(0, expected[i][3].compareTo(actual.balanceAfter(i)), label + " balance #" + (i + 1));
+        }
+    }
+}
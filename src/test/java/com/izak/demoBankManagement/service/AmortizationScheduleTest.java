@@ -0,0 +1,54 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.entity.Loan;
+import com.izak.demoBankManagement.entity.LoanRepaymentSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AmortizationScheduleTest {
+
+    @Test
+    void repaysPrincipalExactlyOverTenure() {
+        Loan loan = loan(new BigDecimal("250000.00"), new BigDecimal("7.25"), 360);
+
+        List<LoanRepaymentSchedule> schedules = new ArrayList<>();
+        AmortizationSchedule.of(loan).forEach(schedules::add);
+
+        assertEquals(360, schedules.size());
+        assertEquals(loan.getPrincipal(), schedules.stream()
+                .map(LoanRepaymentSchedule::getPrincipalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        assertEquals(0, schedules.get(359).getBalanceAfterPayment().signum());
+        assertEquals(loan.getMonthlyEMI(), schedules.get(0).getTotalAmount());
+        assertEquals(LocalDate.of(2024, 2, 15), schedules.get(0).getDueDate());
+        assertEquals(LocalDate.of(2054, 1, 15), schedules.get(359).getDueDate());
+    }
+
+    @Test
+    void iteratorsStartFromFirstInstallment() {
+        AmortizationSchedule schedule = AmortizationSchedule.of(loan(new BigDecimal("12000.00"), new BigDecimal("9.00"), 12));
+
+        LoanRepaymentSchedule first = schedule.iterator().next();
+        LoanRepaymentSchedule again = schedule.iterator().next();
+
+        assertEquals(1, again.getInstallmentNumber());
+        assertEquals(first.getInterestAmount(), again.getInterestAmount());
+        assertEquals(new BigDecimal("90.00"), first.getInterestAmount());
+    }
+
+    private static Loan loan(BigDecimal principal, BigDecimal annualRate, int months) {
+        Loan loan = new Loan();
+        loan.setPrincipal(principal);
+        loan.setAnnualInterestRate(annualRate);
+        loan.setTenureMonths(months);
+        loan.setMonthlyEMI(new LoanCalculationService().calculateEMI(principal, annualRate, months));
+        loan.setActualDisbursementDate(LocalDate.of(2024, 1, 15));
+        return loan;
+    }
+}
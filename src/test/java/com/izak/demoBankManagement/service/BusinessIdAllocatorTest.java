@@ -0,0 +1,103 @@
+package com.izak.demoBankManagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BusinessIdAllocatorTest {
+
+    private static final int BLOCK_SIZE = 10;
+
+    private final AtomicInteger reservations = new AtomicInteger();
+    private final Map<BusinessIdAllocator.Kind, Long> sequences = new EnumMap<>(BusinessIdAllocator.Kind.class);
+
+    /**
+     * Mimics a sequence START WITH the first serial INCREMENT BY the block size
+     */
+    private BusinessIdAllocator allocator() {
+        return new BusinessIdAllocator(BLOCK_SIZE, kind -> {
+            reservations.incrementAndGet();
+            return sequences.merge(kind, sequenceStart(kind), (current, ignored) -> current + BLOCK_SIZE);
+        });
+    }
+
+    private static long sequenceStart(BusinessIdAllocator.Kind kind) {
+        return kind == BusinessIdAllocator.Kind.ACCOUNT || kind == BusinessIdAllocator.Kind.DPS ? 1_000_000_000L
+                : kind == BusinessIdAllocator.Kind.CUSTOMER ? 100_000L : 10_000L;
+    }
+
+    @Test
+    void reservesOneBlockPerBlockSizeNumbers() {
+        BusinessIdAllocator allocator = allocator();
+        Set<String> numbers = new HashSet<>();
+
+        for (int i = 0; i < 3 * BLOCK_SIZE; i++) {
+            assertTrue(numbers.add(allocator.nextAccountNumber()));
+        }
+
+        assertEquals(3, reservations.get());
+    }
+
+    @Test
+    void issuedAccountNumbersCarryValidCheckDigits() {
+        BusinessIdAllocator allocator = allocator();
+
+        assertEquals("ACC100000000093", allocator.nextAccountNumber());
+        for (int i = 0; i < 500; i++) {
+            String accountNumber = allocator.nextAccountNumber();
+            assertEquals(15, accountNumber.length());
+            assertTrue(BusinessIdAllocator.isValidAccountNumber(accountNumber), accountNumber);
+        }
+        assertTrue(allocator.nextDpsNumber().startsWith("DPS1000000000"));
+    }
+
+    @Test
+    void rejectsMistypedAccountNumbers() {
+        String issued = allocator().nextAccountNumber();
+
+        // Single digit change and adjacent transposition
+        assertFalse(BusinessIdAllocator.isValidAccountNumber("ACC100000000094"));
+        assertFalse(BusinessIdAllocator.isValidAccountNumber("ACC100000000039"));
+        assertFalse(BusinessIdAllocator.isValidAccountNumber(issued.substring(0, issued.length() - 1)));
+        assertFalse(BusinessIdAllocator.isValidAccountNumber("ACC10000000009X"));
+        assertFalse(BusinessIdAllocator.isValidAccountNumber(null));
+    }
+
+    @Test
+    void acceptsLegacyRandomAccountNumbers() {
+        assertTrue(BusinessIdAllocator.isValidAccountNumber("ACC0012345678"));
+        assertTrue(BusinessIdAllocator.isValidAccountNumber("ACC0999"));
+    }
+
+    @Test
+    void customerAndBranchCodesCarryLuhnDigit() {
+        BusinessIdAllocator allocator = allocator();
+
+        assertEquals("CUST1000009", allocator.nextCustomerId());
+        assertEquals("BR100008", allocator.nextBranchCode());
+        assertEquals(3, BusinessIdAllocator.luhnCheckDigit("7992739871"));
+    }
+
+    @Test
+    void rejectsSequenceIncrementOtherThanBlockSize() {
+        BusinessIdAllocator allocator = allocator();
+
+        allocator.requireIncrement(BusinessIdAllocator.Kind.ACCOUNT, BLOCK_SIZE);
+        assertThrows(IllegalStateException.class,
+                () -> allocator.requireIncrement(BusinessIdAllocator.Kind.ACCOUNT, BLOCK_SIZE * 2));
+    }
+
+    @Test
+    void rejectsNonPositiveBlockSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BusinessIdAllocator(0, kind -> 1L));
+    }
+}
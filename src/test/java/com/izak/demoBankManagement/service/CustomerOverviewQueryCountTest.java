@@ -0,0 +1,63 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.AccountListItemDTO;
+import com.izak.demoBankManagement.dto.CustomerOverviewDTO;
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.support.DatabaseTestSupport;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The customer overview must cost a fixed number of SQL statements, however many accounts the
+ * customer holds.
+ */
+class CustomerOverviewQueryCountTest extends DatabaseTestSupport {
+
+    private static final int OVERVIEW_STATEMENTS = 6;
+
+    @Autowired
+    private CustomerOverviewService customerOverviewService;
+
+    @Test
+    void overviewCostsFixedStatementCount() {
+        Account first = fixtures.createAccounts(1, new BigDecimal("100.00")).get(0);
+        String customerId = first.getCustomerId();
+        String token = fixtures.adminToken().substring(7);
+
+        Statistics statistics = resetStatistics();
+        CustomerOverviewDTO single = customerOverviewService.getOverview(customerId, token);
+        assertEquals(OVERVIEW_STATEMENTS, statistics.getPrepareStatementCount());
+        assertEquals(1, single.getAccounts().size());
+
+        for (int i = 1; i < 20; i++) {
+            Account account = new Account();
+            account.setAccountNumber(first.getAccountNumber() + "X" + i);
+            account.setCustomer(first.getCustomer());
+            account.setCustomerId(customerId);
+            account.setAccountType("SAVINGS");
+            account.setBranch(first.getBranch());
+            account.setBalance(BigDecimal.ZERO);
+            account.setStatus(Account.Status.ACTIVE);
+            accountRepository.save(account);
+        }
+
+        statistics.clear();
+        CustomerOverviewDTO many = customerOverviewService.getOverview(customerId, token);
+        assertEquals(OVERVIEW_STATEMENTS, statistics.getPrepareStatementCount(),
+                "Overview statements must not grow with the number of accounts");
+        assertEquals(20, many.getAccounts().size());
+        assertEquals(customerId, many.getCustomer().getCustomerId());
+        for (AccountListItemDTO item : many.getAccounts()) {
+            assertTrue(item.getCustomerName().startsWith("Bench "));
+        }
+        assertTrue(many.getCards().isEmpty());
+        assertTrue(many.getLoans().isEmpty());
+        assertTrue(many.getDpsAccounts().isEmpty());
+    }
+}
@@ -0,0 +1,110 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.exception.FraudCheckFailedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FraudScoringServiceTest {
+
+    private FraudScoringService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FraudScoringService(null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "windowMinutes", 60L);
+        ReflectionTestUtils.setField(service, "historySize", 32);
+        ReflectionTestUtils.setField(service, "maxAccounts", 100);
+        ReflectionTestUtils.setField(service, "maxCount", 5);
+        ReflectionTestUtils.setField(service, "maxAmount", new BigDecimal("1000"));
+        ReflectionTestUtils.setField(service, "maxCounterparties", 3);
+        ReflectionTestUtils.setField(service, "newBeneficiaryAmount", new BigDecimal("500"));
+        ReflectionTestUtils.setField(service, "reviewScore", 50);
+        ReflectionTestUtils.setField(service, "rejectScore", 90);
+        service.init();
+    }
+
+    @Test
+    void passesOrdinaryPosting() {
+        FraudScoringService.FraudDecision decision = service.assess("A1", "B1", new BigDecimal("20.00"));
+
+        assertEquals(0, decision.getScore());
+        assertFalse(decision.isReview());
+    }
+
+    @Test
+    void flagsVelocityAndAmountForReview() {
+        for (int i = 0; i < 5; i++) {
+            post("A1", "B1", "200.00");
+        }
+
+        FraudScoringService.FraudDecision decision = service.assess("A1", "B1", new BigDecimal("200.00"));
+
+        assertEquals(80, decision.getScore());
+        assertTrue(decision.isReview());
+    }
+
+    @Test
+    void rejectsLargePaymentToNewBeneficiaryOnTopOfVelocity() {
+        for (int i = 0; i < 5; i++) {
+            post("A1", "B1", "200.00");
+        }
+
+        assertThrows(FraudCheckFailedException.class,
+                () -> service.assess("A1", "NEW", new BigDecimal("600.00")));
+    }
+
+    @Test
+    void knownBeneficiaryIsNotNew() {
+        post("A1", "B1", "10.00");
+
+        assertEquals(0, service.assess("A1", "B1", new BigDecimal("600.00")).getScore());
+        assertEquals(30, service.assess("A1", "B2", new BigDecimal("600.00")).getScore());
+    }
+
+    @Test
+    void batchLegsCountTowardsVelocityOfLaterLegs() {
+        FraudScoringService.BatchAssessment batch = service.startBatch("A1");
+        for (int i = 0; i < 5; i++) {
+            assertFalse(batch.assess("B1", new BigDecimal("200.00")).isReview());
+            batch.accept("B1", new BigDecimal("200.00"));
+        }
+
+        assertTrue(batch.assess("B1", new BigDecimal("200.00")).isReview());
+        assertTrue(batch.assess("NEW", new BigDecimal("600.00")).isReject());
+        // Shared state only changes once the batch commits
+        assertEquals(0, service.assess("A1", "B1", new BigDecimal("200.00")).getScore());
+    }
+
+    @Test
+    void scoresWithinSubMillisecondBudget() {
+        for (int i = 0; i < 32; i++) {
+            post("A1", "B" + (i % 3), "1.00");
+        }
+
+        int iterations = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            service.score(null, 0, 100, System.currentTimeMillis());
+            service.assess("A1", "B1", BigDecimal.ONE);
+        }
+        long perCallNanos = (System.nanoTime() - start) / iterations;
+
+        assertTrue(perCallNanos < 1_000_000, "Scoring took " + perCallNanos + " ns per call");
+    }
+
+    private void post(String account, String counterparty, String amount) {
+        FraudScoringService.FraudDecision decision = new FraudScoringService.FraudDecision();
+        com.izak.demoBankManagement.entity.Transaction transaction = new com.izak.demoBankManagement.entity.Transaction();
+        transaction.setAmount(new BigDecimal(amount));
+        service.apply(transaction, decision, account, counterparty);
+    }
+}
@@ -0,0 +1,78 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.exception.InvalidTransactionException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FxRateServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private FxRateService service;
+    private Path ratesFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ratesFile = dir.resolve("rates.properties");
+        Files.writeString(ratesFile, "EUR=0.80\nGBP=0.50\n");
+
+        service = new FxRateService(null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "baseCurrency", "USD");
+        ReflectionTestUtils.setField(service, "ratesFile", ratesFile.toString());
+        service.init();
+        service.refresh();
+    }
+
+    @Test
+    void derivesCrossRatesFromBaseRates() {
+        assertEquals(new BigDecimal("0.8000000000"), service.rate("USD", "EUR"));
+        assertEquals(new BigDecimal("1.2500000000"), service.rate("EUR", "USD"));
+        assertEquals(new BigDecimal("0.6250000000"), service.rate("EUR", "GBP"));
+    }
+
+    @Test
+    void sameCurrencyIsNotConverted() {
+        BigDecimal amount = new BigDecimal("10.00");
+
+        assertSame(BigDecimal.ONE, service.rate("JPY", "JPY"));
+        assertSame(amount, FxRateService.convert(amount, service.rate("JPY", "JPY")));
+    }
+
+    @Test
+    void convertsToCents() {
+        assertEquals(new BigDecimal("160.00"), FxRateService.convert(new BigDecimal("100.00"), service.rate("GBP", "EUR")));
+        assertEquals(new BigDecimal("8.01"), FxRateService.convert(new BigDecimal("10.01"), service.rate("USD", "EUR")));
+        assertEquals(new BigDecimal("0.01"), FxRateService.convert(new BigDecimal("0.01"), service.rate("EUR", "USD")));
+    }
+
+    @Test
+    void rejectsUnknownCurrency() {
+        assertThrows(InvalidTransactionException.class, () -> service.rate("USD", "CHF"));
+    }
+
+    @Test
+    void invalidReloadKeepsPreviousRates() throws IOException {
+        Files.writeString(ratesFile, "EUR=0.90\nGBP=-1\n");
+        service.refresh();
+
+        assertEquals(new BigDecimal("0.8000000000"), service.rate("USD", "EUR"));
+
+        Files.writeString(ratesFile, "EUR=0.90\nGBP=0.50\n");
+        service.refresh();
+
+        assertEquals(new BigDecimal("0.9000000000"), service.rate("USD", "EUR"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.TransferRequestDTO;
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.repository.AccountRepository;
+import com.izak.demoBankManagement.repository.BranchRepository;
+import com.izak.demoBankManagement.repository.CustomerRepository;
+import com.izak.demoBankManagement.repository.UserRepository;
+import com.izak.demoBankManagement.security.JwtUtil;
+import com.izak.demoBankManagement.support.BenchmarkFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hot account benchmark: many payers transfer into one merchant account concurrently.
+ *
+ * Measures credit throughput with the merchant account in normal mode and with 4 and 16 balance
+ * stripes, and checks that no credit is lost once the stripes are folded back. Needs a real
+ * PostgreSQL database, so it only runs with {@code -Dbank.benchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "bank.benchmark", matches = "true")
+class HotAccountStripeBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int PAYERS = 32;
+    private static final int TRANSFERS_PER_ROUND = 4000;
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private StripedBalanceService stripedBalanceService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void stripedCreditsScaleAndStayExact() throws Exception {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(branchRepository, userRepository,
+                customerRepository, accountRepository, jwtUtil);
+        List<Account> accounts = fixtures.createAccounts(PAYERS + 1, new BigDecimal("100000000.00"));
+        Account merchant = accounts.get(PAYERS);
+        List<Account> payers = accounts.subList(0, PAYERS);
+        String token = fixtures.adminToken();
+
+        for (int stripes : new int[]{0, 4, 16}) {
+            stripedBalanceService.setStripeCount(merchant.getAccountNumber(), stripes);
+            BigDecimal before = accountRepository.findByAccountNumber(merchant.getAccountNumber())
+                    .orElseThrow().getBalance();
+
+            int[] outcome = new int[2];
+            double throughput = runRound(payers, merchant, token, outcome);
+            System.out.printf("stripes=%d throughput=%.0f tx/s failures=%d%n", stripes, throughput, outcome[1]);
+
+            // Switching mode folds every stripe back into the account balance
+            stripedBalanceService.setStripeCount(merchant.getAccountNumber(), 0);
+            BigDecimal after = accountRepository.findByAccountNumber(merchant.getAccountNumber())
+                    .orElseThrow().getBalance();
+
+            assertEquals(0, outcome[1], "No transfer may fail");
+            assertEquals(0, before.add(AMOUNT.multiply(BigDecimal.valueOf(outcome[0]))).compareTo(after),
+                    "Merchant balance must include every credit");
+        }
+    }
+
+    private double runRound(List<Account> payers, Account merchant, String token, int[] outcome)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch done = new CountDownLatch(TRANSFERS_PER_ROUND);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TRANSFERS_PER_ROUND; i++) {
+            TransferRequestDTO request = new TransferRequestDTO();
+            request.setFromAccountNumber(payers.get(i % PAYERS).getAccountNumber());
+            request.setToAccountNumber(merchant.getAccountNumber());
+            request.setAmount(AMOUNT);
+            request.setTransferMode("IMPS");
+            request.setTransferType("own");
+
+            executor.execute(() -> {
+                try {
+                    transactionService.transferFunds(request, token);
+                    succeeded.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        outcome[0] = succeeded.get();
+        outcome[1] = failed.get();
+        return TRANSFERS_PER_ROUND / (elapsed / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,105 @@
+package com.izak.demoBankManagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdGeneratorServiceTest {
+
+    private static final int THREADS = 32;
+    private static final int IDS_PER_THREAD = 625_000; // 20M IDs in total
+
+    @Test
+    void generatesNoDuplicatesAcrossManyThreads() throws Exception {
+        IdGeneratorService generator = new IdGeneratorService(7, System::currentTimeMillis);
+        long[][] perThread = new long[THREADS][];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[THREADS];
+
+        for (int t = 0; t < THREADS; t++) {
+            final int index = t;
+            workers[t] = new Thread(() -> {
+                long[] ids = new long[IDS_PER_THREAD];
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    ids[i] = generator.nextId();
+                }
+                perThread[index] = ids;
+            });
+            workers[t].start();
+        }
+
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            long[] ids = perThread[t];
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i] > ids[i - 1], "IDs must increase within a thread");
+            }
+            System.arraycopy(ids, 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+        }
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) {
+                throw new AssertionError("Duplicate ID generated: " + all[i]);
+            }
+        }
+    }
+
+    @Test
+    void staysMonotonicWhenClockMovesBackwards() {
+        AtomicLong now = new AtomicLong(IdGeneratorService.EPOCH + 10_000);
+        IdGeneratorService generator = new IdGeneratorService(1, now::get);
+
+        long first = generator.nextId();
+        now.addAndGet(-5_000);
+        long second = generator.nextId();
+
+        assertTrue(second > first);
+    }
+
+    @Test
+    void rollsIntoNextMillisecondWhenSequenceIsExhausted() {
+        AtomicLong now = new AtomicLong(IdGeneratorService.EPOCH + 10_000);
+        IdGeneratorService generator = new IdGeneratorService(3, now::get);
+
+        long previous = -1;
+        for (int i = 0; i <= IdGeneratorService.SEQUENCE_MASK + 1; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertEquals(3, (id >>> IdGeneratorService.SEQUENCE_BITS) & IdGeneratorService.MAX_NODE_ID);
+            previous = id;
+        }
+    }
+
+    @Test
+    void formatsPrefixedIdentifiers() {
+        IdGeneratorService generator = new IdGeneratorService(0, System::currentTimeMillis);
+
+        assertTrue(generator.nextTransactionId().startsWith("TXN"));
+        assertTrue(generator.nextReferenceNumber().startsWith("REF"));
+        assertTrue(generator.nextReceiptNumber().startsWith("RCP"));
+    }
+
+    @Test
+    void rejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new IdGeneratorService(IdGeneratorService.MAX_NODE_ID + 1, System::currentTimeMillis));
+    }
+}
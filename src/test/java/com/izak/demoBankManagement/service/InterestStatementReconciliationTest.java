@@ -0,0 +1,109 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.AccountStatementRequestDTO;
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.entity.LedgerEntry;
+import com.izak.demoBankManagement.repository.TransactionBatchRepository;
+import com.izak.demoBankManagement.support.DatabaseTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Interest capitalised at a month end shows up as a statement row, so a statement spanning the
+ * capitalisation still reconciles: opening balance plus credits minus debits is the closing balance.
+ */
+class InterestStatementReconciliationTest extends DatabaseTestSupport {
+
+    private static final BigDecimal OPENING = new BigDecimal("10000.00");
+
+    @Autowired
+    private InterestAccrualService interestAccrualService;
+
+    @Autowired
+    private StatementExportService statementExportService;
+
+    @Autowired
+    private TransactionBatchRepository transactionBatchRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate monthEnd = YearMonth.now().minusMonths(1).atEndOfMonth();
+
+    @AfterEach
+    void deleteInterestRun() {
+        jdbcTemplate.update("DELETE FROM interest_accrual_checkpoints WHERE accrual_date = ?", Date.valueOf(monthEnd));
+    }
+
+    @Test
+    void statementReconcilesAcrossInterestCapitalisation() throws Exception {
+        Account account = fixtures.createAccounts(1, OPENING).get(0);
+        account.setInterestRate(new BigDecimal("12.00"));
+        account = accountRepository.save(account);
+        postOpeningBalance(account, monthEnd.atTime(12, 0));
+
+        interestAccrualService.accrueThrough(monthEnd);
+
+        AccountStatementRequestDTO request = new AccountStatementRequestDTO();
+        request.setAccountNumber(account.getAccountNumber());
+        request.setStartDate(monthEnd.atTime(18, 0));
+        request.setEndDate(LocalDateTime.now().plusMinutes(1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementExportService.export(request, StatementExportService.Format.CSV,
+                fixtures.adminToken().substring(7)).writeTo(out);
+        List<String[]> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(line.split(",", -1));
+        }
+
+        // One day at 12% on 10000.00 is 3.287671, of which the whole cents are capitalised
+        BigDecimal interest = new BigDecimal("3.28");
+        String[] credit = lines.get(2);
+        assertEquals("CREDIT", credit[3]);
+        assertEquals(LedgerService.interestTransactionId(monthEnd.format(DateTimeFormatter.ofPattern("yyyyMM")),
+                account.getId()), credit[1]);
+        assertEquals(interest, new BigDecimal(credit[8]));
+
+        BigDecimal opening = new BigDecimal(lines.get(1)[9]);
+        BigDecimal credits = new BigDecimal(lines.get(3)[8]);
+        BigDecimal debits = new BigDecimal(lines.get(4)[8]);
+        BigDecimal closing = new BigDecimal(lines.get(5)[9]);
+        assertEquals(0, OPENING.compareTo(opening));
+        assertEquals(0, opening.add(credits).subtract(debits).compareTo(closing));
+        assertEquals(0, closing.compareTo(ledgerService.balanceAsOf(account, request.getEndDate())));
+        assertEquals(0, closing.compareTo(accountRepository.findById(account.getId()).orElseThrow().getBalance()));
+    }
+
+    /**
+     * Ledger legs and the day's closing checkpoint for a balance the account already holds.
+     */
+    private void postOpeningBalance(Account account, LocalDateTime at) {
+        String transactionId = "OPEN" + account.getId();
+        transactionBatchRepository.insertLedgerEntries(List.of(
+                new LedgerEntry(null, transactionId, null, LedgerEntry.GL_OPENING_BALANCE, LedgerEntry.EntryType.DEBIT,
+                        OPENING, account.getCurrency(), at),
+                new LedgerEntry(null, transactionId, account.getId(), account.getAccountNumber(),
+                        LedgerEntry.EntryType.CREDIT, OPENING, account.getCurrency(), at)));
+        transactionBatchRepository.applyDailyBalanceDeltas(at.toLocalDate(),
+                Collections.singletonMap(account.getId(), OPENING), at);
+    }
+}
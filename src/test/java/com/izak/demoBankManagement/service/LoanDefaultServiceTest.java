@@ -0,0 +1,92 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.entity.Loan;
+import com.izak.demoBankManagement.entity.LoanRepaymentSchedule;
+import com.izak.demoBankManagement.repository.LoanRepaymentScheduleRepository;
+import com.izak.demoBankManagement.repository.LoanRepository;
+import com.izak.demoBankManagement.support.DatabaseTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Default marking runs in chunks of two loans here, so the branch's loans span several chunks.
+ */
+@SpringBootTest(properties = "bank.loan-default.chunk-size=2")
+class LoanDefaultServiceTest extends DatabaseTestSupport {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanRepaymentScheduleRepository scheduleRepository;
+
+    @Test
+    void defaultsLoansWithInstallmentsOverdueBeyondCutoff() {
+        List<Account> accounts = fixtures.createAccounts(5, new BigDecimal("100.00"));
+
+        // Loan i has i installments 100 days overdue and one due next month
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < accounts.size(); i++) {
+            Loan loan = createActiveLoan(accounts.get(i));
+            for (int n = 1; n <= i; n++) {
+                createInstallment(loan, n, LocalDate.now().minusDays(100));
+            }
+            createInstallment(loan, i + 1, LocalDate.now().plusMonths(1));
+            loans.add(loan);
+        }
+
+        String token = fixtures.branchManagerToken(accounts.get(0).getBranch().getId()).substring(7);
+        loanService.markDefaults(token);
+
+        for (int i = 0; i < loans.size(); i++) {
+            Loan loan = loanRepository.findById(loans.get(i).getId()).orElseThrow();
+            List<LoanRepaymentSchedule> schedules = scheduleRepository.findByLoanIdOrderByDueDateAsc(loan.getId());
+            long overdue = schedules.stream()
+                    .filter(s -> s.getStatus() == LoanRepaymentSchedule.ScheduleStatus.OVERDUE).count();
+
+            assertEquals(i == 0 ? Loan.LoanStatus.ACTIVE : Loan.LoanStatus.DEFAULTED, loan.getLoanStatus());
+            assertEquals(i, overdue);
+            assertEquals(LoanRepaymentSchedule.ScheduleStatus.PENDING, schedules.get(schedules.size() - 1).getStatus());
+            if (i > 0) {
+                assertEquals("Loan defaulted - " + i + " installments overdue by more than 90 days", loan.getRemarks());
+            }
+        }
+    }
+
+    private Loan createActiveLoan(Account account) {
+        Loan loan = new Loan();
+        loan.setLoanId("LD" + account.getAccountNumber());
+        loan.setCustomer(account.getCustomer());
+        loan.setAccount(account);
+        loan.setLoanType(Loan.LoanType.HOME_LOAN);
+        loan.setLoanStatus(Loan.LoanStatus.ACTIVE);
+        loan.setPrincipal(new BigDecimal("12000"));
+        loan.setAnnualInterestRate(new BigDecimal("8.50"));
+        loan.setTenureMonths(12);
+        loan.setApplicationDate(LocalDate.now().minusYears(1));
+        return loanRepository.save(loan);
+    }
+
+    private void createInstallment(Loan loan, int number, LocalDate dueDate) {
+        LoanRepaymentSchedule schedule = new LoanRepaymentSchedule();
+        schedule.setLoan(loan);
+        schedule.setInstallmentNumber(number);
+        schedule.setDueDate(dueDate);
+        schedule.setPrincipalAmount(new BigDecimal("1000.00"));
+        schedule.setInterestAmount(new BigDecimal("85.00"));
+        schedule.setTotalAmount(new BigDecimal("1085.00"));
+        scheduleRepository.save(schedule);
+    }
+}
@@ -0,0 +1,98 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.LoanListItemDTO;
+import com.izak.demoBankManagement.dto.LoanSearchRequestDTO;
+import com.izak.demoBankManagement.dto.LoanSearchResponseDTO;
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.entity.Loan;
+import com.izak.demoBankManagement.repository.LoanRepository;
+import com.izak.demoBankManagement.support.DatabaseTestSupport;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loan search and the loan lists filter and paginate in the database: one page query and one
+ * count, with the branch scope applied in SQL rather than per loan.
+ */
+class LoanSearchQueryCountTest extends DatabaseTestSupport {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Test
+    void branchSearchFiltersAndPagesInTwoStatements() {
+        List<Account> accounts = createLoans();
+        String token = fixtures.branchManagerToken(accounts.get(0).getBranch().getId()).substring(7);
+
+        LoanSearchRequestDTO request = new LoanSearchRequestDTO();
+        request.setLoanType("home_loan");
+        request.setMinAmount(new BigDecimal("3000"));
+        request.setPageNumber(0);
+        request.setPageSize(2);
+
+        Statistics statistics = resetStatistics();
+        LoanSearchResponseDTO response = loanService.searchLoans(request, token);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(4, response.getTotalCount());
+        assertEquals(2, response.getTotalPages());
+        assertEquals(List.of("LS" + accounts.get(2).getAccountNumber(), "LS" + accounts.get(4).getAccountNumber()),
+                response.getLoans().stream().map(LoanListItemDTO::getLoanId).toList());
+        for (LoanListItemDTO loan : response.getLoans()) {
+            assertTrue(loan.getCustomerName().startsWith("Bench "));
+        }
+    }
+
+    @Test
+    void branchLoanListsAreProjectedPages() {
+        List<Account> accounts = createLoans();
+        String token = fixtures.branchManagerToken(accounts.get(0).getBranch().getId()).substring(7);
+
+        Statistics statistics = resetStatistics();
+        LoanSearchResponseDTO all = loanService.getAllLoans(1, 3, token);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(10, all.getTotalCount());
+        assertEquals(4, all.getTotalPages());
+        assertEquals("LS" + accounts.get(0).getAccountNumber(), all.getLoans().get(0).getLoanId());
+        assertEquals("Bench Customer0", all.getLoans().get(0).getCustomerName());
+
+        statistics.clear();
+        LoanSearchResponseDTO pending = loanService.getPendingApprovalLoans(1, 3, token);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(10, pending.getTotalCount());
+        assertEquals("LS" + accounts.get(9).getAccountNumber(), pending.getLoans().get(0).getLoanId());
+        assertEquals("PENDING", pending.getLoans().get(0).getApprovalStatus());
+    }
+
+    // One loan per account: even index HOME_LOAN, odd CAR_LOAN, principal 1000 * (i + 1), applied i days ago
+    private List<Account> createLoans() {
+        List<Account> accounts = fixtures.createAccounts(10, new BigDecimal("100.00"));
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            Loan loan = new Loan();
+            loan.setLoanId("LS" + account.getAccountNumber());
+            loan.setCustomer(account.getCustomer());
+            loan.setAccount(account);
+            loan.setLoanType(i % 2 == 0 ? Loan.LoanType.HOME_LOAN : Loan.LoanType.CAR_LOAN);
+            loan.setPrincipal(new BigDecimal(1000 * (i + 1)));
+            loan.setAnnualInterestRate(new BigDecimal("8.50"));
+            loan.setTenureMonths(12);
+            loan.setApplicationDate(LocalDate.now().minusDays(i));
+            loanRepository.save(loan);
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,41 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.exception.InvalidTransactionException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OnboardingCsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsAndLineEndings() throws Exception {
+        OnboardingImportService.CsvReader reader = new OnboardingImportService.CsvReader(new StringReader(
+                "email,address\r\n"
+                        + "a@bank.com,\"1 Main St, Apt 2\"\r\n"
+                        + "\n"
+                        + "b@bank.com,\"Say \"\"hi\"\"\nsecond line\"\n"
+                        + "c@bank.com,"));
+
+        assertEquals(Arrays.asList("email", "address"), reader.readRecord());
+        assertEquals(Arrays.asList("a@bank.com", "1 Main St, Apt 2"), reader.readRecord());
+        assertEquals(2, reader.getRecordNumber());
+        assertEquals(Arrays.asList("b@bank.com", "Say \"hi\"\nsecond line"), reader.readRecord());
+        assertEquals(4, reader.getRecordNumber());
+        assertEquals(Arrays.asList("c@bank.com", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() throws Exception {
+        OnboardingImportService.CsvReader reader = new OnboardingImportService.CsvReader(
+                new StringReader("email\n\"a@bank.com\n"));
+
+        reader.readRecord();
+        assertThrows(InvalidTransactionException.class, reader::readRecord);
+    }
+}
@@ -0,0 +1,54 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.entity.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScheduledTransactionServiceTest {
+
+    @Test
+    void monthlyOrderReturnsToAnchorDayAfterShortMonth() {
+        Transaction order = standingOrder(Transaction.RecurringFrequency.MONTHLY, LocalDateTime.of(2025, 1, 31, 9, 0));
+
+        order.setNextRecurringDate(ScheduledTransactionService.nextOccurrence(order));
+        assertEquals(LocalDateTime.of(2025, 2, 28, 9, 0), order.getNextRecurringDate());
+
+        order.setNextRecurringDate(ScheduledTransactionService.nextOccurrence(order));
+        assertEquals(LocalDateTime.of(2025, 3, 31, 9, 0), order.getNextRecurringDate());
+    }
+
+    @Test
+    void yearlyOrderOnLeapDay() {
+        Transaction order = standingOrder(Transaction.RecurringFrequency.YEARLY, LocalDateTime.of(2024, 2, 29, 0, 0));
+
+        order.setNextRecurringDate(ScheduledTransactionService.nextOccurrence(order));
+        assertEquals(LocalDateTime.of(2025, 2, 28, 0, 0), order.getNextRecurringDate());
+
+        order.setNextRecurringDate(ScheduledTransactionService.nextOccurrence(order));
+        order.setNextRecurringDate(ScheduledTransactionService.nextOccurrence(order));
+        order.setNextRecurringDate(ScheduledTransactionService.nextOccurrence(order));
+        assertEquals(LocalDateTime.of(2028, 2, 29, 0, 0), order.getNextRecurringDate());
+    }
+
+    @Test
+    void dailyAndWeeklyOrdersAdvanceByOnePeriod() {
+        LocalDateTime start = LocalDateTime.of(2025, 6, 1, 8, 30);
+
+        assertEquals(start.plusDays(1), ScheduledTransactionService.nextOccurrence(
+                standingOrder(Transaction.RecurringFrequency.DAILY, start)));
+        assertEquals(start.plusWeeks(1), ScheduledTransactionService.nextOccurrence(
+                standingOrder(Transaction.RecurringFrequency.WEEKLY, start)));
+    }
+
+    private static Transaction standingOrder(Transaction.RecurringFrequency frequency, LocalDateTime start) {
+        Transaction order = new Transaction();
+        order.setIsRecurring(true);
+        order.setRecurringFrequency(frequency);
+        order.setScheduledAt(start);
+        order.setNextRecurringDate(start);
+        return order;
+    }
+}
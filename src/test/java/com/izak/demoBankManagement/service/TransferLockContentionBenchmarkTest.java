@@ -0,0 +1,139 @@
+package com.izak.demoBankManagement.service;
+
+import com.izak.demoBankManagement.dto.TransferRequestDTO;
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.exception.AccountLockException;
+import com.izak.demoBankManagement.repository.AccountRepository;
+import com.izak.demoBankManagement.repository.BranchRepository;
+import com.izak.demoBankManagement.repository.CustomerRepository;
+import com.izak.demoBankManagement.repository.UserRepository;
+import com.izak.demoBankManagement.security.JwtUtil;
+import com.izak.demoBankManagement.support.BenchmarkFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Contention benchmark for {@link TransactionService#transferFunds}.
+ *
+ * Runs a fixed number of transfers between a small pool of accounts while increasing the share
+ * of opposing-direction (B->A) traffic. With ordered locking the throughput must stay flat and
+ * no transfer may fail on a lock. Needs a real PostgreSQL database, so it only runs with
+ * {@code -Dbank.benchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "bank.benchmark", matches = "true")
+class TransferLockContentionBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_ROUND = 2000;
+    private static final int ACCOUNT_PAIRS = 4;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void throughputStaysFlatAsOpposingTrafficGrows() throws Exception {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(branchRepository, userRepository,
+                customerRepository, accountRepository, jwtUtil);
+        List<Account> accounts = fixtures.createAccounts(ACCOUNT_PAIRS * 2, new BigDecimal("100000000.00"));
+        String token = fixtures.adminToken();
+
+        // Warm up connection pool and JIT before measuring
+        runRound(accounts, token, 0, 200);
+
+        double baseline = 0;
+        for (int opposingPercent : new int[]{0, 25, 50}) {
+            RoundResult result = runRound(accounts, token, opposingPercent, TRANSFERS_PER_ROUND);
+            System.out.printf("opposing=%d%% throughput=%.0f tx/s lockFailures=%d otherFailures=%d%n",
+                    opposingPercent, result.throughput, result.lockFailures, result.otherFailures);
+
+            assertEquals(0, result.lockFailures, "Transfers must never fail on account locks");
+            if (opposingPercent == 0) {
+                baseline = result.throughput;
+            } else {
+                assertTrue(result.throughput >= baseline * 0.7,
+                        "Throughput dropped from " + baseline + " to " + result.throughput
+                                + " tx/s with " + opposingPercent + "% opposing traffic");
+            }
+        }
+    }
+
+    private RoundResult runRound(List<Account> accounts, String token, int opposingPercent, int transfers)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch done = new CountDownLatch(transfers);
+        AtomicInteger lockFailures = new AtomicInteger();
+        AtomicInteger otherFailures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < transfers; i++) {
+            int pair = i % ACCOUNT_PAIRS;
+            boolean opposing = (i % 100) < opposingPercent;
+            Account a = accounts.get(pair * 2);
+            Account b = accounts.get(pair * 2 + 1);
+
+            TransferRequestDTO request = new TransferRequestDTO();
+            request.setFromAccountNumber(opposing ? b.getAccountNumber() : a.getAccountNumber());
+            request.setToAccountNumber(opposing ? a.getAccountNumber() : b.getAccountNumber());
+            request.setAmount(new BigDecimal("1.00"));
+            request.setTransferMode("IMPS");
+            request.setTransferType("own");
+
+            executor.execute(() -> {
+                try {
+                    transactionService.transferFunds(request, token);
+                } catch (AccountLockException e) {
+                    lockFailures.incrementAndGet();
+                } catch (RuntimeException e) {
+                    otherFailures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        RoundResult result = new RoundResult();
+        result.throughput = transfers / (elapsed / 1_000_000_000.0);
+        result.lockFailures = lockFailures.get();
+        result.otherFailures = otherFailures.get();
+        return result;
+    }
+
+    private static class RoundResult {
+        double throughput;
+        int lockFailures;
+        int otherFailures;
+    }
+}
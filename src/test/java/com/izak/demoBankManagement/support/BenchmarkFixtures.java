@@ -0,0 +1,147 @@
+package com.izak.demoBankManagement.support;
+
+import com.izak.demoBankManagement.entity.Account;
+import com.izak.demoBankManagement.entity.Branch;
+import com.izak.demoBankManagement.entity.Customer;
+import com.izak.demoBankManagement.entity.User;
+import com.izak.demoBankManagement.repository.AccountRepository;
+import com.izak.demoBankManagement.repository.BranchRepository;
+import com.izak.demoBankManagement.repository.CustomerRepository;
+import com.izak.demoBankManagement.repository.UserRepository;
+import com.izak.demoBankManagement.security.JwtUtil;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seeds the minimum branch / customer / account graph needed by the opt-in benchmarks.
+ * Every run uses a fresh suffix so benchmarks can be repeated against the same database;
+ * tests call {@link #deleteAll} to remove what they created.
+ */
+public class BenchmarkFixtures {
+
+    private final BranchRepository branchRepository;
+    private final UserRepository userRepository;
+    private final CustomerRepository customerRepository;
+    private final AccountRepository accountRepository;
+    private final JwtUtil jwtUtil;
+
+    private final String runId = Long.toString(System.nanoTime() % 100000000L, 36).toUpperCase();
+    private final List<Long> branchIds = new ArrayList<>();
+
+    public BenchmarkFixtures(BranchRepository branchRepository, UserRepository userRepository,
+                             CustomerRepository customerRepository, AccountRepository accountRepository,
+                             JwtUtil jwtUtil) {
+        this.branchRepository = branchRepository;
+        this.userRepository = userRepository;
+        this.customerRepository = customerRepository;
+        this.accountRepository = accountRepository;
+        this.jwtUtil = jwtUtil;
+    }
+
+    public String adminToken() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", "ADMIN");
+        org.springframework.security.core.userdetails.User admin =
+                new org.springframework.security.core.userdetails.User("benchmark", "",
+                        Collections.singletonList(
+                                new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_ADMIN")));
+        return "Bearer " + jwtUtil.generateToken(claims, admin);
+    }
+
+    public String branchManagerToken(Long branchId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", "BRANCH_MANAGER");
+        claims.put("branchId", branchId);
+        org.springframework.security.core.userdetails.User manager =
+                new org.springframework.security.core.userdetails.User("benchmark.manager", "",
+                        Collections.singletonList(
+                                new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_BRANCH_MANAGER")));
+        return "Bearer " + jwtUtil.generateToken(claims, manager);
+    }
+
+    /**
+     * Create {@code count} ACTIVE accounts, each owned by its own customer, all in one branch.
+     */
+    public List<Account> createAccounts(int count, BigDecimal openingBalance) {
+        Branch branch = new Branch();
+        branch.setBranchCode("BM" + runId);
+        branch.setBranchName("Benchmark Branch " + runId);
+        branch.setAddress("1 Benchmark Way");
+        branch.setCity("Springfield");
+        branch.setState("IL");
+        branch.setZipCode("62701");
+        branch.setPhone("555-0000");
+        branch.setEmail("bench" + runId + "@bank.com");
+        branch.setIfscCode("BENCH" + runId);
+        branch.setStatus(Branch.BranchStatus.ACTIVE);
+        branch = branchRepository.save(branch);
+        branchIds.add(branch.getId());
+
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername("bench." + runId + "." + i);
+            user.setPassword("-");
+            user.setEmail("bench." + runId + "." + i + "@bank.com");
+            user.setRole(User.Role.CUSTOMER);
+            user = userRepository.save(user);
+
+            Customer customer = new Customer();
+            customer.setUser(user);
+            customer.setCustomerId("CB" + runId + i);
+            customer.setFirstName("Bench");
+            customer.setLastName("Customer" + i);
+            customer.setEmail(user.getEmail());
+            customer.setPhone("555-0001");
+            customer.setDateOfBirth(LocalDate.of(1990, 1, 1));
+            customer.setAddress("1 Benchmark Way");
+            customer.setCity("Springfield");
+            customer.setState("IL");
+            customer.setZipCode("62701");
+            customer = customerRepository.save(customer);
+
+            Account account = new Account();
+            account.setAccountNumber("AB" + runId + i);
+            account.setCustomer(customer);
+            account.setCustomerId(customer.getCustomerId());
+            account.setAccountType("SAVINGS");
+            account.setBranch(branch);
+            account.setBalance(openingBalance);
+            account.setStatus(Account.Status.ACTIVE);
+            accounts.add(accountRepository.save(account));
+        }
+        return accounts;
+    }
+
+    /**
+     * Delete the branches created by this run with their accounts, loans, transactions, interest
+     * accruals, ledger entries, checkpoints, customers and users.
+     */
+    public void deleteAll(JdbcTemplate jdbcTemplate) {
+        String accounts = "SELECT id FROM accounts WHERE branch_id = ?";
+        for (Long branchId : branchIds) {
+            jdbcTemplate.update("DELETE FROM loan_repayment_schedules WHERE loan_id IN " +
+                    "(SELECT id FROM loans WHERE account_id IN (" + accounts + "))", branchId);
+            jdbcTemplate.update("DELETE FROM loans WHERE account_id IN (" + accounts + ")", branchId);
+            jdbcTemplate.update("DELETE FROM loan_default_checkpoints WHERE scope = ?", "BRANCH-" + branchId);
+            jdbcTemplate.update("DELETE FROM transactions WHERE from_account_id IN (" + accounts + ") " +
+                    "OR to_account_id IN (" + accounts + ")", branchId, branchId);
+            jdbcTemplate.update("DELETE FROM interest_accruals WHERE account_id IN (" + accounts + ")", branchId);
+            jdbcTemplate.update("DELETE FROM ledger_entries WHERE account_id IN (" + accounts + ")", branchId);
+            jdbcTemplate.update("DELETE FROM daily_balances WHERE account_id IN (" + accounts + ")", branchId);
+            jdbcTemplate.update("DELETE FROM daily_balance_deltas WHERE account_id IN (" + accounts + ")", branchId);
+            jdbcTemplate.update("DELETE FROM accounts WHERE branch_id = ?", branchId);
+            jdbcTemplate.update("DELETE FROM branches WHERE id = ?", branchId);
+        }
+        jdbcTemplate.update("DELETE FROM customers WHERE customer_id LIKE ?", "CB" + runId + "%");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", "bench." + runId + ".%");
+        branchIds.clear();
+    }
+}
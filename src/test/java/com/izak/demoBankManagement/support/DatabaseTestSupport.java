@@ -0,0 +1,68 @@
+package com.izak.demoBankManagement.support;
+
+import com.izak.demoBankManagement.repository.AccountRepository;
+import com.izak.demoBankManagement.repository.BranchRepository;
+import com.izak.demoBankManagement.repository.CustomerRepository;
+import com.izak.demoBankManagement.repository.UserRepository;
+import com.izak.demoBankManagement.security.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Base of the database-backed service tests: a fresh {@link BenchmarkFixtures} per test, deleted
+ * again afterwards, and Hibernate statistics for asserting how many statements a call runs.
+ *
+ * The fixtures are committed rather than rolled back because the code under test reads them
+ * from other threads and its own transactions.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public abstract class DatabaseTestSupport {
+
+    @Autowired
+    protected AccountRepository accountRepository;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    protected BenchmarkFixtures fixtures;
+
+    @BeforeEach
+    void createFixtures() {
+        fixtures = new BenchmarkFixtures(branchRepository, userRepository, customerRepository, accountRepository, jwtUtil);
+    }
+
+    @AfterEach
+    void deleteFixtures() {
+        fixtures.deleteAll(jdbcTemplate);
+    }
+
+    /**
+     * Statistics cleared, so {@link Statistics#getPrepareStatementCount()} counts from here on.
+     */
+    protected Statistics resetStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
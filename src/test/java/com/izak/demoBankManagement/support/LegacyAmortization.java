@@ -0,0 +1,57 @@
+package com.izak.demoBankManagement.support;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The amortization arithmetic as the loan services did it before AmortizationEngine: (1 + r)^n as
+ * an exact n-fold product, and the schedule one BigDecimal installment at a time. Reference for
+ * equivalence tests and benchmarks only.
+ */
+public final class LegacyAmortization {
+
+    private LegacyAmortization() {
+    }
+
+    public static BigDecimal pow(BigDecimal base, int exponent) {
+        if (exponent == 0) {
+            return BigDecimal.ONE;
+        }
+        BigDecimal result = base;
+        for (int i = 1; i < exponent; i++) {
+            result = result.multiply(base);
+        }
+        return result.setScale(10, RoundingMode.HALF_UP);
+    }
+
+    public static BigDecimal emi(BigDecimal principal, BigDecimal annualRate, int months) {
+        BigDecimal monthlyRate = annualRate.divide(BigDecimal.valueOf(1200), 10, RoundingMode.HALF_UP);
+        BigDecimal power = pow(BigDecimal.ONE.add(monthlyRate), months);
+        return principal.multiply(monthlyRate).multiply(power)
+                .divide(power.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @return per installment: principal, interest, total and balance after payment
+     */
+    public static BigDecimal[][] schedule(BigDecimal principal, BigDecimal annualRate, BigDecimal emi, int months) {
+        BigDecimal monthlyInterestRate = annualRate
+                .divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(12), 10, RoundingMode.HALF_UP);
+
+        BigDecimal[][] installments = new BigDecimal[months][];
+        BigDecimal remainingPrincipal = principal;
+        for (int i = 1; i <= months; i++) {
+            BigDecimal interestAmount = remainingPrincipal.multiply(monthlyInterestRate).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal principalAmount = emi.subtract(interestAmount).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal totalAmount = emi;
+            if (i == months) {
+                principalAmount = remainingPrincipal;
+                totalAmount = principalAmount.add(interestAmount);
+            }
+            remainingPrincipal = remainingPrincipal.subtract(principalAmount);
+            installments[i - 1] = new BigDecimal[]{principalAmount, interestAmount, totalAmount, remainingPrincipal};
+        }
+        return installments;
+    }
+}